@@ -0,0 +1,49 @@
+package com.pgim.portfolio.api.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Broker topology for trade lifecycle events, declared by Spring Boot's RabbitAdmin on first connect.
+ * Consumers bind their own queues, e.g. trade.# for everything or trade.*.42 for one portfolio.
+ * Events no binding matches go to the exchange's alternate exchange and wait in the {exchange}.unrouted queue,
+ * instead of being returned to the relay.
+ * Adding the alternate exchange to an existing trade.events exchange needs the exchange deleted once first,
+ * since RabbitMQ refuses to redeclare it with different arguments.
+ */
+@Configuration
+@ConditionalOnProperty(name = "trade.outbox.broker", havingValue = "rabbit", matchIfMissing = true)
+public class AmqpConfig {
+
+    @Bean
+    public TopicExchange tradeEventsExchange(@Value("${trade.outbox.exchange:trade.events}") String exchange) {
+        return ExchangeBuilder.topicExchange(exchange)
+                .durable(true)
+                .alternate(exchange + ".unrouted")
+                .build();
+    }
+
+    @Bean
+    public FanoutExchange unroutedTradeEventsExchange(@Value("${trade.outbox.exchange:trade.events}") String exchange) {
+        return new FanoutExchange(exchange + ".unrouted", true, false);
+    }
+
+    @Bean
+    public Queue unroutedTradeEventsQueue(@Value("${trade.outbox.exchange:trade.events}") String exchange) {
+        return QueueBuilder.durable(exchange + ".unrouted").build();
+    }
+
+    @Bean
+    public Binding unroutedTradeEventsBinding(Queue unroutedTradeEventsQueue, FanoutExchange unroutedTradeEventsExchange) {
+        return BindingBuilder.bind(unroutedTradeEventsQueue).to(unroutedTradeEventsExchange);
+    }
+}
@@ -2,6 +2,7 @@ package com.pgim.portfolio.api.config;
 
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -41,12 +42,15 @@ public class AppUserDataSourceConfig {
     @Bean(name = APPUSER_ENTITY_MANAGER)
     public LocalContainerEntityManagerFactoryBean appUserEntityManagerFactory(
             EntityManagerFactoryBuilder builder,
-            @Qualifier(APPUSER_DATASOURCE) DataSource appUserDataSource
+            @Qualifier(APPUSER_DATASOURCE) DataSource appUserDataSource,
+            @Value("${hibernate-cache.appuser.enabled:true}") boolean secondLevelCacheEnabled
     ) {
+        // Users and role links are read on every authentication, so they sit in the second-level cache
         return builder
                 .dataSource(appUserDataSource)
                 .packages(APPUSER_ENTITY_PACKAGE)
                 .persistenceUnit("appuser")
+                .properties(SecondLevelCacheSettings.forPersistenceUnit("appuser", secondLevelCacheEnabled))
                 .build();
     }
 
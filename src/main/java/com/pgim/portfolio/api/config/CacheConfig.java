@@ -0,0 +1,49 @@
+package com.pgim.portfolio.api.config;
+
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.api.util.ReadThroughCache;
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read-through caches for the by-id lookups polled by dashboards. Each entity type is switched and sized
+ * on its own; writers invalidate the affected ids.
+ * The paged trade and portfolio listings share one page cache, invalidated by the portfolios a write touched.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public ReadThroughCache<Long, PortfolioDTO> portfolioCache(
+            @Value("${portfolio.cache.enabled:true}") boolean enabled,
+            @Value("${portfolio.cache.max-size:1000}") int maxSize,
+            @Value("${portfolio.cache.ttl:30s}") Duration ttl,
+            @Value("${portfolio.cache.negative-ttl:5s}") Duration negativeTtl
+    ) {
+        return new ReadThroughCache<>("portfolio", enabled, maxSize, ttl, negativeTtl);
+    }
+
+    @Bean
+    public ReadThroughCache<Long, TradeDTO> tradeCache(
+            @Value("${trade.cache.enabled:true}") boolean enabled,
+            @Value("${trade.cache.max-size:10000}") int maxSize,
+            @Value("${trade.cache.ttl:30s}") Duration ttl,
+            @Value("${trade.cache.negative-ttl:5s}") Duration negativeTtl
+    ) {
+        return new ReadThroughCache<>("trade", enabled, maxSize, ttl, negativeTtl);
+    }
+
+    @Bean
+    public GenerationalPageCache listingPageCache(
+            @Value("${trade.page-cache.enabled:true}") boolean enabled,
+            @Value("${trade.page-cache.max-size:500}") int maxSize,
+            @Value("${trade.page-cache.ttl:5m}") Duration ttl
+    ) {
+        return new GenerationalPageCache("listing-page", enabled, maxSize, ttl);
+    }
+}
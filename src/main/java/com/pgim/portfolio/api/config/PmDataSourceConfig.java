@@ -2,6 +2,7 @@ package com.pgim.portfolio.api.config;
 
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -58,16 +59,19 @@ public class PmDataSourceConfig {
     /**
      * Defines the EntityManagerFactory for the secondary DB.
      * Points to the entity package for pm entities.
+     * Read-mostly entities (roles, portfolio headers) are kept in the second-level cache.
      */
     @Primary
     @Bean(name = PORTFOLIO_ENTITY_MANAGER)
     public LocalContainerEntityManagerFactoryBean pmEntityManagerFactory(
-            EntityManagerFactoryBuilder builder
+            EntityManagerFactoryBuilder builder,
+            @Value("${hibernate-cache.pm.enabled:true}") boolean secondLevelCacheEnabled
     ) {
         return builder
                 .dataSource(pmDataSource())
                 .packages(PORTFOLIO_ENTITY_PACKAGE)
                 .persistenceUnit("pm")
+                .properties(SecondLevelCacheSettings.forPersistenceUnit("pm", secondLevelCacheEnabled))
                 .build();
     }
 
@@ -0,0 +1,40 @@
+package com.pgim.portfolio.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.OUTBOX_RELAY_SCHEDULER;
+
+/**
+ * Separate schedulers so that slow jobs cannot hold up frequent ones.
+ * taskScheduler (the default, sized by spring.task.scheduling.pool.size) runs short periodic ticks such as
+ * trade expiry and the SSE heartbeat. Long maintenance jobs (snapshots, archival, audit partitions,
+ * reconciliation) run on their own pool, and the outbox relay, which waits on broker confirms, on its own thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler(
+            ThreadPoolTaskSchedulerBuilder builder,
+            @Value("${scheduling.maintenance.pool-size:2}") int poolSize
+    ) {
+        return builder.poolSize(poolSize).threadNamePrefix("maintenance-").build();
+    }
+
+    @Bean(OUTBOX_RELAY_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxRelayScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.poolSize(1).threadNamePrefix("outbox-relay-").build();
+    }
+}
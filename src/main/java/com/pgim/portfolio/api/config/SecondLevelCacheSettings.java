@@ -0,0 +1,31 @@
+package com.pgim.portfolio.api.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hibernate properties that switch on the second-level and query cache for one persistence unit.
+ *
+ * Each unit gets its own JCache (Ehcache 3) CacheManager from classpath:ehcache-{unit}.xml, where every region
+ * has its own size and TTL. Only entities marked @Cacheable are cached (ENABLE_SELECTIVE), and only queries
+ * with the cacheable hint use the query cache. Statistics are collected per region for the admin endpoint.
+ */
+final class SecondLevelCacheSettings {
+    private SecondLevelCacheSettings() {}
+
+    static Map<String, Object> forPersistenceUnit(String unit, boolean enabled) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.cache.use_second_level_cache", enabled);
+        properties.put("hibernate.cache.use_query_cache", enabled);
+        properties.put("hibernate.generate_statistics", enabled);
+        if (enabled) {
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            properties.put("hibernate.javax.cache.uri", "classpath:ehcache-" + unit + ".xml");
+            // A region missing from the XML is a configuration error, not something to create unbounded
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        }
+        return properties;
+    }
+}
@@ -28,4 +28,16 @@ public final class CommonConstants {
     public static final String APPUSER_ENTITY_PACKAGE = "com.pgim.portfolio.domain.entity.appuser";
     public static final String APPUSER_REPOSITORY_PACKAGE = "com.pgim.portfolio.repository.appuser";
     public static final String APPUSER_SPRING_DATASOURCE = "spring.datasource.appuser";
+
+    // Task schedulers, besides the default one for short periodic ticks (see SchedulingConfig)
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+    public static final String OUTBOX_RELAY_SCHEDULER = "outboxRelayScheduler";
+
+    // Hibernate second-level cache regions, sized in ehcache-pm.xml / ehcache-appuser.xml
+    public static final String AUTH_ROLE_CACHE_REGION = "pm.AuthRole";
+    public static final String PORTFOLIO_CACHE_REGION = "pm.Portfolio";
+    public static final String ROLE_BY_NAME_QUERY_REGION = "pm.query.AuthRoleByName";
+    public static final String APP_USER_CACHE_REGION = "appuser.AppUser";
+    public static final String APP_USER_ROLE_CACHE_REGION = "appuser.AppUserRole";
+    public static final String USER_BY_USERNAME_QUERY_REGION = "appuser.query.AppUserByUsername";
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.pgim.portfolio.api.controller;
+
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.api.util.ReadThroughCache;
+import com.pgim.portfolio.domain.dto.admin.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.APPUSER_ENTITY_MANAGER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_ENTITY_MANAGER;
+
+/**
+ * Controller for operational endpoints, restricted to ADMIN by the security configuration.
+ */
+@RestController
+@RequestMapping("v1/api/admin")
+public class AdminController {
+
+    private final List<ReadThroughCache<?, ?>> caches;
+    private final List<GenerationalPageCache> pageCaches;
+    private final Map<String, EntityManagerFactory> cachedPersistenceUnits;
+
+    //@Autowired is implicit for single constructor
+    public AdminController(
+            List<ReadThroughCache<?, ?>> caches,
+            List<GenerationalPageCache> pageCaches,
+            @Qualifier(PORTFOLIO_ENTITY_MANAGER) EntityManagerFactory pmEntityManagerFactory,
+            @Qualifier(APPUSER_ENTITY_MANAGER) EntityManagerFactory appUserEntityManagerFactory
+    ) {
+        this.caches = caches;
+        this.pageCaches = pageCaches;
+        this.cachedPersistenceUnits = Map.of("pm", pmEntityManagerFactory, "appuser", appUserEntityManagerFactory);
+    }
+
+    /**
+     * GET endpoint for the hit/miss counters and hit ratio of every read-through cache.
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<ReadThroughCache.Stats>> getCacheStats() {
+        return ResponseEntity.ok(caches.stream().map(ReadThroughCache::stats).toList());
+    }
+
+    /**
+     * GET endpoint for the hit/miss counters and current generation of every listing page cache.
+     */
+    @GetMapping("/page-caches")
+    public ResponseEntity<List<GenerationalPageCache.Stats>> getPageCacheStats() {
+        return ResponseEntity.ok(pageCaches.stream().map(GenerationalPageCache::stats).toList());
+    }
+
+    /**
+     * GET endpoint for the Hibernate second-level and query cache statistics, per persistence unit and region.
+     */
+    @GetMapping("/hibernate-caches")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getHibernateCacheStats() {
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        cachedPersistenceUnits.forEach((unit, entityManagerFactory) -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                return; // second-level cache switched off for this unit
+            }
+            Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+                CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+                if (region != null) {
+                    long lookups = region.getHitCount() + region.getMissCount();
+                    regions.add(new CacheRegionStatsDTO(unit, name, region.getHitCount(), region.getMissCount(),
+                            region.getPutCount(), region.getElementCountInMemory(),
+                            lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups));
+                }
+            });
+        });
+        return ResponseEntity.ok(regions);
+    }
+}
@@ -0,0 +1,61 @@
+package com.pgim.portfolio.api.controller;
+
+import com.pgim.portfolio.domain.dto.audit.TradeAuditDTO;
+import com.pgim.portfolio.domain.dto.audit.TradeAuditReconciliationDTO;
+import com.pgim.portfolio.service.audit.TradeAuditReconciliationService;
+import com.pgim.portfolio.service.audit.TradeAuditService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for trade audit lookups.
+ * Endpoints are lean, business logic is delegated to service layer.
+ */
+@RestController
+@RequestMapping("v1/api/audit")
+public class AuditController {
+
+    private final TradeAuditService tradeAuditService;
+    private final TradeAuditReconciliationService tradeAuditReconciliationService;
+
+    //@Autowired is implicit for single constructor
+    public AuditController(
+            TradeAuditService tradeAuditService,
+            TradeAuditReconciliationService tradeAuditReconciliationService
+    ) {
+        this.tradeAuditService = tradeAuditService;
+        this.tradeAuditReconciliationService = tradeAuditReconciliationService;
+    }
+
+    /**
+     * GET endpoint for the audit events of a business reference id, paged by audit id.
+     * Pass the last id of the previous page as afterId.
+     */
+    @GetMapping("/references/{referenceId}")
+    public ResponseEntity<List<TradeAuditDTO>> getAuditLogsByReferenceId(
+            @PathVariable String referenceId,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(tradeAuditService.getAuditLogsByReferenceId(referenceId, afterId, limit));
+    }
+
+    /**
+     * POST endpoint for reconciling trades against their audit trail over a trade id range.
+     * Omitted bounds cover all trades, which is meant for the nightly job rather than interactive use.
+     */
+    @PostMapping("/reconciliation")
+    public ResponseEntity<TradeAuditReconciliationDTO> reconcile(
+            @RequestParam(required = false) Long fromTradeId,
+            @RequestParam(required = false) Long toTradeId
+    ) {
+        return ResponseEntity.ok(tradeAuditReconciliationService.reconcile(fromTradeId, toTradeId));
+    }
+}
@@ -1,22 +1,38 @@
 package com.pgim.portfolio.api.controller;
 
+import com.pgim.portfolio.api.util.EntityTags;
+import com.pgim.portfolio.domain.dto.pm.PortfolioAsOfDTO;
 import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.PortfolioPatchDTO;
+import com.pgim.portfolio.service.pm.EntityTagService;
+import com.pgim.portfolio.service.pm.PortfolioHistoryService;
+import com.pgim.portfolio.service.pm.PortfolioPayloadService;
 import com.pgim.portfolio.service.pm.PortfolioService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Controller for Portfolio CRUD operations.
  * Keeps endpoints lean, delegates business logic to service layer.
@@ -28,14 +44,23 @@ public class PortfolioController {
     // CRUD: Create, Read, Update, Delete
     private final PortfolioService portfolioService;
     private final PagedResourcesAssembler<PortfolioDTO> pagedResourcesAssembler;
+    private final PortfolioHistoryService portfolioHistoryService;
+    private final EntityTagService entityTagService;
+    private final PortfolioPayloadService portfolioPayloadService;
 
     //@Autowired is implicit for single constructor
     public PortfolioController(
             PortfolioService portfolioService,
-            PagedResourcesAssembler<PortfolioDTO> pagedResourcesAssembler
+            PagedResourcesAssembler<PortfolioDTO> pagedResourcesAssembler,
+            PortfolioHistoryService portfolioHistoryService,
+            EntityTagService entityTagService,
+            PortfolioPayloadService portfolioPayloadService
     ) {
         this.portfolioService = portfolioService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.portfolioHistoryService = portfolioHistoryService;
+        this.entityTagService = entityTagService;
+        this.portfolioPayloadService = portfolioPayloadService;
     }
 
     /**
@@ -50,14 +75,48 @@ public class PortfolioController {
 
     /**
      * GET endpoint for portfolio by ID.
-     * Returns 404 if not found.
+     * Returns 404 if not found. If If-None-Match holds the current ETag (of either encoding), answers 304 from a
+     * primary key read without loading the trades; without If-None-Match no tag is read up front. Large
+     * portfolios are written from pre-serialized (optionally gzipped) bytes while those are current.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PortfolioDTO> getPortfolioById(
-            @PathVariable Long id
+    public ResponseEntity<?> getPortfolioById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
+        if (ifNoneMatch != null) {
+            Optional<String> current = entityTagService.currentPortfolioTag(id);
+            if (current.isPresent()) {
+                for (String tag : List.of(current.get(), EntityTags.gzipTag(current.get()))) {
+                    if (EntityTags.isNotModified(ifNoneMatch, tag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(tag)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                                .build();
+                    }
+                }
+            }
+        }
+        Optional<PortfolioPayloadService.Payload> payload = portfolioPayloadService.getPayload(id);
+        if (payload.isPresent()) {
+            return payloadResponse(payload.get(), acceptsGzip(acceptEncoding));
+        }
         PortfolioDTO portfolio = portfolioService.getPortfolioById(id);
-        return ResponseEntity.ok(portfolio);
+        portfolioPayloadService.offer(portfolio);
+        return ResponseEntity.ok().eTag(entityTagService.portfolioTag(portfolio)).body(portfolio);
+    }
+
+    /**
+     * GET endpoint for a portfolio as it stood at a past time.
+     * Rebuilt from the nearest snapshot plus the trade audit events after it.
+     */
+    @GetMapping("/{id}/as-of")
+    public ResponseEntity<PortfolioAsOfDTO> getPortfolioAsOf(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        return ResponseEntity.ok(portfolioHistoryService.getPortfolioAsOf(id, at));
     }
 
     /**
@@ -83,6 +142,18 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolioService.updatePortfolio(id, portfolioDTO));
     }
 
+    /**
+     * PATCH endpoint for partial portfolio updates.
+     * Only the name and the trades named in the body are touched; omitted fields stay unchanged.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<PortfolioDTO> patchPortfolio(
+            @PathVariable Long id,
+            @Valid @RequestBody PortfolioPatchDTO patch
+    ) {
+        return ResponseEntity.ok(portfolioService.patchPortfolio(id, patch));
+    }
+
     /**
      * DELETE endpoint for removing a portfolio.
      * Returns 204 No Content on success.
@@ -94,4 +165,32 @@ public class PortfolioController {
         portfolioService.deletePortfolio(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<byte[]> payloadResponse(PortfolioPayloadService.Payload payload, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.eTag(EntityTags.gzipTag(payload.eTag()))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(payload.gzip());
+        }
+        return response.eTag(payload.eTag()).body(payload.json());
+    }
+
+    /**
+     * True if the client lists gzip in Accept-Encoding without refusing it with q=0.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,33 @@
 package com.pgim.portfolio.api.controller;
 
+import com.pgim.portfolio.api.util.EntityTags;
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeImportJobDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeImportRejectDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSearchCriteria;
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionResultDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSubmissionDTO;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
+import com.pgim.portfolio.service.pm.EntityTagService;
+import com.pgim.portfolio.service.pm.TradeExportService;
+import com.pgim.portfolio.service.pm.TradeImportService;
+import com.pgim.portfolio.service.pm.TradeIngestService;
+import com.pgim.portfolio.service.pm.TradeJsonStreamService;
 import com.pgim.portfolio.service.pm.TradeService;
+import com.pgim.portfolio.service.pm.TradeStatusTransitionService;
+import com.pgim.portfolio.service.pm.TradeStreamService;
+import com.pgim.portfolio.service.pm.TradeSubmissionService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +35,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for Trade operations.
@@ -27,53 +63,259 @@ import org.springframework.web.bind.annotation.RestController;
 public class TradeController {
 
     private final TradeService tradeService;
+    private final TradeExportService tradeExportService;
+    private final TradeImportService tradeImportService;
+    private final TradeJsonStreamService tradeJsonStreamService;
+    private final TradeStatusTransitionService tradeStatusTransitionService;
+    private final EntityTagService entityTagService;
+    private final TradeStreamService tradeStreamService;
+    private final TradeSubmissionService tradeSubmissionService;
+    private final TradeIngestService tradeIngestService;
+    private final boolean directJson;
+    private final boolean asyncSubmit;
+    private final long exportTimeoutMillis;
 
     //@Autowired is implicit for single constructor
-    public TradeController(TradeService tradeService) {
+    public TradeController(
+            TradeService tradeService,
+            TradeExportService tradeExportService,
+            TradeImportService tradeImportService,
+            TradeJsonStreamService tradeJsonStreamService,
+            TradeStatusTransitionService tradeStatusTransitionService,
+            EntityTagService entityTagService,
+            TradeStreamService tradeStreamService,
+            TradeSubmissionService tradeSubmissionService,
+            TradeIngestService tradeIngestService,
+            @Value("${trade.read.direct-json:false}") boolean directJson,
+            @Value("${trade.submit.async.enabled:true}") boolean asyncSubmit,
+            @Value("${trade.export.request-timeout:0}") Duration exportTimeout
+    ) {
         this.tradeService = tradeService;
+        this.tradeExportService = tradeExportService;
+        this.tradeImportService = tradeImportService;
+        this.tradeJsonStreamService = tradeJsonStreamService;
+        this.tradeStatusTransitionService = tradeStatusTransitionService;
+        this.entityTagService = entityTagService;
+        this.tradeStreamService = tradeStreamService;
+        this.tradeSubmissionService = tradeSubmissionService;
+        this.tradeIngestService = tradeIngestService;
+        this.directJson = directJson;
+        this.asyncSubmit = asyncSubmit;
+        this.exportTimeoutMillis = exportTimeout.toMillis();
     }
 
+    /**
+     * GET endpoint for paginated trades, optionally filtered by status.
+     * Pass afterId (the last trade of the previous page) instead of a page number to read deep pages cheaply.
+     * With trade.read.direct-json enabled, numbered pages are written from JDBC straight to JSON.
+     */
     @GetMapping
-    public ResponseEntity<Page<TradeDTO>> getTrades(
+    public ResponseEntity<?> getTrades(
             Pageable pageable,
-            @RequestParam(required = false) String status
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long afterId
     ) {
-        return ResponseEntity.ok(tradeService.getAllTrades(pageable, status));
+        if (directJson && afterId == null) {
+            return directJsonPage(pageable, status, null);
+        }
+        return ResponseEntity.ok(tradeService.getAllTrades(pageable, status, afterId));
     }
 
     /**
      * GET endpoint for trade by ID.
-     * Returns 404 if not found.
+     * Returns 404 if not found, and 304 from a single version lookup if If-None-Match holds the current ETag.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TradeDTO> getTradeById(@PathVariable Long id) {
-        return ResponseEntity.ok(tradeService.getTradeById(id));
+    public ResponseEntity<TradeDTO> getTradeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (ifNoneMatch != null) {
+            String current = entityTagService.currentTradeTag(id).orElse(null);
+            if (EntityTags.isNotModified(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        TradeDTO trade = tradeService.getTradeById(id);
+        return ResponseEntity.ok().eTag(entityTagService.tradeTag(trade)).body(trade);
     }
 
     /**
      * GET endpoint for trades by portfolio ID with pagination.
-     * Delegates to service for business logic.
+     * Delegates to service for business logic. afterId works as for the trade listing.
      */
     @GetMapping("/portfolio/{id}")
-    public ResponseEntity<Page<TradeDTO>> getTradesByPortfolioId(
+    public ResponseEntity<?> getTradesByPortfolioId(
             Pageable pageable,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long afterId,
             @PathVariable Long id
     ) {
+        if (directJson && afterId == null) {
+            return directJsonPage(pageable, status, id);
+        }
         return ResponseEntity.ok(
-                tradeService.getTradesByPortfolioId(pageable, status, id)
+                tradeService.getTradesByPortfolioId(pageable, status, id, afterId)
+        );
+    }
+
+    /**
+     * GET endpoint for multi-criteria trade search with pagination.
+     * All filters are optional; sorting is limited to indexed fields. afterId works as for the trade listing.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<TradeDTO>> searchTrades(
+            Pageable pageable,
+            @RequestParam(required = false) TradeType tradeType,
+            @RequestParam(required = false) Set<TradeStatus> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) BigDecimal minQuantity,
+            @RequestParam(required = false) BigDecimal maxQuantity,
+            @RequestParam(required = false) String referenceIdPrefix,
+            @RequestParam(required = false) Set<Long> portfolioIds,
+            @RequestParam(required = false) Long afterId
+    ) {
+        TradeSearchCriteria criteria = new TradeSearchCriteria(
+                tradeType, statuses, createdFrom, createdTo,
+                minPrice, maxPrice, minQuantity, maxQuantity,
+                referenceIdPrefix, portfolioIds
         );
+        return ResponseEntity.ok(tradeService.searchTrades(criteria, pageable, afterId));
+    }
+
+    /**
+     * GET endpoint for a full trade dump as NDJSON or CSV.
+     * Rows are streamed from a JDBC cursor straight to the response, without pagination or counts.
+     * Runs as an async request with its own timeout (trade.export.request-timeout), so long dumps are not cut off
+     * by the default async timeout that applies to every other async request.
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportTrades(
+            @RequestParam(defaultValue = "NDJSON") TradeExportService.Format format,
+            @RequestParam(required = false) Long portfolioId,
+            @RequestParam(required = false) TradeStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            HttpServletResponse response
+    ) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trades." + format.getExtension() + "\"");
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            OutputStream out = response.getOutputStream();
+            tradeExportService.exportTrades(format, portfolioId, status, createdFrom, createdTo, out);
+            out.flush();
+            return null;
+        });
+    }
+
+    /**
+     * POST endpoint for bulk CSV import. The request body is streamed to a temporary file, never buffered.
+     * Answers 202 Accepted with the job to poll at Location while it runs in the background (200 if it is
+     * already finished). Pass resumeJobId with the same file to restart a failed job from its last committed
+     * chunk. 503 when too many import jobs are waiting.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TradeImportJobDTO> importTrades(
+            InputStream csv,
+            @RequestParam(defaultValue = "upload.csv") String sourceName,
+            @RequestParam(required = false) Long resumeJobId
+    ) throws IOException {
+        TradeImportJobDTO job = tradeImportService.importTrades(csv, sourceName, resumeJobId);
+        if (!"RUNNING".equals(job.status())) {
+            return ResponseEntity.ok(job);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/v1/api/trades/import/" + job.id()))
+                .body(job);
+    }
+
+    /**
+     * GET endpoint for import job progress.
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<TradeImportJobDTO> getImportJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(tradeImportService.getImportJob(jobId));
+    }
+
+    /**
+     * GET endpoint for rows rejected by an import job, paged by line number.
+     */
+    @GetMapping("/import/{jobId}/rejects")
+    public ResponseEntity<List<TradeImportRejectDTO>> getImportRejects(
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "0") long afterLine,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(tradeImportService.getRejectedRows(jobId, afterLine, limit));
+    }
+
+    /**
+     * GET endpoint streaming committed trade creates, updates (including cancels) and deletes of the given
+     * portfolios as Server-Sent Events. A reconnect resumes after Last-Event-ID; a "resync" event means events
+     * were lost and the client should reload the portfolios' trades.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTrades(
+            @RequestParam Set<Long> portfolioIds,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return tradeStreamService.subscribe(portfolioIds, lastEventId);
     }
 
     /**
      * POST endpoint for submitting a trade (idempotency check).
      * Delegates to service for business logic.
+     * With "Prefer: respond-async" (and trade.submit.async.enabled) the trade is only checked and queued:
+     * 202 Accepted with the submission to poll at Location. 503 when the submission queue is full.
      */
     @PostMapping
-    public ResponseEntity<TradeDTO> submitTrade(@Valid @RequestBody TradeDTO tradeDTO) {
+    public ResponseEntity<?> submitTrade(
+            @Valid @RequestBody TradeDTO tradeDTO,
+            @RequestHeader(value = "Prefer", required = false) String prefer
+    ) {
+        if (asyncSubmit && prefer != null && prefer.contains("respond-async")) {
+            TradeSubmissionDTO submission = tradeSubmissionService.accept(tradeDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/v1/api/trades/submissions/" + submission.id()))
+                    .header("Preference-Applied", "respond-async")
+                    .body(submission);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(tradeService.submitTrade(tradeDTO));
     }
 
+    /**
+     * POST endpoint for high-rate trade submission through the group-commit sequencer (trade.ingest.enabled).
+     * Same request and 201 response as POST v1/api/trades; the response is sent once the trade's batch has
+     * committed, without holding a request thread meanwhile. 503 when the ingest ring is full.
+     */
+    @PostMapping("/ingest")
+    public CompletableFuture<ResponseEntity<TradeDTO>> ingestTrade(@Valid @RequestBody TradeDTO tradeDTO) {
+        return tradeIngestService.submit(tradeDTO)
+                .thenApply(trade -> ResponseEntity.status(HttpStatus.CREATED).body(trade));
+    }
+
+    /**
+     * GET endpoint for the progress of an asynchronous trade submission.
+     */
+    @GetMapping("/submissions/{submissionId}")
+    public ResponseEntity<TradeSubmissionDTO> getSubmission(@PathVariable String submissionId) {
+        return ResponseEntity.ok(tradeSubmissionService.getSubmission(submissionId));
+    }
+
+    /**
+     * POST endpoint for bulk status transitions, e.g. all PENDING trades of a portfolio created before T to VALIDATED.
+     * Runs as chunked set-based UPDATEs with batched audit rows; illegal transitions are rejected.
+     */
+    @PostMapping("/status-transitions")
+    public ResponseEntity<TradeStatusTransitionResultDTO> transitionTrades(
+            @Valid @RequestBody TradeStatusTransitionDTO request
+    ) {
+        return ResponseEntity.ok(tradeStatusTransitionService.transitionTrades(request));
+    }
+
     /**
      * PUT endpoint for updating a trade.
      * Delegates to service for business logic.
@@ -92,4 +334,18 @@ public class TradeController {
         tradeService.deleteTrade(id);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<byte[]> directJsonPage(Pageable pageable, String status, Long portfolioId) {
+        TradeStatus tradeStatus = null;
+        if (status != null) {
+            try {
+                tradeStatus = TradeStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown trade status: " + status);
+            }
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tradeJsonStreamService.tradePage(pageable, tradeStatus, portfolioId));
+    }
 }
\ No newline at end of file
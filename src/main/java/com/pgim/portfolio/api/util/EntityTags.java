@@ -0,0 +1,43 @@
+package com.pgim.portfolio.api.util;
+
+/**
+ * If-None-Match evaluation (RFC 9110 13.1.2) for handlers that answer 304 before loading the resource.
+ *
+ * If-None-Match uses the weak comparison, so a tag a proxy weakened to W/"..." after compressing the body
+ * still matches its strong original.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * True if the If-None-Match header value (null when absent) lists the given quoted tag or is "*", i.e. the
+     * client already holds this representation.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(tag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The tag of the gzip-encoded representation of the resource the given quoted tag identifies. The two
+     * bodies differ byte for byte, so they must not share a strong tag.
+     */
+    public static String gzipTag(String tag) {
+        return tag.substring(0, tag.length() - 1) + "-gz\"";
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
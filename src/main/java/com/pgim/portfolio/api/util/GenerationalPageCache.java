@@ -0,0 +1,186 @@
+package com.pgim.portfolio.api.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of listing pages (data and total count), invalidated by generation counters instead
+ * of by key.
+ *
+ * Every write draws a number from one increasing sequence and records it as the generation of the portfolios it
+ * touched; a write whose portfolios are unknown records it as the epoch of all portfolios. A page is stamped when
+ * its load starts: listings across all portfolios with the latest sequence number, listings of one portfolio with
+ * the higher of the epoch and that portfolio's generation. A lookup whose stamp no longer matches is a miss, so
+ * a write never has to find the pages it affects, and a load that overlaps a write is stored already stale.
+ * Invalidations made inside a transaction are repeated when it completes, once the change is visible to new loads.
+ *
+ * Pages also expire ttl after they were loaded, which bounds staleness from writes made outside this service.
+ * A disabled cache calls the loader every time.
+ */
+public class GenerationalPageCache {
+    private final String name;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final ConcurrentMap<Long, Long> portfolioGenerations = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleMisses = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public GenerationalPageCache(String name, boolean enabled, int maxSize, Duration ttl) {
+        if (enabled && (maxSize <= 0 || ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("Cache " + name + " needs a positive size and TTL");
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > GenerationalPageCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page of listing for the given portfolio (null for a listing across all portfolios),
+     * filter and pageable, loading it on a miss. Loader exceptions are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(String listing, Long portfolioId, String filter, Pageable pageable, Supplier<Page<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(
+                listing,
+                portfolioId,
+                filter,
+                pageable.isPaged() ? pageable.getPageNumber() : -1,
+                pageable.isPaged() ? pageable.getPageSize() : -1,
+                pageable.getSort().toString()
+        );
+        long stamp = stamp(portfolioId);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.stamp() == stamp && entry.expiresAt() - System.nanoTime() > 0) {
+                    hits.increment();
+                    return (Page<T>) entry.page();
+                }
+                entries.remove(key);
+                staleMisses.increment();
+            }
+        }
+        misses.increment();
+        Page<T> page = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry(page, stamp, System.nanoTime() + ttlNanos));
+        }
+        return page;
+    }
+
+    /**
+     * Invalidates every page listing trades of the given portfolios, and every listing across all portfolios.
+     */
+    public void invalidatePortfolios(Collection<Long> portfolioIds) {
+        if (!enabled || portfolioIds.isEmpty()) {
+            return;
+        }
+        advance(portfolioIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> pending = List.copyOf(portfolioIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advance(pending);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidates every page, for writes whose portfolios are not known.
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        advanceEpoch();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advanceEpoch();
+                }
+            });
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long requests = hits.sum() + misses.sum();
+        return new Stats(name, enabled, size, maxSize, hits.sum(), staleMisses.sum(), misses.sum(), evictions.sum(),
+                sequence.get(), requests == 0 ? 0.0 : (double) hits.sum() / requests);
+    }
+
+    private long stamp(Long portfolioId) {
+        if (portfolioId == null) {
+            return sequence.get();
+        }
+        return Math.max(epoch.get(), portfolioGenerations.getOrDefault(portfolioId, 0L));
+    }
+
+    private void advance(Collection<Long> portfolioIds) {
+        long generation = sequence.incrementAndGet();
+        // Concurrent writers may record out of order; a portfolio's generation only ever moves forward
+        portfolioIds.forEach(id -> portfolioGenerations.merge(id, generation, Math::max));
+    }
+
+    private void advanceEpoch() {
+        long generation = sequence.incrementAndGet();
+        epoch.accumulateAndGet(generation, Math::max);
+    }
+
+    private record Key(String listing, Long portfolioId, String filter, int page, int size, String sort) {}
+
+    private record Entry(Page<?> page, long stamp, long expiresAt) {}
+
+    public record Stats(
+        String name,
+        boolean enabled,
+        int size,
+        int maxSize,
+        long hits,
+        long staleMisses,
+        long misses,
+        long evictions,
+        long generation,
+        double hitRatio
+    ) {}
+}
@@ -0,0 +1,177 @@
+package com.pgim.portfolio.api.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck) keyed by an id.
+ *
+ * Each level has 2^wheelBits slots; a level-n slot spans wheelSize^n ticks. A deadline is placed in the
+ * lowest level whose range covers it and cascades down as time advances. Slots are intrusive doubly linked
+ * lists and keys map to their node, so schedule, reschedule and cancel are O(1). Deadlines beyond the top
+ * level's range are parked in the top level and re-placed each time their slot comes round.
+ *
+ * All methods are synchronized; callers should do any slow work with the expired keys outside the wheel.
+ */
+public class HierarchicalTimingWheel<K> {
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final Node<K>[][] slots;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    // Deadlines that were already due when placed; drained by the next advance
+    private final List<Node<K>> overdue = new ArrayList<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelBits <= 0 || levels <= 0 || (long) wheelBits * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.slots = new Node[levels][1 << wheelBits];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules (or reschedules) the deadline for a key. Deadlines already due are returned by the next advance.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            unlink(node);
+        } else {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        }
+        node.expirationTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(node);
+    }
+
+    /**
+     * Removes the deadline for a key. Returns false if none was scheduled.
+     */
+    public synchronized boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and returns every key whose deadline has passed.
+     */
+    public synchronized List<K> advanceTo(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade higher levels whose slot boundary we just crossed
+            for (int level = 1; level < slots.length; level++) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                    break;
+                }
+                int index = (int) ((currentTick >>> (wheelBits * level)) & wheelMask);
+                Node<K> node = detachSlot(level, index);
+                while (node != null) {
+                    Node<K> next = node.next;
+                    node.prev = null;
+                    node.next = null;
+                    place(node);
+                    node = next;
+                }
+            }
+            Node<K> node = detachSlot(0, (int) (currentTick & wheelMask));
+            while (node != null) {
+                Node<K> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.expirationTick <= currentTick) {
+                    nodes.remove(node.key);
+                    expired.add(node.key);
+                } else {
+                    place(node); // parked beyond the wheel range, not due yet
+                }
+                node = next;
+            }
+        }
+        // Already-due deadlines, including ones that cascaded exactly onto the current tick
+        for (Node<K> node : overdue) {
+            nodes.remove(node.key);
+            expired.add(node.key);
+        }
+        overdue.clear();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.expirationTick - currentTick;
+        if (delta <= 0) {
+            node.level = -1;
+            overdue.add(node);
+            return;
+        }
+        int level = 0;
+        while (level < slots.length - 1 && delta >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        long tick = level == slots.length - 1 && delta >= (1L << (wheelBits * slots.length))
+                ? currentTick + (1L << (wheelBits * slots.length)) - 1 // park at the far edge of the top level
+                : node.expirationTick;
+        int index = (int) ((tick >>> (wheelBits * level)) & wheelMask);
+        node.level = level;
+        node.index = index;
+        Node<K> head = slots[level][index];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        slots[level][index] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.level < 0) {
+            overdue.remove(node);
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.index] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private Node<K> detachSlot(int level, int index) {
+        Node<K> head = slots[level][index];
+        slots[level][index] = null;
+        return head;
+    }
+
+    private static final class Node<K> {
+        private final K key;
+        private long expirationTick;
+        private int level;
+        private int index;
+        private Node<K> prev;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.pgim.portfolio.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process read-through cache with TTL, negative caching and single-flight loads.
+ *
+ * Entries sit in an access-ordered map capped at maxSize (least recently used evicted first) and expire ttl
+ * after they were loaded. A loader result of Optional.empty() is cached as a miss for negativeTtl. Concurrent
+ * misses on one key share a single load. A load that overlaps an invalidation is handed to its callers but not
+ * stored, so a reader can never put back a value a writer has just invalidated. Invalidations made inside a
+ * transaction are repeated when it completes, once the change is visible to new loads.
+ *
+ * A disabled cache calls the loader every time.
+ */
+public class ReadThroughCache<K, V> {
+    private final String name;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentMap<K, CompletableFuture<Optional<V>>> loading = new ConcurrentHashMap<>();
+    // Guarded by entries; bumped by every invalidation
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(String name, boolean enabled, int maxSize, Duration ttl, Duration negativeTtl) {
+        if (enabled && (maxSize <= 0 || ttl.isNegative() || ttl.isZero() || negativeTtl.isNegative())) {
+            throw new IllegalArgumentException("Cache " + name + " needs a positive size and TTL");
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for key, loading it on a miss. Loader exceptions reach every waiting caller
+     * and are not cached.
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            (entry.value() == null ? negativeHits : hits).increment();
+            return Optional.ofNullable(entry.value());
+        }
+        misses.increment();
+
+        CompletableFuture<Optional<V>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            sharedLoads.increment();
+            return await(inFlight);
+        }
+        try {
+            // Another load may have finished between the lookup and taking the key
+            entry = lookup(key);
+            Optional<V> value;
+            if (entry != null) {
+                value = Optional.ofNullable(entry.value());
+            } else {
+                long generation = generation();
+                loads.increment();
+                value = loader.apply(key);
+                store(key, value, generation);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidateAll(List.of(key));
+    }
+
+    public void invalidateAll(Collection<? extends K> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        evict(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<K> pending = List.copyOf(keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(pending);
+                }
+            });
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum() + negativeHits.sum();
+        long requests = hitCount + misses.sum();
+        return new Stats(name, enabled, size, maxSize, hits.sum(), negativeHits.sum(), misses.sum(), loads.sum(),
+                sharedLoads.sum(), loadFailures.sum(), evictions.sum(),
+                requests == 0 ? 0.0 : (double) hitCount / requests);
+    }
+
+    private Entry<V> lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private long generation() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    private void store(K key, Optional<V> value, long generation) {
+        long ttl = value.isPresent() ? ttlNanos : negativeTtlNanos;
+        if (ttl == 0) {
+            return;
+        }
+        synchronized (entries) {
+            if (invalidations == generation) {
+                entries.put(key, new Entry<>(value.orElse(null), System.nanoTime() + ttl));
+            }
+        }
+    }
+
+    private void evict(Collection<? extends K> keys) {
+        synchronized (entries) {
+            invalidations++;
+            keys.forEach(entries::remove);
+        }
+        // Later misses start a fresh load instead of joining one that may have read the old state
+        keys.forEach(loading::remove);
+    }
+
+    private static <V> Optional<V> await(CompletableFuture<Optional<V>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    public record Stats(
+        String name,
+        boolean enabled,
+        int size,
+        int maxSize,
+        long hits,
+        long negativeHits,
+        long misses,
+        long loads,
+        long sharedLoads,
+        long loadFailures,
+        long evictions,
+        double hitRatio
+    ) {}
+}
@@ -1,6 +1,7 @@
 package com.pgim.portfolio.domain;
 
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.pm.ArchivedTrade;
 import com.pgim.portfolio.domain.entity.pm.Trade;
 
 /**
@@ -24,12 +25,19 @@ public interface TradeMapper {
 //    @Mapping(source = "portfolio.id", target = "portfolioId")
     TradeDTO toDTO(Trade trade);
 
+    /**
+     * Maps an archived (cold) trade to TradeDTO, mapping portfolio.id to portfolioId.
+     */
+//    @Mapping(source = "portfolio.id", target = "portfolioId")
+    TradeDTO toDTO(ArchivedTrade archivedTrade);
+
     /**
      * Maps TradeDTO to Trade entity, mapping portfolioId to portfolio.id.
-     * Ignores id, createdAt, and updatedAt fields to prevent overwriting system-managed values.
+     * Ignores id, createdAt, updatedAt and version fields to prevent overwriting system-managed values.
      */
 //    @Mapping(source = "portfolioId", target = "portfolio.id")
 //    @Mapping(target = "createdAt", ignore = true)
 //    @Mapping(target = "updatedAt", ignore = true)
+//    @Mapping(target = "version", ignore = true)
     Trade toEntity(TradeDTO tradeDTO);
 }
\ No newline at end of file
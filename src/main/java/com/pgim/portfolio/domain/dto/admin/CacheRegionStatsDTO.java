@@ -0,0 +1,17 @@
+package com.pgim.portfolio.domain.dto.admin;
+
+public record CacheRegionStatsDTO(
+    String persistenceUnit,
+
+    String region,
+
+    long hits,
+
+    long misses,
+
+    long puts,
+
+    long elementsInMemory,
+
+    double hitRatio
+) {}
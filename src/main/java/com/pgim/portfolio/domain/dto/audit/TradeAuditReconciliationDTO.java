@@ -0,0 +1,38 @@
+package com.pgim.portfolio.domain.dto.audit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TradeAuditReconciliationDTO(
+    long fromTradeId,
+
+    long toTradeId,
+
+    int ranges,
+
+    long tradesScanned,
+
+    long auditedTrades,
+
+    long auditRows,
+
+    long missingCreate,
+
+    long duplicateCreate,
+
+    long orphanTrades,
+
+    long deletedTrades,
+
+    long beyondRetention,
+
+    List<Long> missingCreateSample,
+
+    List<Long> duplicateCreateSample,
+
+    List<Long> orphanSample,
+
+    LocalDateTime startedAt,
+
+    long durationMillis
+) {}
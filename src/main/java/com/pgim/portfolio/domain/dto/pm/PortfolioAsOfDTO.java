@@ -0,0 +1,22 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A portfolio as it stood at asOf: the nearest snapshot at or before asOf (snapshotAsOf, null if none)
+ * plus the replayed audit events after it. Trades changed by a replayed event have a null version.
+ */
+public record PortfolioAsOfDTO(
+    Long portfolioId,
+
+    String name,
+
+    LocalDateTime asOf,
+
+    LocalDateTime snapshotAsOf,
+
+    int replayedEvents,
+
+    List<TradeDTO> trades
+) {}
@@ -17,5 +17,9 @@ public record PortfolioDTO(
 
     LocalDateTime createdAt,
 
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+
+    Long version,
+
+    Long tradesVersion
 ) {}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Partial update for a portfolio. Null fields are left unchanged.
+ * Only the trades listed here are loaded or written; all other trades of the portfolio are untouched.
+ */
+public record PortfolioPatchDTO(
+    @Size(min = 1, max = 255, message = "Name must be between 1 and 255 characters")
+    String name,
+
+    List<@Valid TradePatchDTO> trades,
+
+    // Expected portfolio version; when present the patch fails with 409 if the portfolio changed meanwhile
+    Long version
+) {}
@@ -29,5 +29,7 @@ public record TradeDTO (
 
     TradeStatus status,
 
-    LocalDateTime createdAt
+    LocalDateTime createdAt,
+
+    Long version
 ) {}
\ No newline at end of file
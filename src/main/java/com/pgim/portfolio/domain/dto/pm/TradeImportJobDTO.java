@@ -0,0 +1,25 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import java.time.LocalDateTime;
+
+public record TradeImportJobDTO(
+    Long id,
+
+    String sourceName,
+
+    String status,
+
+    int chunkSize,
+
+    long rowsRead,
+
+    long committedChunks,
+
+    long rowsImported,
+
+    long rowsRejected,
+
+    LocalDateTime createdAt,
+
+    LocalDateTime updatedAt
+) {}
@@ -0,0 +1,9 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+public record TradeImportRejectDTO(
+    long lineNumber,
+
+    String reason,
+
+    String rawLine
+) {}
@@ -0,0 +1,27 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update for a single trade inside a portfolio patch.
+ * With an id, only the non-null fields are applied to that trade; without an id, a new trade is added.
+ */
+public record TradePatchDTO(
+    Long id,
+
+    String tradeReferenceId,
+
+    TradeType tradeType,
+
+    @Positive
+    BigDecimal quantity,
+
+    @Positive
+    BigDecimal price,
+
+    TradeStatus status
+) {}
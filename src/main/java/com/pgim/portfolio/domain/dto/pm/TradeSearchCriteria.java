@@ -0,0 +1,34 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Optional filters for the trade search endpoint.
+ * Every component may be null (or empty for sets), in which case it does not constrain the query.
+ */
+public record TradeSearchCriteria(
+    TradeType tradeType,
+
+    Set<TradeStatus> statuses,
+
+    LocalDateTime createdFrom,
+
+    LocalDateTime createdTo,
+
+    BigDecimal minPrice,
+
+    BigDecimal maxPrice,
+
+    BigDecimal minQuantity,
+
+    BigDecimal maxQuantity,
+
+    String referenceIdPrefix,
+
+    Set<Long> portfolioIds
+) {}
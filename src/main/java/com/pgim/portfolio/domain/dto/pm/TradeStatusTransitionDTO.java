@@ -0,0 +1,24 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bulk status transition request, e.g. "all PENDING trades in portfolio X created before T become VALIDATED".
+ * portfolioId, createdAfter and createdBefore are optional narrowing filters.
+ */
+public record TradeStatusTransitionDTO(
+    @NotNull
+    TradeStatus fromStatus,
+
+    @NotNull
+    TradeStatus toStatus,
+
+    Long portfolioId,
+
+    LocalDateTime createdAfter,
+
+    LocalDateTime createdBefore
+) {}
@@ -0,0 +1,13 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+
+public record TradeStatusTransitionResultDTO(
+    TradeStatus fromStatus,
+
+    TradeStatus toStatus,
+
+    int chunks,
+
+    long tradesUpdated
+) {}
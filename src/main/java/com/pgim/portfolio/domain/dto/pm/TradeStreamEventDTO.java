@@ -0,0 +1,26 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.TradeChangedEvent.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data of one trade event on the SSE stream; sequence is also the SSE event id used for Last-Event-ID.
+ * status and version are null on DELETED.
+ */
+public record TradeStreamEventDTO(
+    long sequence,
+
+    ChangeType type,
+
+    Long tradeId,
+
+    Long portfolioId,
+
+    TradeStatus status,
+
+    Long version,
+
+    LocalDateTime occurredAt
+) {}
@@ -0,0 +1,27 @@
+package com.pgim.portfolio.domain.dto.pm;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an asynchronous trade submission. status is ACCEPTED, COMPLETED (tradeId set), REJECTED (the trade
+ * failed a check, see message) or FAILED (persistence kept failing, safe to resubmit with the same reference id).
+ */
+public record TradeSubmissionDTO(
+    String id,
+
+    String tradeReferenceId,
+
+    Long portfolioId,
+
+    String status,
+
+    Long tradeId,
+
+    String message,
+
+    int attempts,
+
+    LocalDateTime acceptedAt,
+
+    LocalDateTime completedAt
+) {}
@@ -1,5 +1,6 @@
 package com.pgim.portfolio.domain.entity.appuser;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -18,6 +19,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -30,9 +33,12 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import static com.pgim.portfolio.api.constant.CommonConstants.APP_USER_CACHE_REGION;
 import static com.pgim.portfolio.api.constant.CommonConstants.ROLE_PREFIX;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = APP_USER_CACHE_REGION)
 @EntityListeners(AuditingEntityListener.class)
 @Table(name = "users", indexes = {
     @Index(name = "idx_username", columnList = "username"),
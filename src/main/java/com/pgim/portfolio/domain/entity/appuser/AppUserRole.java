@@ -1,5 +1,6 @@
 package com.pgim.portfolio.domain.entity.appuser;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -9,9 +10,15 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Objects;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.APP_USER_ROLE_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = APP_USER_ROLE_CACHE_REGION)
 @Table(name = "user_roles")
 @Data
 @NoArgsConstructor
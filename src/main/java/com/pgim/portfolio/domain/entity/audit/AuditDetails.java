@@ -1,5 +1,9 @@
 package com.pgim.portfolio.domain.entity.audit;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,16 +12,48 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
+/**
+ * Audit event details. Besides the note and reference id, trade events carry the trade's state after the
+ * event (only the fields the event set), which is what as-of portfolio reconstruction replays.
+ */
 @Data
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AuditDetails {
     @NotNull(message = "Note is required")
     private String note;
 
     @NotNull(message = "Reference ID is required")
     private String referenceId;
+
+    private Long portfolioId;
+
+    private TradeType tradeType;
+
+    private BigDecimal quantity;
+
+    private BigDecimal price;
+
+    private TradeStatus status;
+
+    /**
+     * Details for an event that leaves the trade in the given state.
+     */
+    public static AuditDetails ofTrade(String note, TradeDTO trade) {
+        return AuditDetails.builder()
+                .note(note)
+                .referenceId(trade.tradeReferenceId())
+                .portfolioId(trade.portfolioId())
+                .tradeType(trade.tradeType())
+                .quantity(trade.quantity())
+                .price(trade.price())
+                .status(trade.status())
+                .build();
+    }
 }
\ No newline at end of file
@@ -50,6 +50,14 @@ public class TradeAudit {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Generated by MySQL from details.referenceId, read-only here
+    @Column(name = "reference_id", insertable = false, updatable = false)
+    private String referenceId;
+
+    // Generated by MySQL from details.portfolioId, read-only here
+    @Column(name = "portfolio_id", insertable = false, updatable = false)
+    private Long portfolioId;
+
     public Long getId() {
         return id;
     }
@@ -98,6 +106,14 @@ public class TradeAudit {
         this.updatedAt = updatedAt;
     }
 
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
     public enum AuditAction {
         CREATE,
         ADJUST,
@@ -1,5 +1,6 @@
 package com.pgim.portfolio.domain.entity.pm;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -10,10 +11,16 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.AUTH_ROLE_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AUTH_ROLE_CACHE_REGION) // reference data, re-read constantly
 @Table(name = "auth_roles", indexes = @Index(name = "idx_name", columnList = "name"))
 @Data
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.pgim.portfolio.domain.entity.pm;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,17 +9,27 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PORTFOLIO_CACHE_REGION) // header only, trades are not cached
+@DynamicUpdate // UPDATE statements only carry the columns that actually changed
 @Table(name = "portfolios")
 @Data
 @Getter
@@ -36,14 +47,24 @@ public class Portfolio {
     @OneToMany(mappedBy = "portfolio", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Trade> trades;
 
-    @CreationTimestamp
+    @CreationTimestamp(source = SourceType.DB)
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
+    // Taken from the database clock, like every SQL write, so change data capture compares one clock
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic concurrency token, bumped on every update
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Bumped with SQL after every committed write to this portfolio's trades (EntityTagService.touchPortfolios), never by Hibernate
+    @Column(name = "trades_version", insertable = false, updatable = false)
+    private Long tradesVersion;
+
     public Long getId() {
         return id;
     }
@@ -83,4 +104,20 @@ public class Portfolio {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getTradesVersion() {
+        return tradesVersion;
+    }
+
+    public void setTradesVersion(Long tradesVersion) {
+        this.tradesVersion = tradesVersion;
+    }
 }
\ No newline at end of file
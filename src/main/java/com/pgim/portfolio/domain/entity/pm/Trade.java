@@ -10,18 +10,22 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import static com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus.PENDING;
 
 @Entity
+@DynamicUpdate // UPDATE statements only carry the columns that actually changed
 @Table(name = "trades")
 @Data
 @Getter
@@ -54,14 +58,20 @@ public class Trade {
     @Column(nullable = false)
     private TradeStatus status = PENDING;
 
-    @CreationTimestamp
+    @CreationTimestamp(source = SourceType.DB)
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
+    // Taken from the database clock, like every SQL write, so change data capture compares one clock
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic concurrency token, bumped on every update
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -134,6 +144,14 @@ public class Trade {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public enum TradeStatus {
         PENDING,
         VALIDATED,
@@ -141,7 +159,27 @@ public class Trade {
         COMPLETED,
         CANCELLED,
         CLOSED,
-        OPEN
+        OPEN;
+
+        /**
+         * Legal lifecycle transitions. FAILED, CANCELLED and CLOSED are terminal.
+         */
+        public boolean canTransitionTo(TradeStatus target) {
+            return switch (this) {
+                case PENDING -> target == VALIDATED || target == OPEN || target == FAILED || target == CANCELLED;
+                case OPEN -> target == VALIDATED || target == CLOSED || target == FAILED || target == CANCELLED;
+                case VALIDATED -> target == COMPLETED || target == FAILED || target == CANCELLED;
+                case COMPLETED -> target == CLOSED;
+                case FAILED, CANCELLED, CLOSED -> false;
+            };
+        }
+
+        /**
+         * Statuses whose old trades are moved to trades_archive by the archival job.
+         */
+        public boolean isArchivable() {
+            return this == COMPLETED || this == CANCELLED || this == CLOSED;
+        }
     }
 
     public enum TradeType {
@@ -0,0 +1,39 @@
+package com.pgim.portfolio.domain.event;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * In-process notification of rows found changed in the database by the change-data-capture poller,
+ * whoever wrote them. Covers inserts and updates; hard deletes leave no row to find.
+ * Rows written through the service layer are reported too, after their TradeChangedEvent.
+ */
+public record DataChangeEvent(
+    Source source,
+
+    List<Change> changes
+) {
+    public enum Source {
+        TRADES,
+        PORTFOLIOS
+    }
+
+    /**
+     * One changed row. For portfolios portfolioId is the row's own id and status and createdAt are null.
+     */
+    public record Change(
+        Long id,
+
+        Long portfolioId,
+
+        Long version,
+
+        TradeStatus status,
+
+        LocalDateTime createdAt,
+
+        LocalDateTime updatedAt
+    ) {}
+}
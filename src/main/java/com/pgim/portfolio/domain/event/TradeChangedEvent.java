@@ -0,0 +1,27 @@
+package com.pgim.portfolio.domain.event;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-process notification that a trade was written through the service layer.
+ * Fields the writer does not know without an extra read (e.g. portfolioId on delete) are null.
+ */
+public record TradeChangedEvent(
+    ChangeType changeType,
+
+    Long tradeId,
+
+    Long portfolioId,
+
+    TradeStatus status,
+
+    LocalDateTime createdAt
+) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,33 @@
+package com.pgim.portfolio.domain.event;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.TradeChangedEvent.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trade lifecycle event published to downstream systems through the trade outbox.
+ * version is the trade's version after the change (null on delete), so consumers can drop a stale or
+ * redelivered event per trade. trade carries the full state where the writer has it, otherwise null.
+ */
+public record TradeLifecycleEvent(
+    ChangeType type,
+
+    Long tradeId,
+
+    Long portfolioId,
+
+    TradeStatus status,
+
+    Long version,
+
+    TradeDTO trade,
+
+    LocalDateTime occurredAt
+) {
+    public static TradeLifecycleEvent of(ChangeType type, TradeDTO trade) {
+        return new TradeLifecycleEvent(type, trade.id(), trade.portfolioId(), trade.status(), trade.version(), trade,
+                LocalDateTime.now());
+    }
+}
@@ -29,12 +29,16 @@ public class PortfolioMapperImpl implements PortfolioMapper {
             List<TradeDTO> trades = null;
             LocalDateTime createdAt = null;
             LocalDateTime updatedAt = null;
+            Long version = null;
+            Long tradesVersion = null;
             id = portfolio.getId();
             name = portfolio.getName();
             trades = this.tradeListToTradeDTOList(portfolio.getTrades());
             createdAt = portfolio.getCreatedAt();
             updatedAt = portfolio.getUpdatedAt();
-            return new PortfolioDTO(id, name, trades, createdAt, updatedAt);
+            version = portfolio.getVersion();
+            tradesVersion = portfolio.getTradesVersion();
+            return new PortfolioDTO(id, name, trades, createdAt, updatedAt, version, tradesVersion);
         }
     }
 
@@ -2,6 +2,7 @@ package com.pgim.portfolio.domain.impl;
 
 import com.pgim.portfolio.domain.TradeMapper;
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.pm.ArchivedTrade;
 import com.pgim.portfolio.domain.entity.pm.Portfolio;
 import com.pgim.portfolio.domain.entity.pm.Trade;
 import org.springframework.stereotype.Component;
@@ -23,6 +24,7 @@ public class TradeMapperImpl implements TradeMapper {
             BigDecimal price = null;
             Trade.TradeStatus status = null;
             LocalDateTime createdAt = null;
+            Long version = null;
             portfolioId = this.tradePortfolioId(trade);
             id = trade.getId();
             tradeReferenceId = trade.getTradeReferenceId();
@@ -31,7 +33,28 @@ public class TradeMapperImpl implements TradeMapper {
             price = trade.getPrice();
             status = trade.getStatus();
             createdAt = trade.getCreatedAt();
-            return new TradeDTO(id, portfolioId, tradeReferenceId, tradeType, quantity, price, status, createdAt);
+            version = trade.getVersion();
+            return new TradeDTO(id, portfolioId, tradeReferenceId, tradeType, quantity, price, status, createdAt, version);
+        }
+    }
+
+    public TradeDTO toDTO(ArchivedTrade archivedTrade) {
+        if (archivedTrade == null) {
+            return null;
+        } else {
+            Portfolio portfolio = archivedTrade.getPortfolio();
+            Long portfolioId = portfolio == null ? null : portfolio.getId();
+            return new TradeDTO(
+                    archivedTrade.getId(),
+                    portfolioId,
+                    archivedTrade.getTradeReferenceId(),
+                    archivedTrade.getTradeType(),
+                    archivedTrade.getQuantity(),
+                    archivedTrade.getPrice(),
+                    archivedTrade.getStatus(),
+                    archivedTrade.getCreatedAt(),
+                    archivedTrade.getVersion()
+            );
         }
     }
 
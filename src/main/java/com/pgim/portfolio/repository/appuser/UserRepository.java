@@ -1,12 +1,23 @@
 package com.pgim.portfolio.repository.appuser;
 
 import com.pgim.portfolio.domain.entity.appuser.AppUser;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.USER_BY_USERNAME_QUERY_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserRepository extends JpaRepository<AppUser, Long> {
+    // Query cache: the result is invalidated by any write to the table through Hibernate
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_BY_USERNAME_QUERY_REGION)
+    })
     Optional<AppUser> findByUsername(String username);
 }
\ No newline at end of file
@@ -2,9 +2,45 @@ package com.pgim.portfolio.repository.audit;
 
 
 import com.pgim.portfolio.domain.entity.audit.TradeAudit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface AuditRepository extends JpaRepository<TradeAudit, Long> {
-}
\ No newline at end of file
+    List<TradeAudit> findByTradeIdOrderByCreatedAtAscIdAsc(Long tradeId);
+
+    /**
+     * Events of a portfolio's trades in [from, to], in replay order.
+     * Prunes to the partitions of the window and reads idx_portfolio_id_created_at within them.
+     */
+    @Query("SELECT a FROM TradeAudit a WHERE a.portfolioId = :portfolioId "
+            + "AND a.createdAt >= :from AND a.createdAt <= :to ORDER BY a.createdAt, a.id")
+    List<TradeAudit> findByPortfolioIdInWindow(
+            @Param("portfolioId") Long portfolioId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Keyset page on idx_reference_id (reference_id, id): one index range per partition, no JSON parsing.
+     */
+    List<TradeAudit> findByReferenceIdAndIdGreaterThanOrderByIdAsc(String referenceId, Long afterId, Limit limit);
+
+    /**
+     * The created_at range lets MySQL prune to the partitions covering [from, to);
+     * within them idx_trade_id_created_at serves both the filter and the order.
+     */
+    @Query("SELECT a FROM TradeAudit a WHERE a.tradeId = :tradeId "
+            + "AND a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt, a.id")
+    List<TradeAudit> findByTradeIdInWindow(
+            @Param("tradeId") Long tradeId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+}
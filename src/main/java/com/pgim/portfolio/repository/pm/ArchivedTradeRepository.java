@@ -0,0 +1,25 @@
+package com.pgim.portfolio.repository.pm;
+
+import com.pgim.portfolio.domain.entity.pm.ArchivedTrade;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read access to cold trades in trades_archive. Rows are written only by the archival job.
+ */
+@Repository
+public interface ArchivedTradeRepository extends JpaRepository<ArchivedTrade, Long>, JpaSpecificationExecutor<ArchivedTrade> {
+    Page<ArchivedTrade> findByPortfolioId(Long portfolioId, Pageable pageable);
+    List<ArchivedTrade> findByPortfolioIdInOrderById(Collection<Long> portfolioIds);
+    Page<ArchivedTrade> findByStatus(TradeStatus status, Pageable pageable);
+    Page<ArchivedTrade> findByPortfolioIdAndStatus(Long portfolioId, TradeStatus status, Pageable pageable);
+    Optional<ArchivedTrade> findByTradeReferenceId(String tradeReferenceId);
+}
@@ -18,4 +18,11 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
 
     @Query("select p from Portfolio p left join fetch p.trades where p.id = :id")
     Optional<Portfolio> findByIdWithTrades(@Param("id") Long id);
+
+    /**
+     * Loads the portfolio header from the row itself rather than the second-level cache, so version and
+     * trades_version are current.
+     */
+    @Query("select p from Portfolio p where p.id = :id")
+    Optional<Portfolio> findCurrentById(@Param("id") Long id);
 }
\ No newline at end of file
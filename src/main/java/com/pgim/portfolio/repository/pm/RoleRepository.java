@@ -1,12 +1,23 @@
 package com.pgim.portfolio.repository.pm;
 
 import com.pgim.portfolio.domain.entity.pm.AuthRole;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.ROLE_BY_NAME_QUERY_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface RoleRepository extends JpaRepository<AuthRole, Long> {
+    // Query cache: the result is invalidated by any write to the table through Hibernate
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ROLE_BY_NAME_QUERY_REGION)
+    })
     Optional<AuthRole> findByName(String name);
 }
\ No newline at end of file
@@ -1,17 +1,52 @@
 package com.pgim.portfolio.repository.pm;
 
 import com.pgim.portfolio.domain.entity.pm.Trade;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
 @Repository
-public interface TradeRepository extends JpaRepository<Trade, Long> {
+public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecificationExecutor<Trade> {
     Page<Trade> findByPortfolioId(Long portfolioId, Pageable pageable);
     Optional<Trade> findByTradeReferenceId(String tradeReferenceId);
     Page<Trade> findByStatus(Pageable pageable, String status);
     Page<Trade> findByPortfolioIdAndStatus(Pageable pageable, String status, Long id);
+    List<Trade> findByPortfolioIdAndIdIn(Long portfolioId, Collection<Long> ids);
+
+    /**
+     * Compare-and-set update: a single UPDATE guarded by the expected version and portfolio, with no prior SELECT.
+     * The row lock it takes is held until the caller's transaction ends. Returns 0 if the trade is missing,
+     * belongs to another portfolio or was changed concurrently.
+     */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Trade t SET t.tradeReferenceId = :tradeReferenceId, t.tradeType = :tradeType, "
+            + "t.quantity = :quantity, t.price = :price, t.status = :status, "
+            + "t.version = t.version + 1, t.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE t.id = :id AND t.version = :version AND t.portfolio.id = :portfolioId")
+    int compareAndSetUpdate(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("portfolioId") Long portfolioId,
+            @Param("tradeReferenceId") String tradeReferenceId,
+            @Param("tradeType") TradeType tradeType,
+            @Param("quantity") BigDecimal quantity,
+            @Param("price") BigDecimal price,
+            @Param("status") TradeStatus status
+    );
 }
\ No newline at end of file
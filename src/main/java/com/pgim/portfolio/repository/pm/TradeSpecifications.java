@@ -0,0 +1,173 @@
+package com.pgim.portfolio.repository.pm;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSearchCriteria;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds a single Criteria query for {@link TradeSearchCriteria}.
+ * Works for both {@link com.pgim.portfolio.domain.entity.pm.Trade} and
+ * {@link com.pgim.portfolio.domain.entity.pm.ArchivedTrade}, which share attribute names and indexes.
+ *
+ * Only the filters that are present become predicates, so MySQL sees a plain conjunction of
+ * sargable conditions and can pick idx_portfolio_id, idx_status, idx_created_at or one of the
+ * composite (portfolio_id, status, created_at) / (status, created_at) indexes in schema-pm.sql.
+ * Sorting is restricted to indexed columns so no request can force a filesort over the whole table.
+ */
+public final class TradeSpecifications {
+    // Sort property exposed to clients -> entity attribute path backed by an index
+    private static final Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            "id", "id",
+            "createdAt", "createdAt",
+            "status", "status",
+            "portfolioId", "portfolio.id",
+            "tradeReferenceId", "tradeReferenceId"
+    );
+
+    // Indexed attribute path -> the value a trade has for it, for keyset predicates
+    private static final Map<String, Function<TradeDTO, Comparable<?>>> KEYSET_VALUES = Map.of(
+            "id", TradeDTO::id,
+            "createdAt", TradeDTO::createdAt,
+            "status", TradeDTO::status,
+            "portfolio.id", TradeDTO::portfolioId,
+            "tradeReferenceId", TradeDTO::tradeReferenceId
+    );
+
+    private TradeSpecifications() {}
+
+    public static <T> Specification<T> matching(TradeSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.portfolioIds() != null && !criteria.portfolioIds().isEmpty()) {
+                predicates.add(root.get("portfolio").get("id").in(criteria.portfolioIds()));
+            }
+            if (criteria.statuses() != null && !criteria.statuses().isEmpty()) {
+                predicates.add(root.get("status").in(criteria.statuses()));
+            }
+            if (criteria.createdFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.createdFrom()));
+            }
+            if (criteria.createdTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), criteria.createdTo()));
+            }
+            if (criteria.tradeType() != null) {
+                predicates.add(cb.equal(root.get("tradeType"), criteria.tradeType()));
+            }
+            if (criteria.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.minPrice()));
+            }
+            if (criteria.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.maxPrice()));
+            }
+            if (criteria.minQuantity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("quantity"), criteria.minQuantity()));
+            }
+            if (criteria.maxQuantity() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("quantity"), criteria.maxQuantity()));
+            }
+            if (criteria.referenceIdPrefix() != null && !criteria.referenceIdPrefix().isBlank()) {
+                // Left-anchored LIKE is a range scan on idx_trade_reference_id
+                predicates.add(cb.like(root.get("tradeReferenceId"), escapeLike(criteria.referenceIdPrefix()) + "%", '\\'));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rewrites a client sort onto indexed entity attributes.
+     * Throws if the client asks to sort on a column that has no supporting index.
+     */
+    public static Sort indexedSort(Sort requested) {
+        if (requested == null || requested.isUnsorted()) {
+            return Sort.by(Sort.Direction.DESC, "id");
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : requested) {
+            String path = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Sorting is only supported on indexed fields "
+                        + SORTABLE_PROPERTIES.keySet() + ", got: " + order.getProperty());
+            }
+            orders.add(new Sort.Order(order.getDirection(), path));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * {@link #indexedSort} with id appended as the tie-breaker, so every row has one position: the order a
+     * keyset page (see {@link #after}) is read in.
+     */
+    public static Sort keysetSort(Sort requested) {
+        Sort sort = indexedSort(requested);
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Rows strictly after the given trade in a {@link #keysetSort}: (k1 > v1) OR (k1 = v1 AND k2 > v2) ...,
+     * with < for descending keys. Every sortable column is NOT NULL, so no NULL ordering is involved.
+     * status is a MySQL ENUM, which sorts in declaration order but compares to a string as a string, so it is
+     * matched against the constants declared after (or before) the trade's instead.
+     */
+    public static <T> Specification<T> after(Sort keysetSort, TradeDTO trade) {
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (Sort.Order order : keysetSort) {
+                Expression<Comparable<Object>> path = path(root, order.getProperty());
+                Comparable<Object> value = keysetValue(trade, order.getProperty());
+                List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                if (value instanceof Enum<?> constant) {
+                    alternative.add(path.in(beyond(constant, order.isAscending())));
+                } else {
+                    alternative.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                }
+                alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                equalSoFar.add(cb.equal(path, value));
+            }
+            return cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    private static List<Object> beyond(Enum<?> constant, boolean ascending) {
+        Object[] constants = constant.getDeclaringClass().getEnumConstants();
+        int ordinal = constant.ordinal();
+        return List.of(ascending
+                ? Arrays.copyOfRange(constants, ordinal + 1, constants.length)
+                : Arrays.copyOfRange(constants, 0, ordinal));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> keysetValue(TradeDTO trade, String property) {
+        Function<TradeDTO, Comparable<?>> value = KEYSET_VALUES.get(property);
+        if (value == null) {
+            throw new IllegalArgumentException("Not a keyset sort property: " + property);
+        }
+        return (Comparable<Object>) value.apply(trade);
+    }
+
+    private static <T> Expression<Comparable<Object>> path(Root<T> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Expression<Comparable<Object>> comparable = (Expression<Comparable<Object>>) path;
+        return comparable;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,8 @@
+package com.pgim.portfolio.service.audit;
+
+import com.pgim.portfolio.domain.dto.audit.TradeAuditReconciliationDTO;
+
+public interface TradeAuditReconciliationService {
+    TradeAuditReconciliationDTO reconcile(Long fromTradeId, Long toTradeId);
+    TradeAuditReconciliationDTO reconcileAll();
+}
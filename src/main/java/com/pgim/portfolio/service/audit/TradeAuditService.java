@@ -4,10 +4,16 @@ import com.pgim.portfolio.domain.dto.audit.TradeAuditDTO;
 import com.pgim.portfolio.domain.entity.audit.AuditDetails;
 import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface TradeAuditService {
     void logTradeEvent(Long tradeId, AuditAction action, AuditDetails details);
+    void logTradeEvents(AuditAction action, Map<Long, AuditDetails> detailsByTradeId);
     List<TradeAuditDTO> getAuditLogsForTrade(Long tradeId);
+    List<TradeAuditDTO> getAuditLogsForTrade(Long tradeId, LocalDateTime from, LocalDateTime to);
     TradeAuditDTO getAuditLogById(Long auditId);
+    List<TradeAuditDTO> getAuditLogsByReferenceId(String referenceId, long afterId, int limit);
+    List<TradeAuditDTO> getAuditLogsForPortfolio(Long portfolioId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
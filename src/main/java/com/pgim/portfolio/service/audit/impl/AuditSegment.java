@@ -0,0 +1,188 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read side of an immutable, memory-mapped audit segment file written by {@link AuditSegmentWriter}.
+ *
+ * Layout (big-endian):
+ *   header   magic:int, version:int
+ *   blocks   deflated rows, each row id:long, tradeId:long, createdAt:long (epoch millis), action:UTF,
+ *            details length:int + UTF-8 JSON bytes; rows sorted by (tradeId, createdAt, id)
+ *   index    one entry per block: offset:long, compressed:int, raw:int, rows:int,
+ *            firstTradeId:long, lastTradeId:long, minCreated:long, maxCreated:long
+ *   trailer  indexOffset:long, blocks:int, rows:long, minCreated:long, maxCreated:long, magic:int
+ *
+ * Only the sparse index is held on the heap. A lookup binary-searches it for the blocks that can hold the
+ * trade id, skips blocks outside the time window and inflates the rest straight from the mapped file.
+ */
+final class AuditSegment {
+    static final int MAGIC = 0x54415331; // "TAS1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int INDEX_ENTRY_BYTES = 52;
+    static final int TRAILER_BYTES = 40;
+
+    record Row(long id, long tradeId, String action, String detailsJson, long createdAtMillis) {}
+
+    private final Path path;
+    private final MappedByteBuffer mapped;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final long[] firstTradeIds;
+    private final long[] lastTradeIds;
+    private final long[] minCreated;
+    private final long[] maxCreated;
+    private final long rowCount;
+    private final long segmentMinCreated;
+    private final long segmentMaxCreated;
+
+    private AuditSegment(Path path, MappedByteBuffer mapped) {
+        this.path = path;
+        this.mapped = mapped;
+        int size = mapped.capacity();
+        if (size < HEADER_BYTES + TRAILER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(size - 4) != MAGIC) {
+            throw new IllegalStateException("Not an audit segment file: " + path);
+        }
+        if (mapped.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported audit segment version " + mapped.getInt(4) + ": " + path);
+        }
+        int trailer = size - TRAILER_BYTES;
+        long indexOffset = mapped.getLong(trailer);
+        int blocks = mapped.getInt(trailer + 8);
+        this.rowCount = mapped.getLong(trailer + 12);
+        this.segmentMinCreated = mapped.getLong(trailer + 20);
+        this.segmentMaxCreated = mapped.getLong(trailer + 28);
+
+        offsets = new long[blocks];
+        compressedLengths = new int[blocks];
+        rawLengths = new int[blocks];
+        firstTradeIds = new long[blocks];
+        lastTradeIds = new long[blocks];
+        minCreated = new long[blocks];
+        maxCreated = new long[blocks];
+        int position = (int) indexOffset;
+        for (int i = 0; i < blocks; i++, position += INDEX_ENTRY_BYTES) {
+            offsets[i] = mapped.getLong(position);
+            compressedLengths[i] = mapped.getInt(position + 8);
+            rawLengths[i] = mapped.getInt(position + 12);
+            // position + 16 holds the block row count, not needed for lookups
+            firstTradeIds[i] = mapped.getLong(position + 20);
+            lastTradeIds[i] = mapped.getLong(position + 28);
+            minCreated[i] = mapped.getLong(position + 36);
+            maxCreated[i] = mapped.getLong(position + 44);
+        }
+    }
+
+    static AuditSegment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Audit segment larger than 2 GB cannot be mapped: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new AuditSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit segment " + path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    long maxCreatedMillis() {
+        return segmentMaxCreated;
+    }
+
+    /**
+     * Emits the rows of a trade with fromMillis <= createdAt < toMillis, in (createdAt, id) order.
+     */
+    void find(long tradeId, long fromMillis, long toMillis, Consumer<Row> sink) {
+        if (offsets.length == 0 || toMillis <= segmentMinCreated || fromMillis > segmentMaxCreated) {
+            return;
+        }
+        // First block whose last trade id is >= tradeId
+        int low = 0;
+        int high = offsets.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lastTradeIds[mid] < tradeId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        Inflater inflater = new Inflater();
+        try {
+            for (int block = low; block < offsets.length && firstTradeIds[block] <= tradeId; block++) {
+                if (maxCreated[block] < fromMillis || minCreated[block] >= toMillis) {
+                    continue;
+                }
+                ByteBuffer rows = inflate(inflater, block);
+                while (rows.hasRemaining()) {
+                    long id = rows.getLong();
+                    long rowTradeId = rows.getLong();
+                    long createdAt = rows.getLong();
+                    String action = readUtf(rows);
+                    int detailsLength = rows.getInt();
+                    if (rowTradeId != tradeId || createdAt < fromMillis || createdAt >= toMillis) {
+                        rows.position(rows.position() + detailsLength);
+                        continue;
+                    }
+                    byte[] details = new byte[detailsLength];
+                    rows.get(details);
+                    sink.accept(new Row(id, rowTradeId, action, new String(details, StandardCharsets.UTF_8), createdAt));
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer inflate(Inflater inflater, int block) {
+        inflater.reset();
+        // Absolute slice of the shared mapping, so concurrent readers never touch its position
+        inflater.setInput(mapped.slice((int) offsets[block], compressedLengths[block]));
+        byte[] raw = new byte[rawLengths[block]];
+        try {
+            int read = 0;
+            while (read < raw.length) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Truncated block " + block + " in audit segment " + path);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in audit segment " + path, e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    // Counterpart of DataOutputStream.writeUTF for the ASCII enum names written there
+    private static String readUtf(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.dto.audit.TradeAuditDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Cold audit history: the immutable, compressed segment files that sealed trade_audit partitions are
+ * compacted into (one file per monthly partition, named after it). Segments are memory-mapped at startup
+ * and read without any database I/O.
+ */
+@Component
+public class AuditSegmentStore {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSegmentStore.class);
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int blockRows;
+    private final ObjectMapper objectMapper;
+    private final Map<String, AuditSegment> segments = new ConcurrentSkipListMap<>();
+
+    public AuditSegmentStore(
+            @Value("${audit.segments.dir:data/audit-segments}") String directory,
+            @Value("${audit.segments.block-rows:512}") int blockRows,
+            ObjectMapper objectMapper
+    ) {
+        this.directory = Paths.get(directory);
+        this.blockRows = blockRows;
+        this.objectMapper = objectMapper;
+        loadSegments();
+    }
+
+    boolean hasSegment(String name) {
+        return segments.containsKey(name);
+    }
+
+    /**
+     * Starts a new segment; rows must be appended in (tradeId, createdAt, id) order.
+     * The segment becomes visible to readers once {@link #register} is called after the writer is closed.
+     */
+    AuditSegmentWriter newSegment(String name) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit segment directory " + directory, e);
+        }
+        return new AuditSegmentWriter(segmentPath(name), blockRows);
+    }
+
+    void register(String name) {
+        segments.put(name, AuditSegment.open(segmentPath(name)));
+    }
+
+    /**
+     * Deletes segments whose newest row is older than the cutoff.
+     */
+    void deleteSegmentsBefore(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamp.valueOf(cutoff).getTime();
+        segments.forEach((name, segment) -> {
+            if (segment.maxCreatedMillis() < cutoffMillis) {
+                segments.remove(name);
+                try {
+                    // Readers still holding the segment keep a valid mapping until it is collected
+                    Files.deleteIfExists(segment.path());
+                    logger.info("Retention: audit segment {} deleted", name);
+                } catch (IOException e) {
+                    logger.error("Cannot delete audit segment {}", segment.path(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Audit events of a trade with from <= createdAt < to across all segments; null bounds are open.
+     */
+    List<TradeAuditDTO> find(long tradeId, LocalDateTime from, LocalDateTime to) {
+        List<TradeAuditDTO> found = new ArrayList<>();
+        if (segments.isEmpty()) {
+            return found;
+        }
+        long fromMillis = from == null ? Long.MIN_VALUE : Timestamp.valueOf(from).getTime();
+        long toMillis = to == null ? Long.MAX_VALUE : Timestamp.valueOf(to).getTime();
+        for (AuditSegment segment : segments.values()) {
+            segment.find(tradeId, fromMillis, toMillis, row -> found.add(new TradeAuditDTO(
+                    row.id(),
+                    row.tradeId(),
+                    row.action(),
+                    toDetails(row.detailsJson()),
+                    new Timestamp(row.createdAtMillis()).toLocalDateTime()
+            )));
+        }
+        return found;
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(SUFFIX + ".tmp")) {
+                    Files.deleteIfExists(file); // unfinished compaction, the partition was not dropped
+                } else if (fileName.endsWith(SUFFIX)) {
+                    segments.put(fileName.substring(0, fileName.length() - SUFFIX.length()), AuditSegment.open(file));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load audit segments from " + directory, e);
+        }
+        logger.info("Loaded {} audit segments from {}", segments.size(), directory);
+    }
+
+    private Path segmentPath(String name) {
+        return directory.resolve(name + SUFFIX);
+    }
+
+    private AuditDetails toDetails(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, AuditDetails.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to convert JSON string to AuditDetails", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one immutable audit segment file (layout in {@link AuditSegment}).
+ *
+ * Rows must be appended in (tradeId, createdAt, id) order. They are buffered into blocks of blockRows,
+ * each block is deflated on its own and described by one sparse index entry. The file is written under a
+ * temporary name, forced to disk and atomically renamed on {@link #close()}, so a segment file that exists
+ * is always complete.
+ */
+final class AuditSegmentWriter implements AutoCloseable {
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final int blockRows;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final List<long[]> index = new ArrayList<>();
+
+    private ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+    private DataOutputStream block = new DataOutputStream(blockBytes);
+    private int blockRowCount;
+    private long blockFirstTradeId;
+    private long blockMinCreated = Long.MAX_VALUE;
+    private long blockMaxCreated = Long.MIN_VALUE;
+
+    private long lastTradeId = Long.MIN_VALUE;
+    private long lastCreated = Long.MIN_VALUE;
+    private long lastId = Long.MIN_VALUE;
+    private long rowCount;
+    private long minCreated = Long.MAX_VALUE;
+    private long maxCreated = Long.MIN_VALUE;
+    private boolean closed;
+
+    AuditSegmentWriter(Path target, int blockRows) {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("Segment block size must be positive: " + blockRows);
+        }
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.blockRows = blockRows;
+        try {
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(AuditSegment.HEADER_BYTES);
+            header.putInt(AuditSegment.MAGIC).putInt(AuditSegment.FORMAT_VERSION).flip();
+            writeFully(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit segment " + temp, e);
+        }
+    }
+
+    void append(long id, long tradeId, String action, String detailsJson, long createdAtMillis) {
+        if (tradeId < lastTradeId
+                || (tradeId == lastTradeId && (createdAtMillis < lastCreated
+                        || (createdAtMillis == lastCreated && id <= lastId)))) {
+            throw new IllegalStateException("Audit segment rows must be appended in (tradeId, createdAt, id) order");
+        }
+        lastTradeId = tradeId;
+        lastCreated = createdAtMillis;
+        lastId = id;
+        try {
+            if (blockRowCount == 0) {
+                blockFirstTradeId = tradeId;
+            }
+            block.writeLong(id);
+            block.writeLong(tradeId);
+            block.writeLong(createdAtMillis);
+            block.writeUTF(action);
+            byte[] details = detailsJson == null ? new byte[0] : detailsJson.getBytes(StandardCharsets.UTF_8);
+            block.writeInt(details.length);
+            block.write(details);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        blockMinCreated = Math.min(blockMinCreated, createdAtMillis);
+        blockMaxCreated = Math.max(blockMaxCreated, createdAtMillis);
+        minCreated = Math.min(minCreated, createdAtMillis);
+        maxCreated = Math.max(maxCreated, createdAtMillis);
+        rowCount++;
+        if (++blockRowCount == blockRows) {
+            flushBlock();
+        }
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Finishes the file: last block, sparse index, trailer, fsync and rename into place.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBlock();
+            long indexOffset = channel.position();
+            ByteBuffer indexBytes = ByteBuffer.allocate(index.size() * AuditSegment.INDEX_ENTRY_BYTES);
+            for (long[] entry : index) {
+                indexBytes.putLong(entry[0])          // offset
+                        .putInt((int) entry[1])       // compressed length
+                        .putInt((int) entry[2])       // raw length
+                        .putInt((int) entry[3])       // row count
+                        .putLong(entry[4])            // first trade id
+                        .putLong(entry[5])            // last trade id
+                        .putLong(entry[6])            // min created
+                        .putLong(entry[7]);           // max created
+            }
+            indexBytes.flip();
+            writeFully(indexBytes);
+            ByteBuffer trailer = ByteBuffer.allocate(AuditSegment.TRAILER_BYTES);
+            trailer.putLong(indexOffset)
+                    .putInt(index.size())
+                    .putLong(rowCount)
+                    .putLong(minCreated)
+                    .putLong(maxCreated)
+                    .putInt(AuditSegment.MAGIC)
+                    .flip();
+            writeFully(trailer);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot finish audit segment " + target, e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Discards a partially written segment.
+     */
+    void abort() {
+        closed = true;
+        deflater.end();
+        try {
+            channel.close();
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot remove partial audit segment " + temp, e);
+        }
+    }
+
+    private void flushBlock() {
+        if (blockRowCount == 0) {
+            return;
+        }
+        try {
+            block.flush();
+            byte[] raw = blockBytes.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                compressed.write(buffer, 0, n);
+            }
+            long offset = channel.position();
+            writeFully(ByteBuffer.wrap(compressed.toByteArray()));
+            index.add(new long[]{offset, compressed.size(), raw.length, blockRowCount,
+                    blockFirstTradeId, lastTradeId, blockMinCreated, blockMaxCreated});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        blockBytes = new ByteArrayOutputStream();
+        block = new DataOutputStream(blockBytes);
+        blockRowCount = 0;
+        blockMinCreated = Long.MAX_VALUE;
+        blockMaxCreated = Long.MIN_VALUE;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.AUDIT_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+
+/**
+ * Maintains the monthly range partitions of trade_audit.
+ *
+ * Partitions for the coming months are split off the empty p_future partition ahead of time, so inserts
+ * always land in a small, current partition and no month ever has to be split while it is being written.
+ * Months past the retention period are removed as whole partitions (a metadata operation) rather than with
+ * row DELETEs. In COMPACT mode the partition is first swapped out into its own compressed table.
+ *
+ * With audit.segments.enabled, months older than audit.segments.seal-after-months are sealed: their rows are
+ * streamed into an {@link AuditSegmentStore} segment file and the partition is dropped, so cold history costs
+ * neither audit_db storage nor buffer pool. Segments follow the same retention period.
+ */
+@Component
+public class TradeAuditPartitionManager {
+    private static final Logger logger = LoggerFactory.getLogger(TradeAuditPartitionManager.class);
+
+    private static final String TABLE = "trade_audit";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    public enum RetentionMode {
+        DROP,
+        COMPACT
+    }
+
+    private final JdbcTemplate auditJdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+    private final AuditSegmentStore auditSegmentStore;
+    private final boolean segmentsEnabled;
+    private final int sealAfterMonths;
+
+    public TradeAuditPartitionManager(
+            @Qualifier(AUDIT_DATASOURCE) DataSource auditDataSource,
+            @Value("${audit.partition.months-ahead:3}") int monthsAhead,
+            @Value("${audit.retention.months:24}") int retentionMonths,
+            @Value("${audit.retention.mode:DROP}") RetentionMode retentionMode,
+            AuditSegmentStore auditSegmentStore,
+            @Value("${audit.segments.enabled:false}") boolean segmentsEnabled,
+            @Value("${audit.segments.seal-after-months:6}") int sealAfterMonths
+    ) {
+        this.auditJdbcTemplate = new JdbcTemplate(auditDataSource);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+        this.auditSegmentStore = auditSegmentStore;
+        this.segmentsEnabled = segmentsEnabled;
+        this.sealAfterMonths = sealAfterMonths;
+    }
+
+    /**
+     * Runs once after the schema initializers and then daily.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partition.cron:0 15 0 * * *}", scheduler = MAINTENANCE_SCHEDULER)
+    public synchronized void maintainPartitions() {
+        try {
+            Map<String, Long> partitions = loadPartitions();
+            if (!partitions.containsKey(FUTURE_PARTITION)) {
+                logger.warn("{} is not range partitioned with {}; skipping partition maintenance", TABLE, FUTURE_PARTITION);
+                return;
+            }
+            createPartitionsAhead(partitions);
+            applyRetention(partitions);
+            if (segmentsEnabled) {
+                sealPartitions(loadPartitions());
+            }
+        } catch (RuntimeException e) {
+            // Audit writes keep working (into p_future at worst), so report and retry on the next run
+            logger.error("{} partition maintenance failed", TABLE, e);
+        }
+    }
+
+    /**
+     * Splits the missing months up to monthsAhead off p_future in one REORGANIZE.
+     * Months are only ever appended after the highest existing bound.
+     */
+    private void createPartitionsAhead(Map<String, Long> partitions) {
+        long highestBound = partitions.values().stream()
+                .filter(bound -> bound != null)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(Long.MIN_VALUE);
+        List<String> definitions = new ArrayList<>();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            if (partitions.containsKey(name)) {
+                continue;
+            }
+            long bound = upperBound(month);
+            if (bound <= highestBound) {
+                continue;
+            }
+            definitions.add("PARTITION " + name + " VALUES LESS THAN (" + bound + ")");
+            highestBound = bound;
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        auditJdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        logger.info("Created {} {} partitions ahead", definitions.size() - 1, TABLE);
+    }
+
+    /**
+     * Removes every partition whose rows are all older than the retention period.
+     */
+    private void applyRetention(Map<String, Long> partitions) {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        auditSegmentStore.deleteSegmentsBefore(oldestKept.atDay(1).atStartOfDay());
+        long cutoff = upperBound(oldestKept.minusMonths(1));
+        partitions.forEach((name, bound) -> {
+            if (bound == null || bound > cutoff) {
+                return;
+            }
+            if (retentionMode == RetentionMode.COMPACT) {
+                compactPartition(name);
+            }
+            auditJdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+            logger.info("Retention: {} partition {} {}", TABLE, name,
+                    retentionMode == RetentionMode.COMPACT ? "compacted" : "dropped");
+        });
+    }
+
+    /**
+     * Moves every partition older than the seal period into a segment file, then drops it.
+     * The segment is registered before the DROP, so readers see the rows throughout (and dedupe the overlap).
+     */
+    private void sealPartitions(Map<String, Long> partitions) {
+        long cutoff = upperBound(YearMonth.now().minusMonths(sealAfterMonths + 1L));
+        partitions.forEach((name, bound) -> {
+            if (bound == null || bound > cutoff) {
+                return;
+            }
+            if (!auditSegmentStore.hasSegment(name)) {
+                long written = writeSegment(name);
+                Long remaining = auditJdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + name + ")", Long.class);
+                if (remaining == null || remaining != written) {
+                    throw new IllegalStateException("Partition " + name + " changed while sealing: wrote "
+                            + written + " rows, partition has " + remaining);
+                }
+                auditSegmentStore.register(name);
+            }
+            auditJdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+            logger.info("Sealed {} partition {} into an audit segment", TABLE, name);
+        });
+    }
+
+    /**
+     * Streams one partition in (trade_id, created_at, id) order into a new segment file.
+     */
+    private long writeSegment(String name) {
+        AuditSegmentWriter writer = auditSegmentStore.newSegment(name);
+        try {
+            auditJdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "SELECT id, trade_id, action, details, created_at FROM " + TABLE + " PARTITION (" + name + ") "
+                                + "ORDER BY trade_id, created_at, id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Integer.MIN_VALUE); // MySQL row streaming
+                return ps;
+            }, rs -> {
+                writer.append(
+                        rs.getLong("id"),
+                        rs.getLong("trade_id"),
+                        rs.getString("action"),
+                        rs.getString("details"),
+                        rs.getTimestamp("created_at").getTime()
+                );
+            });
+        } catch (RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        return writer.rowCount();
+    }
+
+    /**
+     * Swaps the partition's rows into a standalone table (a metadata-only EXCHANGE) and compresses that table,
+     * leaving the partition empty for the DROP. The compressed tables are kept outside the live table.
+     * Safe to re-run after a partial run: an empty leftover target is dropped and rebuilt, while one that
+     * already holds the exchanged rows is only (re)compressed.
+     */
+    private void compactPartition(String name) {
+        String target = TABLE + "_" + name;
+        if (tableExists(target) && hasRows(target)) {
+            if (hasRows(TABLE + " PARTITION (" + name + ")")) {
+                throw new IllegalStateException("Both partition " + name + " and " + target + " hold rows");
+            }
+            logger.info("Retention: resuming compaction of {} partition {}, rows already in {}", TABLE, name, target);
+        } else {
+            auditJdbcTemplate.execute("DROP TABLE IF EXISTS " + target);
+            auditJdbcTemplate.execute("CREATE TABLE " + target + " LIKE " + TABLE);
+            auditJdbcTemplate.execute("ALTER TABLE " + target + " REMOVE PARTITIONING");
+            auditJdbcTemplate.execute("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + name
+                    + " WITH TABLE " + target + " WITHOUT VALIDATION");
+        }
+        auditJdbcTemplate.execute("ALTER TABLE " + target + " ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8");
+    }
+
+    private boolean tableExists(String table) {
+        Integer tables = auditJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, table);
+        return tables != null && tables > 0;
+    }
+
+    /**
+     * True if the table, or a partition given as "table PARTITION (name)", holds at least one row.
+     */
+    private boolean hasRows(String table) {
+        return !auditJdbcTemplate.queryForList("SELECT 1 FROM " + table + " LIMIT 1", Integer.class).isEmpty();
+    }
+
+    /**
+     * Partition name -> upper bound (epoch seconds), null for MAXVALUE, in partition order.
+     */
+    private Map<String, Long> loadPartitions() {
+        Map<String, Long> partitions = new LinkedHashMap<>();
+        auditJdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                rs -> {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    partitions.put(rs.getString("PARTITION_NAME"),
+                            "MAXVALUE".equalsIgnoreCase(description) ? null : Long.valueOf(description));
+                },
+                TABLE);
+        return partitions;
+    }
+
+    /**
+     * Exclusive upper bound of a month as the partitioning expression sees it, UNIX_TIMESTAMP(created_at).
+     */
+    private long upperBound(YearMonth month) {
+        Long bound = auditJdbcTemplate.queryForObject("SELECT UNIX_TIMESTAMP(?)", Long.class,
+                month.plusMonths(1).atDay(1) + " 00:00:00");
+        return bound == null ? Long.MAX_VALUE : bound;
+    }
+}
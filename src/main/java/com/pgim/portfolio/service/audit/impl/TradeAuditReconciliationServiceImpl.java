@@ -0,0 +1,344 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import com.pgim.portfolio.domain.dto.audit.TradeAuditReconciliationDTO;
+import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
+import com.pgim.portfolio.service.audit.TradeAuditReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.AUDIT_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+
+/**
+ * Cross-database check of trades (portfolio_db) against trade_audit (audit_db), whose integrity is only
+ * enforced by the application.
+ *
+ * The trade id space is cut into fixed ranges that workers reconcile in parallel. Within a range each side is
+ * read in trade id order with keyset batches (id > last seen ... LIMIT batch-size): trades and trades_archive
+ * by primary key, trade_audit grouped per trade from the covering (trade_id, action) index. The sorted streams
+ * are merge-joined, so a worker holds at most one batch per side and the databases only see index range scans.
+ *
+ * Reported per trade: no CREATE audit (sealed segments are consulted before reporting, trades older than the
+ * audit retention are skipped), more than one CREATE, and audit rows without a trade (unless the trail ends in
+ * the deletion CANCEL, which is counted separately). Trades created after the run starts are not covered.
+ */
+@Service
+public class TradeAuditReconciliationServiceImpl implements TradeAuditReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeAuditReconciliationServiceImpl.class);
+
+    private static final String TRADES_SQL =
+            "SELECT id, created_at FROM trades WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String ARCHIVED_TRADES_SQL =
+            "SELECT id, created_at FROM trades_archive WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String AUDIT_SQL =
+            "SELECT trade_id, COUNT(*) AS audit_rows, SUM(action = 'CREATE') AS creates FROM trade_audit "
+                    + "WHERE trade_id > ? AND trade_id <= ? GROUP BY trade_id ORDER BY trade_id LIMIT ?";
+
+    private static final RowMapper<TradeRow> TRADE_ROW = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new TradeRow(rs.getLong("id"), createdAt == null ? null : createdAt.toLocalDateTime());
+    };
+    private static final RowMapper<AuditRow> AUDIT_ROW = (rs, rowNum) ->
+            new AuditRow(rs.getLong("trade_id"), rs.getLong("audit_rows"), rs.getLong("creates"));
+
+    private final JdbcTemplate pmJdbcTemplate;
+    private final JdbcTemplate auditJdbcTemplate;
+    private final AuditSegmentStore auditSegmentStore;
+    private final long rangeSize;
+    private final int batchSize;
+    private final int workers;
+    private final int sampleSize;
+    private final int retentionMonths;
+
+    public TradeAuditReconciliationServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(AUDIT_DATASOURCE) DataSource auditDataSource,
+            AuditSegmentStore auditSegmentStore,
+            @Value("${audit.reconciliation.range-size:1000000}") long rangeSize,
+            @Value("${audit.reconciliation.batch-size:10000}") int batchSize,
+            @Value("${audit.reconciliation.workers:4}") int workers,
+            @Value("${audit.reconciliation.sample-size:100}") int sampleSize,
+            @Value("${audit.retention.months:24}") int retentionMonths
+    ) {
+        if (rangeSize <= 0 || batchSize <= 0 || workers <= 0) {
+            throw new IllegalArgumentException("Reconciliation range size, batch size and workers must be positive");
+        }
+        this.pmJdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.auditJdbcTemplate = new JdbcTemplate(auditDataSource);
+        this.auditSegmentStore = auditSegmentStore;
+        this.rangeSize = rangeSize;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.sampleSize = sampleSize;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Override
+    @Scheduled(cron = "${audit.reconciliation.cron:-}", scheduler = MAINTENANCE_SCHEDULER)
+    public TradeAuditReconciliationDTO reconcileAll() {
+        return reconcile(null, null);
+    }
+
+    /**
+     * Reconciles trade ids fromTradeId..toTradeId (inclusive), all ids when the bounds are null.
+     */
+    @Override
+    public TradeAuditReconciliationDTO reconcile(Long fromTradeId, Long toTradeId) {
+        if (fromTradeId != null && toTradeId != null && fromTradeId > toTradeId) {
+            throw new IllegalArgumentException("fromTradeId must not be greater than toTradeId");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        long low = fromTradeId != null ? Math.max(fromTradeId, 1L) : 1L;
+        long high = toTradeId != null ? toTradeId : highestTradeId();
+        // Audit rows of trades created before this month were removed by retention
+        LocalDateTime retentionCutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+
+        Tally total = new Tally(sampleSize);
+        int ranges = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Tally>> results = new ArrayList<>();
+            for (long start = low; start <= high; start += rangeSize) {
+                long afterId = start - 1;
+                long lastId = Math.min(high, start + rangeSize - 1);
+                results.add(executor.submit(() -> reconcileRange(afterId, lastId, retentionCutoff)));
+            }
+            ranges = results.size();
+            for (Future<Tally> result : results) {
+                total.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Trade audit reconciliation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Trade audit reconciliation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TradeAuditReconciliationDTO report = total.toReport(low, high, ranges, startedAt,
+                System.currentTimeMillis() - started);
+        if (report.missingCreate() + report.duplicateCreate() + report.orphanTrades() > 0) {
+            logger.warn("Trade audit reconciliation of ids {}..{}: {} trades missing CREATE (e.g. {}), "
+                            + "{} with duplicate CREATE (e.g. {}), {} orphan audit trails (e.g. {})",
+                    low, high, report.missingCreate(), report.missingCreateSample(), report.duplicateCreate(),
+                    report.duplicateCreateSample(), report.orphanTrades(), report.orphanSample());
+        }
+        logger.info("Trade audit reconciliation of ids {}..{} in {} ranges: {} trades, {} audit rows, {} ms",
+                low, high, ranges, report.tradesScanned(), report.auditRows(), report.durationMillis());
+        return report;
+    }
+
+    /**
+     * Merge-joins the trades of (afterId, lastId] with their audit rows.
+     */
+    private Tally reconcileRange(long afterId, long lastId, LocalDateTime retentionCutoff) {
+        Tally tally = new Tally(sampleSize);
+        BatchCursor<TradeRow> hot = new BatchCursor<>(afterId, TradeRow::id,
+                after -> pmJdbcTemplate.query(TRADES_SQL, TRADE_ROW, after, lastId, batchSize));
+        BatchCursor<TradeRow> archived = new BatchCursor<>(afterId, TradeRow::id,
+                after -> pmJdbcTemplate.query(ARCHIVED_TRADES_SQL, TRADE_ROW, after, lastId, batchSize));
+        BatchCursor<AuditRow> audits = new BatchCursor<>(afterId, AuditRow::tradeId,
+                after -> auditJdbcTemplate.query(AUDIT_SQL, AUDIT_ROW, after, lastId, batchSize));
+        List<Long> orphanCandidates = new ArrayList<>();
+
+        while (true) {
+            // An id is either hot or archived, never both
+            TradeRow hotTrade = hot.peek();
+            TradeRow archivedTrade = archived.peek();
+            TradeRow trade = hotTrade == null || (archivedTrade != null && archivedTrade.id() < hotTrade.id())
+                    ? archivedTrade : hotTrade;
+            AuditRow audit = audits.peek();
+            if (trade == null && audit == null) {
+                break;
+            }
+            if (audit == null || (trade != null && trade.id() < audit.tradeId())) {
+                (trade == hotTrade ? hot : archived).next();
+                checkCreate(tally, trade, 0, retentionCutoff);
+            } else if (trade == null || audit.tradeId() < trade.id()) {
+                audits.next();
+                tally.audited(audit);
+                orphanCandidates.add(audit.tradeId());
+                if (orphanCandidates.size() >= batchSize) {
+                    resolveOrphans(tally, orphanCandidates);
+                }
+            } else {
+                (trade == hotTrade ? hot : archived).next();
+                audits.next();
+                tally.audited(audit);
+                checkCreate(tally, trade, audit.creates(), retentionCutoff);
+            }
+        }
+        if (!orphanCandidates.isEmpty()) {
+            resolveOrphans(tally, orphanCandidates);
+        }
+        logger.debug("Reconciled trade ids {}..{}: {} trades", afterId + 1, lastId, tally.tradesScanned);
+        return tally;
+    }
+
+    private void checkCreate(Tally tally, TradeRow trade, long creates, LocalDateTime retentionCutoff) {
+        tally.tradesScanned++;
+        if (creates == 1) {
+            return;
+        }
+        if (creates > 1) {
+            tally.duplicateCreate++;
+            tally.sample(tally.duplicateCreateSample, trade.id());
+        } else if (trade.createdAt() != null && trade.createdAt().isBefore(retentionCutoff)) {
+            tally.beyondRetention++;
+        } else if (!hasSealedCreate(trade.id())) {
+            tally.missingCreate++;
+            tally.sample(tally.missingCreateSample, trade.id());
+        }
+    }
+
+    // Only reached for trades without a live CREATE, so the segment lookups stay rare
+    private boolean hasSealedCreate(long tradeId) {
+        return auditSegmentStore.find(tradeId, null, null).stream()
+                .anyMatch(event -> AuditAction.CREATE.name().equals(event.action()));
+    }
+
+    /**
+     * Audit trails without a trade are expected when the trade was deleted: the deletion writes a CANCEL
+     * without a status. Everything else is an orphan.
+     */
+    private void resolveOrphans(Tally tally, List<Long> candidates) {
+        Set<Long> deleted = new HashSet<>(auditJdbcTemplate.queryForList(
+                "SELECT DISTINCT trade_id FROM trade_audit WHERE trade_id IN ("
+                        + String.join(", ", Collections.nCopies(candidates.size(), "?"))
+                        + ") AND action = 'CANCEL' AND JSON_VALUE(details, '$.status') IS NULL",
+                Long.class, candidates.toArray()));
+        for (Long tradeId : candidates) {
+            if (deleted.contains(tradeId)) {
+                tally.deletedTrades++;
+            } else {
+                tally.orphanTrades++;
+                tally.sample(tally.orphanSample, tradeId);
+            }
+        }
+        candidates.clear();
+    }
+
+    private long highestTradeId() {
+        long hot = pmJdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM trades", Long.class);
+        long archived = pmJdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM trades_archive", Long.class);
+        long audited = auditJdbcTemplate.queryForObject("SELECT COALESCE(MAX(trade_id), 0) FROM trade_audit", Long.class);
+        return Math.max(hot, Math.max(archived, audited));
+    }
+
+    /**
+     * One side of the merge join: rows in key order, fetched a batch at a time by keyset on the last key.
+     */
+    private static final class BatchCursor<T> {
+        private final ToLongFunction<T> key;
+        private final LongFunction<List<T>> fetchAfter;
+        private long lastKey;
+        private List<T> batch = List.of();
+        private int position;
+        private boolean exhausted;
+
+        BatchCursor(long afterKey, ToLongFunction<T> key, LongFunction<List<T>> fetchAfter) {
+            this.lastKey = afterKey;
+            this.key = key;
+            this.fetchAfter = fetchAfter;
+        }
+
+        T peek() {
+            if (position == batch.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                batch = fetchAfter.apply(lastKey);
+                position = 0;
+                if (batch.isEmpty()) {
+                    exhausted = true;
+                    return null;
+                }
+                lastKey = key.applyAsLong(batch.get(batch.size() - 1));
+            }
+            return batch.get(position);
+        }
+
+        void next() {
+            position++;
+        }
+    }
+
+    private static final class Tally {
+        private final int sampleSize;
+        private long tradesScanned;
+        private long auditedTrades;
+        private long auditRows;
+        private long missingCreate;
+        private long duplicateCreate;
+        private long orphanTrades;
+        private long deletedTrades;
+        private long beyondRetention;
+        private final List<Long> missingCreateSample = new ArrayList<>();
+        private final List<Long> duplicateCreateSample = new ArrayList<>();
+        private final List<Long> orphanSample = new ArrayList<>();
+
+        Tally(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        void audited(AuditRow audit) {
+            auditedTrades++;
+            auditRows += audit.rows();
+        }
+
+        void sample(List<Long> sample, long tradeId) {
+            if (sample.size() < sampleSize) {
+                sample.add(tradeId);
+            }
+        }
+
+        void add(Tally other) {
+            tradesScanned += other.tradesScanned;
+            auditedTrades += other.auditedTrades;
+            auditRows += other.auditRows;
+            missingCreate += other.missingCreate;
+            duplicateCreate += other.duplicateCreate;
+            orphanTrades += other.orphanTrades;
+            deletedTrades += other.deletedTrades;
+            beyondRetention += other.beyondRetention;
+            other.missingCreateSample.forEach(id -> sample(missingCreateSample, id));
+            other.duplicateCreateSample.forEach(id -> sample(duplicateCreateSample, id));
+            other.orphanSample.forEach(id -> sample(orphanSample, id));
+        }
+
+        TradeAuditReconciliationDTO toReport(long low, long high, int ranges, LocalDateTime startedAt, long durationMillis) {
+            return new TradeAuditReconciliationDTO(low, high, ranges, tradesScanned, auditedTrades, auditRows,
+                    missingCreate, duplicateCreate, orphanTrades, deletedTrades, beyondRetention,
+                    missingCreateSample, duplicateCreateSample, orphanSample, startedAt, durationMillis);
+        }
+    }
+
+    private record TradeRow(long id, LocalDateTime createdAt) {}
+
+    private record AuditRow(long tradeId, long rows, long creates) {}
+}
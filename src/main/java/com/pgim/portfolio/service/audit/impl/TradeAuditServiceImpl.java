@@ -1,5 +1,7 @@
 package com.pgim.portfolio.service.audit.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pgim.portfolio.domain.TradeAuditMapper;
 import com.pgim.portfolio.domain.dto.audit.TradeAuditDTO;
 import com.pgim.portfolio.domain.entity.audit.AuditDetails;
@@ -8,28 +10,49 @@ import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
 import com.pgim.portfolio.repository.audit.AuditRepository;
 import com.pgim.portfolio.repository.pm.TradeRepository;
 import com.pgim.portfolio.service.audit.TradeAuditService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.AUDIT_DATASOURCE;
 import static com.pgim.portfolio.api.constant.CommonConstants.AUDIT_TRANSACTION_MANAGER;
 
 @Service
 public class TradeAuditServiceImpl implements TradeAuditService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TradeRepository tradeRepository;
     private final AuditRepository auditRepository;
     private final TradeAuditMapper tradeAuditMapper;
+    private final JdbcTemplate auditJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditSegmentStore auditSegmentStore;
 
     public TradeAuditServiceImpl(
             TradeRepository tradeRepository,
             AuditRepository auditRepository,
-            TradeAuditMapper tradeAuditMapper
+            TradeAuditMapper tradeAuditMapper,
+            @Qualifier(AUDIT_DATASOURCE) DataSource auditDataSource,
+            ObjectMapper objectMapper,
+            AuditSegmentStore auditSegmentStore
     ) {
         this.tradeRepository = tradeRepository;
         this.auditRepository = auditRepository;
         this.tradeAuditMapper = tradeAuditMapper;
+        this.auditJdbcTemplate = new JdbcTemplate(auditDataSource);
+        this.objectMapper = objectMapper;
+        this.auditSegmentStore = auditSegmentStore;
     }
 
     /**
@@ -50,14 +73,49 @@ public class TradeAuditServiceImpl implements TradeAuditService {
     }
 
     /**
-     * Retrieves all audit logs for a trade.
+     * Logs one audit event per trade in a single JDBC batch.
+     * For set-based operations whose callers already hold the affected trade ids,
+     * so the per-trade existence check of logTradeEvent is skipped.
+     */
+    @Override
+    @Transactional(AUDIT_TRANSACTION_MANAGER)
+    public void logTradeEvents(AuditAction action, Map<Long, AuditDetails> detailsByTradeId) {
+        if (detailsByTradeId.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(detailsByTradeId.size());
+        for (Map.Entry<Long, AuditDetails> entry : detailsByTradeId.entrySet()) {
+            rows.add(new Object[]{entry.getKey(), action.name(), toJson(entry.getValue())});
+        }
+        auditJdbcTemplate.batchUpdate("INSERT INTO trade_audit (trade_id, action, details) VALUES (?, ?, ?)", rows);
+    }
+
+    /**
+     * Retrieves all audit logs for a trade, oldest first.
+     * Uses idx_trade_id_created_at in each partition instead of loading the whole table,
+     * merged with the trade's events from the sealed segment files.
      */
     @Override
     public List<TradeAuditDTO> getAuditLogsForTrade(Long tradeId) {
-        return auditRepository.findAll().stream()
-                .filter(audit -> audit.getTradeId().equals(tradeId))
-                .map(tradeAuditMapper::toDTO)
-                .collect(Collectors.toList());
+        return mergeWithSegments(
+                auditRepository.findByTradeIdOrderByCreatedAtAscIdAsc(tradeId),
+                auditSegmentStore.find(tradeId, null, null)
+        );
+    }
+
+    /**
+     * Retrieves the audit logs for a trade created in [from, to), oldest first.
+     * Only the monthly trade_audit partitions overlapping the window are read.
+     */
+    @Override
+    public List<TradeAuditDTO> getAuditLogsForTrade(Long tradeId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Audit window requires from < to, got: " + from + " - " + to);
+        }
+        return mergeWithSegments(
+                auditRepository.findByTradeIdInWindow(tradeId, from, to),
+                auditSegmentStore.find(tradeId, from, to)
+        );
     }
 
     /**
@@ -69,4 +127,61 @@ public class TradeAuditServiceImpl implements TradeAuditService {
                 .map(tradeAuditMapper::toDTO)
                 .orElseThrow(() -> new IllegalArgumentException("Audit log not found for audit id: " + auditId));
     }
-}
+
+    /**
+     * Retrieves audit logs by business reference id, oldest first, one keyset page at a time.
+     * Pass the last id of the previous page as afterId (0 for the first page).
+     * Served from the indexed reference_id column of audit_db; sealed segments are not included.
+     */
+    @Override
+    public List<TradeAuditDTO> getAuditLogsByReferenceId(String referenceId, long afterId, int limit) {
+        if (referenceId == null || referenceId.isBlank()) {
+            throw new IllegalArgumentException("Reference ID is required.");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ", got: " + limit);
+        }
+        return auditRepository.findByReferenceIdAndIdGreaterThanOrderByIdAsc(referenceId, afterId, Limit.of(limit))
+                .stream()
+                .map(tradeAuditMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves the audit events of a portfolio's trades created in [from, to], oldest first.
+     * Only events that record their portfolio are found; sealed segments are not included.
+     */
+    @Override
+    public List<TradeAuditDTO> getAuditLogsForPortfolio(Long portfolioId, LocalDateTime from, LocalDateTime to) {
+        return auditRepository.findByPortfolioIdInWindow(portfolioId, from, to).stream()
+                .map(tradeAuditMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Merges database and segment rows by (createdAt, id). A partition being sealed is briefly in both,
+     * so rows are deduplicated by audit id.
+     */
+    private List<TradeAuditDTO> mergeWithSegments(List<TradeAudit> live, List<TradeAuditDTO> sealed) {
+        if (sealed.isEmpty()) {
+            return live.stream()
+                    .map(tradeAuditMapper::toDTO)
+                    .collect(Collectors.toList());
+        }
+        Map<Long, TradeAuditDTO> byId = new LinkedHashMap<>();
+        sealed.forEach(dto -> byId.put(dto.id(), dto));
+        live.forEach(audit -> byId.putIfAbsent(audit.getId(), tradeAuditMapper.toDTO(audit)));
+        return byId.values().stream()
+                .sorted(Comparator.comparing(TradeAuditDTO::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(TradeAuditDTO::id))
+                .collect(Collectors.toList());
+    }
+
+    private String toJson(AuditDetails details) {
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to convert AuditDetails to JSON string", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.pgim.portfolio.service.outbox;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Broker client used by the trade outbox relay. Selected by trade.outbox.broker.
+ */
+public interface MessageQueuePublisher {
+
+    /**
+     * Publishes the messages in list order and waits for the broker's confirms.
+     * Returns the ids of the settled messages: confirmed, or returned as unroutable, which is final. The others
+     * are retried by the relay.
+     */
+    Set<Long> publish(List<OutboxMessage> messages);
+
+    record OutboxMessage(long id, long portfolioId, String routingKey, String type, String payload) {}
+}
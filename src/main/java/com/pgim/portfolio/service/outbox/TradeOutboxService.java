@@ -0,0 +1,10 @@
+package com.pgim.portfolio.service.outbox;
+
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+
+import java.util.List;
+
+public interface TradeOutboxService {
+    void append(List<TradeLifecycleEvent> events);
+    int relay();
+}
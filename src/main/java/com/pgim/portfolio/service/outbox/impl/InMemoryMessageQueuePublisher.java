@@ -0,0 +1,51 @@
+package com.pgim.portfolio.service.outbox.impl;
+
+import com.pgim.portfolio.service.outbox.MessageQueuePublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Broker stand-in for tests and local runs without RabbitMQ (trade.outbox.broker: in-memory).
+ * Confirms every message and keeps the most recent trade.outbox.in-memory.capacity of them for inspection.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.outbox.broker", havingValue = "in-memory")
+public class InMemoryMessageQueuePublisher implements MessageQueuePublisher {
+    private final int capacity;
+    private final Deque<OutboxMessage> published = new ArrayDeque<>();
+
+    public InMemoryMessageQueuePublisher(@Value("${trade.outbox.in-memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized Set<Long> publish(List<OutboxMessage> messages) {
+        Set<Long> confirmed = new LinkedHashSet<>();
+        for (OutboxMessage message : messages) {
+            published.addLast(message);
+            if (published.size() > capacity) {
+                published.removeFirst();
+            }
+            confirmed.add(message.id());
+        }
+        return confirmed;
+    }
+
+    /**
+     * Messages published so far, oldest first.
+     */
+    public synchronized List<OutboxMessage> published() {
+        return List.copyOf(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
@@ -0,0 +1,102 @@
+package com.pgim.portfolio.service.outbox.impl;
+
+import com.pgim.portfolio.service.outbox.MessageQueuePublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RabbitMQ publisher with correlated publisher confirms (spring.rabbitmq.publisher-confirm-type: correlated).
+ *
+ * A batch is sent on one dedicated channel, which keeps it in order on the broker, and the confirms are awaited
+ * together, so a batch costs one round trip rather than one per message. Messages are persistent. The exchange
+ * has an alternate exchange that keeps whatever no consumer has bound (see AmqpConfig), so events are not lost
+ * before the bindings exist. A message returned all the same (mandatory routing) is logged and settled, never
+ * retried: retrying cannot route it, and it would hold back every later event.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.outbox.broker", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitMessageQueuePublisher implements MessageQueuePublisher {
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMessageQueuePublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final Duration confirmTimeout;
+
+    public RabbitMessageQueuePublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${trade.outbox.exchange:trade.events}") String exchange,
+            @Value("${trade.outbox.confirm-timeout:10s}") Duration confirmTimeout
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public Set<Long> publish(List<OutboxMessage> messages) {
+        Map<Long, CorrelationData> sent = new LinkedHashMap<>();
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage message : messages) {
+                CorrelationData correlation = new CorrelationData(Long.toString(message.id()));
+                operations.send(exchange, message.routingKey(), toAmqp(message), correlation);
+                sent.put(message.id(), correlation);
+            }
+            return null;
+        });
+
+        Set<Long> confirmed = new HashSet<>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (Map.Entry<Long, CorrelationData> entry : sent.entrySet()) {
+            CorrelationData correlation = entry.getValue();
+            try {
+                CorrelationData.Confirm confirm = correlation.getFuture()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (correlation.getReturned() != null) {
+                    logger.error("Trade event {} could not be routed ({}) and is dropped", entry.getKey(),
+                            correlation.getReturned().getReplyText());
+                    confirmed.add(entry.getKey());
+                } else if (confirm.isAck()) {
+                    confirmed.add(entry.getKey());
+                } else {
+                    logger.warn("Trade event {} not accepted by the broker: {}", entry.getKey(), confirm.getReason());
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                logger.warn("No broker confirm for trade event {}", entry.getKey(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return confirmed;
+    }
+
+    private static Message toAmqp(OutboxMessage message) {
+        return MessageBuilder.withBody(message.payload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId("trade-outbox-" + message.id())
+                .setType(message.type())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+}
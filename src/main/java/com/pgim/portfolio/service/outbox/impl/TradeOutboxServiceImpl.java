@@ -0,0 +1,215 @@
+package com.pgim.portfolio.service.outbox.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.service.outbox.MessageQueuePublisher;
+import com.pgim.portfolio.service.outbox.MessageQueuePublisher.OutboxMessage;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.OUTBOX_RELAY_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Transactional outbox for trade lifecycle events.
+ *
+ * Writers append events inside the portfolio_db transaction that changes the trades, so an event exists if
+ * and only if its change committed, and no broker call sits on the request path. The relay drains trade_outbox
+ * in id order in batches: each batch is published on one channel, the broker's confirms are awaited, and the
+ * confirmed rows are deleted. Delivery is at least once (a crash between confirm and delete republishes);
+ * consumers dedupe on the message id.
+ *
+ * Events of one trade are appended under its row lock, so their ids follow commit order and they are
+ * published in order; events of one portfolio are published in the order they committed. An event the broker
+ * did not confirm is retried together with every later event of its portfolio, so a consumer may see those
+ * twice but never the retried one after them. The routing key is trade.{type}.{portfolioId}, for per-portfolio bindings or
+ * consistent-hash sharding.
+ *
+ * One relay runs at a time across instances, serialized by a MySQL named lock.
+ */
+@Service
+public class TradeOutboxServiceImpl implements TradeOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeOutboxServiceImpl.class);
+
+    private static final String RELAY_LOCK = "trade_outbox_relay";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessageQueuePublisher messageQueuePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean relayEnabled;
+    private final int batchSize;
+
+    public TradeOutboxServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            ObjectMapper objectMapper,
+            MessageQueuePublisher messageQueuePublisher,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${trade.outbox.relay.enabled:true}") boolean relayEnabled,
+            @Value("${trade.outbox.relay.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.objectMapper = objectMapper;
+        this.messageQueuePublisher = messageQueuePublisher;
+        this.eventPublisher = eventPublisher;
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the events in one JDBC batch. Must join the caller's portfolio_db transaction; without one
+     * the event could commit apart from its change, so this refuses to run. Each event is also published
+     * in-process, for after-commit listeners such as the trade stream.
+     */
+    @Override
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER, propagation = Propagation.MANDATORY)
+    public void append(List<TradeLifecycleEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (TradeLifecycleEvent event : events) {
+            rows.add(new Object[]{event.portfolioId(), event.tradeId(), event.type().name(), toJson(event)});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO trade_outbox (portfolio_id, trade_id, event_type, payload) VALUES (?, ?, ?, ?)", rows);
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Drains the outbox. Scheduled by trade.outbox.relay.interval-millis on its own scheduler thread, since a
+     * run can wait seconds for confirms; a run that finds the lock taken by another instance returns at once.
+     * Returns the number of events relayed.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${trade.outbox.relay.interval-millis:200}", scheduler = OUTBOX_RELAY_SCHEDULER)
+    public int relay() {
+        if (!relayEnabled) {
+            return 0;
+        }
+        Integer relayed = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!tryLock(connection)) {
+                return 0;
+            }
+            try {
+                return drain();
+            } finally {
+                releaseLock(connection);
+            }
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private int drain() {
+        int relayed = 0;
+        while (true) {
+            List<OutboxMessage> batch = jdbcTemplate.query(
+                    "SELECT id, portfolio_id, event_type, payload FROM trade_outbox ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new OutboxMessage(
+                            rs.getLong("id"),
+                            rs.getLong("portfolio_id"),
+                            "trade." + rs.getString("event_type").toLowerCase(Locale.ROOT) + "." + rs.getLong("portfolio_id"),
+                            rs.getString("event_type"),
+                            rs.getString("payload")
+                    ),
+                    batchSize);
+            if (batch.isEmpty()) {
+                return relayed;
+            }
+            Set<Long> settled;
+            try {
+                settled = messageQueuePublisher.publish(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Trade outbox relay could not publish {} events; retrying on the next run", batch.size(), e);
+                return relayed;
+            }
+            List<Long> done = settledInOrder(batch, settled);
+            delete(done);
+            relayed += done.size();
+            if (done.size() < batch.size()) {
+                logger.warn("Broker settled {} of {} trade events; the rest are retried on the next run",
+                        settled.size(), batch.size());
+                return relayed;
+            }
+            if (batch.size() < batchSize) {
+                return relayed;
+            }
+        }
+    }
+
+    /**
+     * The settled events that can be deleted without breaking per-portfolio order: for each portfolio, those
+     * before its first unsettled event. Its later events are published again, after the retried one.
+     */
+    private static List<Long> settledInOrder(List<OutboxMessage> batch, Set<Long> settled) {
+        List<Long> done = new ArrayList<>(settled.size());
+        Set<Long> heldPortfolios = new HashSet<>();
+        for (OutboxMessage message : batch) {
+            if (heldPortfolios.contains(message.portfolioId())) {
+                continue;
+            }
+            if (settled.contains(message.id())) {
+                done.add(message.id());
+            } else {
+                heldPortfolios.add(message.portfolioId());
+            }
+        }
+        return done;
+    }
+
+    private void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = ids.stream().map(id -> new Object[]{id}).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM trade_outbox WHERE id = ?", rows);
+    }
+
+    private String toJson(TradeLifecycleEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, RELAY_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, RELAY_LOCK);
+            ps.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface EntityTagService {
+    Optional<String> currentPortfolioTag(Long portfolioId);
+    String portfolioTag(PortfolioDTO portfolio);
+    Optional<String> currentTradeTag(Long tradeId);
+    String tradeTag(TradeDTO trade);
+    void touchPortfolios(Collection<Long> portfolioIds);
+}
@@ -0,0 +1,10 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.PortfolioAsOfDTO;
+
+import java.time.LocalDateTime;
+
+public interface PortfolioHistoryService {
+    PortfolioAsOfDTO getPortfolioAsOf(Long portfolioId, LocalDateTime asOf);
+    int takeSnapshots();
+}
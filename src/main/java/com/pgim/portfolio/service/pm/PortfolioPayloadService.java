@@ -0,0 +1,18 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface PortfolioPayloadService {
+    Optional<Payload> getPayload(Long portfolioId);
+    void offer(PortfolioDTO portfolio);
+    void refresh(Collection<Long> portfolioIds);
+
+    /**
+     * The serialized JSON of one portfolio version, plain and gzipped, with the ETag of that version (of the plain
+     * JSON, the gzipped body is served under its -gz variant).
+     */
+    record Payload(String eTag, byte[] json, byte[] gzip) {}
+}
@@ -1,6 +1,7 @@
 package com.pgim.portfolio.service.pm;
 
 import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.PortfolioPatchDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,5 +10,6 @@ public interface PortfolioService {
     PortfolioDTO getPortfolioById(Long portfolioId);
     PortfolioDTO createPortfolio(PortfolioDTO portfolioDTO);
     PortfolioDTO updatePortfolio(Long portfolioId, PortfolioDTO portfolioDTO);
+    PortfolioDTO patchPortfolio(Long portfolioId, PortfolioPatchDTO patch);
     void deletePortfolio(Long portfolioId);
 }
\ No newline at end of file
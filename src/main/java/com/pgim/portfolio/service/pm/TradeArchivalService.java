@@ -0,0 +1,5 @@
+package com.pgim.portfolio.service.pm;
+
+public interface TradeArchivalService {
+    long archiveTrades();
+}
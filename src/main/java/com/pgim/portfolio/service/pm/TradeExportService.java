@@ -0,0 +1,34 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface TradeExportService {
+    void exportTrades(Format format, Long portfolioId, TradeStatus status,
+                      LocalDateTime createdFrom, LocalDateTime createdTo,
+                      OutputStream out) throws IOException;
+
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
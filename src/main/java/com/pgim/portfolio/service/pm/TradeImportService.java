@@ -0,0 +1,14 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.TradeImportJobDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeImportRejectDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface TradeImportService {
+    TradeImportJobDTO importTrades(InputStream csv, String sourceName, Long resumeJobId) throws IOException;
+    TradeImportJobDTO getImportJob(Long jobId);
+    List<TradeImportRejectDTO> getRejectedRows(Long jobId, long afterLine, int limit);
+}
@@ -0,0 +1,9 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface TradeIngestService {
+    CompletableFuture<TradeDTO> submit(TradeDTO tradeDTO);
+}
@@ -0,0 +1,8 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import org.springframework.data.domain.Pageable;
+
+public interface TradeJsonStreamService {
+    byte[] tradePage(Pageable pageable, TradeStatus status, Long portfolioId);
+}
@@ -1,13 +1,15 @@
 package com.pgim.portfolio.service.pm;
 
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface TradeService {
-    Page<TradeDTO> getAllTrades(Pageable pageable, String status);
+    Page<TradeDTO> getAllTrades(Pageable pageable, String status, Long afterId);
     TradeDTO getTradeById(Long tradeId);
-    Page<TradeDTO> getTradesByPortfolioId(Pageable pageable, String status, Long id);
+    Page<TradeDTO> getTradesByPortfolioId(Pageable pageable, String status, Long id, Long afterId);
+    Page<TradeDTO> searchTrades(TradeSearchCriteria criteria, Pageable pageable, Long afterId);
     TradeDTO submitTrade(TradeDTO tradeDTO);
     TradeDTO updateTrade(Long id, TradeDTO updateTradeDTO);
     void deleteTrade(Long id);
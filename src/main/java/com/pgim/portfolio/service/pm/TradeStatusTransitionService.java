@@ -0,0 +1,12 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionResultDTO;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+
+import java.util.Collection;
+
+public interface TradeStatusTransitionService {
+    TradeStatusTransitionResultDTO transitionTrades(TradeStatusTransitionDTO request);
+    int transitionTradesByIds(Collection<Long> tradeIds, TradeStatus fromStatus, TradeStatus toStatus, String note);
+}
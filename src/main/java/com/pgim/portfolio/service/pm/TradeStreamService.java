@@ -0,0 +1,9 @@
+package com.pgim.portfolio.service.pm;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface TradeStreamService {
+    SseEmitter subscribe(Set<Long> portfolioIds, Long lastEventId);
+}
@@ -0,0 +1,10 @@
+package com.pgim.portfolio.service.pm;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSubmissionDTO;
+
+public interface TradeSubmissionService {
+    TradeSubmissionDTO accept(TradeDTO tradeDTO);
+    TradeSubmissionDTO getSubmission(String submissionId);
+    int purgeFinished();
+}
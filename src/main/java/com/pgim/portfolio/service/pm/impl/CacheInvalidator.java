@@ -0,0 +1,126 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.api.util.ReadThroughCache;
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.event.DataChangeEvent;
+import com.pgim.portfolio.service.pm.EntityTagService;
+import com.pgim.portfolio.service.pm.PortfolioPayloadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Brings the in-process read caches in line with trade and portfolio writes: the trade cache, the portfolio
+ * cache, the listing page cache and the pre-serialized portfolio payloads. Every writer goes through here
+ * instead of touching the caches itself.
+ *
+ * Called inside a portfolio_db transaction, the invalidation runs once the transaction has committed, when a
+ * new load sees the change; a load that overlapped it is not stored. A rolled back write invalidates nothing.
+ * Outside a transaction it runs at once. Rows the change-data-capture poller found changed, whoever wrote
+ * them, take the same path.
+ *
+ * A change to the trades of a portfolio also bumps its ETag stamp at that point, in a transaction of its own,
+ * so writers never lock the portfolio row. The stamp goes first: a body cached from the old rows keeps the
+ * old tag until it is evicted right after.
+ */
+@Component
+public class CacheInvalidator {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    private final EntityTagService entityTagService;
+    private final ReadThroughCache<Long, TradeDTO> tradeCache;
+    private final ReadThroughCache<Long, PortfolioDTO> portfolioCache;
+    private final GenerationalPageCache listingPageCache;
+    private final PortfolioPayloadService portfolioPayloadService;
+
+    public CacheInvalidator(
+            EntityTagService entityTagService,
+            ReadThroughCache<Long, TradeDTO> tradeCache,
+            ReadThroughCache<Long, PortfolioDTO> portfolioCache,
+            GenerationalPageCache listingPageCache,
+            PortfolioPayloadService portfolioPayloadService
+    ) {
+        this.entityTagService = entityTagService;
+        this.tradeCache = tradeCache;
+        this.portfolioCache = portfolioCache;
+        this.listingPageCache = listingPageCache;
+        this.portfolioPayloadService = portfolioPayloadService;
+    }
+
+    /**
+     * Trades were inserted, changed or removed in the given portfolios. New trade ids are included too, since
+     * they may be cached as misses. A null portfolio id (not known to the writer) invalidates every listing.
+     */
+    public void tradesChanged(Collection<Long> tradeIds, Collection<Long> portfolioIds) {
+        afterCommit(tradeIds, portfolioIds, true);
+    }
+
+    /**
+     * The portfolios themselves changed. Their own version is part of the ETag, so no stamp is bumped.
+     */
+    public void portfoliosChanged(Collection<Long> portfolioIds) {
+        afterCommit(List.of(), portfolioIds, false);
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        List<Long> portfolioIds = event.changes().stream().map(DataChangeEvent.Change::portfolioId).toList();
+        if (event.source() == DataChangeEvent.Source.TRADES) {
+            // Bumps again for the writer's own rows, and covers a stamp lost to a crash right after a commit
+            tradesChanged(event.changes().stream().map(DataChangeEvent.Change::id).toList(), portfolioIds);
+        } else {
+            portfoliosChanged(portfolioIds);
+        }
+    }
+
+    private void afterCommit(Collection<Long> tradeIds, Collection<Long> portfolioIds, boolean touch) {
+        List<Long> trades = tradeIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> portfolios = portfolioIds.stream().filter(Objects::nonNull).distinct().toList();
+        boolean unknownPortfolio = portfolios.size() < portfolioIds.stream().distinct().count();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(trades, portfolios, unknownPortfolio, touch);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Synchronization is already cleared here, so the caches act at once instead of deferring again
+                if (status == STATUS_COMMITTED) {
+                    apply(trades, portfolios, unknownPortfolio, touch);
+                }
+            }
+        });
+    }
+
+    private void apply(List<Long> tradeIds, List<Long> portfolioIds, boolean unknownPortfolio, boolean touch) {
+        if (touch && !portfolioIds.isEmpty()) {
+            try {
+                entityTagService.touchPortfolios(portfolioIds);
+            } catch (RuntimeException e) {
+                // The write is committed, the next change-data-capture poll of these rows bumps the stamp
+                logger.error("Could not bump the ETag stamp of portfolios {}", portfolioIds, e);
+            }
+        }
+        invalidate(tradeIds, portfolioIds, unknownPortfolio);
+    }
+
+    private void invalidate(List<Long> tradeIds, List<Long> portfolioIds, boolean unknownPortfolio) {
+        tradeCache.invalidateAll(tradeIds);
+        portfolioCache.invalidateAll(portfolioIds);
+        if (unknownPortfolio) {
+            listingPageCache.invalidateAll();
+        } else {
+            listingPageCache.invalidatePortfolios(portfolioIds);
+        }
+        portfolioPayloadService.refresh(portfolioIds);
+    }
+}
@@ -0,0 +1,240 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.DataChangeEvent;
+import com.pgim.portfolio.domain.event.DataChangeEvent.Change;
+import com.pgim.portfolio.domain.event.DataChangeEvent.Source;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+
+/**
+ * Change-data-capture for trades and portfolios by polling updated_at.
+ *
+ * Each table is read forward from a high-water mark on (updated_at, id) along idx_updated_at, whose entries
+ * carry the primary key, so every poll is one index range scan. Found rows are published as a
+ * {@link DataChangeEvent} and the mark moves past them, so no row is reported twice and no poll rescans the
+ * table. The first mark is the newest row at startup; history is not replayed.
+ *
+ * updated_at is set when the statement runs but the row only becomes visible at commit, and a row committed
+ * behind the mark would be skipped. Every writer therefore stamps updated_at from the database clock, and each
+ * poll first reads a safe upper bound: cdc.settle before the database's now, and also one second before the
+ * start of the oldest transaction still open (information_schema.innodb_trx). A row stamped before that was
+ * written by a transaction that has committed, so 5000-row import chunks, ingest batches and bulk transitions
+ * are waited for however long they run. A transaction open longer than cdc.max-hold stops holding the bound
+ * back (logged), so an abandoned one cannot stall capture. Without the PROCESS privilege for innodb_trx only
+ * the fixed settle period applies. Hard deletes are not seen at all; consumers keep their TTLs for those.
+ *
+ * Poll intervals adapt per table: a full batch is followed at once by the next, a poll that found changes
+ * waits cdc.min-interval, and each empty poll doubles the wait up to cdc.max-interval. Listeners run on the
+ * poller thread; a listener failure is logged and the rows are not re-delivered.
+ */
+@Component
+public class ChangeDataCapturePoller {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeDataCapturePoller.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long settleMicros;
+    private final long maxHoldMicros;
+    // Cleared for good once innodb_trx turns out to be unreadable
+    private boolean watchTransactions;
+    private final List<TableCursor> cursors;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cdc-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChangeDataCapturePoller(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${cdc.enabled:true}") boolean enabled,
+            @Value("${cdc.batch-size:1000}") int batchSize,
+            @Value("${cdc.min-interval:500ms}") Duration minInterval,
+            @Value("${cdc.max-interval:10s}") Duration maxInterval,
+            @Value("${cdc.settle:2s}") Duration settle,
+            @Value("${cdc.watch-open-transactions:true}") boolean watchTransactions,
+            @Value("${cdc.max-hold:10m}") Duration maxHold
+    ) {
+        if (enabled && (batchSize <= 0 || minInterval.isNegative() || maxInterval.compareTo(minInterval) < 0)) {
+            throw new IllegalArgumentException("cdc needs a positive batch size and min-interval <= max-interval");
+        }
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = maxInterval.toMillis();
+        this.settleMicros = Math.max(0, settle.toNanos() / 1000);
+        this.maxHoldMicros = Math.max(settleMicros, maxHold.toNanos() / 1000);
+        this.watchTransactions = watchTransactions;
+        this.cursors = List.of(
+                new TableCursor(Source.TRADES, "trades", "id, portfolio_id, version, status, created_at, updated_at",
+                        (rs, rowNum) -> new Change(
+                                rs.getLong("id"),
+                                rs.getLong("portfolio_id"),
+                                rs.getLong("version"),
+                                TradeStatus.valueOf(rs.getString("status")),
+                                rs.getTimestamp("created_at").toLocalDateTime(),
+                                rs.getTimestamp("updated_at").toLocalDateTime()
+                        )),
+                new TableCursor(Source.PORTFOLIOS, "portfolios", "id, version, updated_at",
+                        (rs, rowNum) -> new Change(
+                                rs.getLong("id"),
+                                rs.getLong("id"),
+                                rs.getLong("version"),
+                                null,
+                                null,
+                                rs.getTimestamp("updated_at").toLocalDateTime()
+                        ))
+        );
+    }
+
+    /**
+     * Sets each mark to the newest row and starts polling, after the schema initializers have run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (TableCursor cursor : cursors) {
+            jdbcTemplate.query("SELECT updated_at, id FROM " + cursor.table + " ORDER BY updated_at DESC, id DESC LIMIT 1",
+                    rs -> {
+                        cursor.lastUpdatedAt = rs.getTimestamp("updated_at");
+                        cursor.lastId = rs.getLong("id");
+                    });
+            cursor.delayMillis = minIntervalMillis;
+            scheduler.schedule(() -> poll(cursor), minIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Change data capture started for {}", cursors.stream().map(cursor -> cursor.table).toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void poll(TableCursor cursor) {
+        int found = 0;
+        try {
+            Timestamp bound = readBound(cursor);
+            List<Change> changes = jdbcTemplate.query(
+                    "SELECT " + cursor.columns + " FROM " + cursor.table + " "
+                            + "WHERE updated_at < ? "
+                            + "AND (updated_at > ? OR (updated_at = ? AND id > ?)) "
+                            + "ORDER BY updated_at, id LIMIT ?",
+                    cursor.rowMapper,
+                    bound, cursor.lastUpdatedAt, cursor.lastUpdatedAt, cursor.lastId, batchSize);
+            found = changes.size();
+            if (!changes.isEmpty()) {
+                Change last = changes.get(changes.size() - 1);
+                cursor.lastUpdatedAt = Timestamp.valueOf(last.updatedAt());
+                cursor.lastId = last.id();
+                publish(cursor, changes);
+            }
+            cursor.delayMillis = found == batchSize ? 0
+                    : found > 0 ? minIntervalMillis
+                    : Math.min(maxIntervalMillis, Math.max(minIntervalMillis, cursor.delayMillis * 2));
+        } catch (RuntimeException e) {
+            cursor.delayMillis = maxIntervalMillis;
+            logger.warn("Change data capture poll of {} failed", cursor.table, e);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(() -> poll(cursor), cursor.delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * The newest updated_at a poll may read up to, by the database clock. innodb_trx.trx_started has whole
+     * seconds and a statement may stamp its rows just before its transaction is registered, hence the extra
+     * second.
+     */
+    private Timestamp readBound(TableCursor cursor) {
+        if (watchTransactions) {
+            try {
+                return jdbcTemplate.queryForObject(
+                        "SELECT CURRENT_TIMESTAMP(6) AS now, "
+                                + "(SELECT TIMESTAMPADD(SECOND, -1, MIN(trx_started)) FROM information_schema.innodb_trx) AS oldest",
+                        (rs, rowNum) -> bound(cursor, rs.getTimestamp("now"), rs.getTimestamp("oldest")));
+            } catch (DataAccessException e) {
+                watchTransactions = false;
+                logger.warn("Change data capture cannot read open transactions, falling back to the {}us settle period",
+                        settleMicros, e);
+            }
+        }
+        return jdbcTemplate.queryForObject("SELECT TIMESTAMPADD(MICROSECOND, -?, CURRENT_TIMESTAMP(6))",
+                Timestamp.class, settleMicros);
+    }
+
+    private Timestamp bound(TableCursor cursor, Timestamp now, Timestamp oldestOpen) {
+        Timestamp settled = minusMicros(now, settleMicros);
+        if (oldestOpen == null || !oldestOpen.before(settled)) {
+            return settled;
+        }
+        Timestamp limit = minusMicros(now, maxHoldMicros);
+        if (oldestOpen.before(limit)) {
+            logger.warn("A transaction open since {} is older than cdc.max-hold; {} changes it commits may be missed",
+                    oldestOpen, cursor.table);
+            return limit;
+        }
+        return oldestOpen;
+    }
+
+    private static Timestamp minusMicros(Timestamp timestamp, long micros) {
+        return Timestamp.from(timestamp.toInstant().minusNanos(micros * 1000));
+    }
+
+    private void publish(TableCursor cursor, List<Change> changes) {
+        try {
+            eventPublisher.publishEvent(new DataChangeEvent(cursor.source, changes));
+        } catch (RuntimeException e) {
+            logger.error("A listener failed on {} {} changes; they are not re-delivered", changes.size(), cursor.table, e);
+        }
+    }
+
+    /**
+     * Poll state of one table; only touched by the poller thread.
+     */
+    private static final class TableCursor {
+        private final Source source;
+        private final String table;
+        private final String columns;
+        private final RowMapper<Change> rowMapper;
+        private Timestamp lastUpdatedAt = new Timestamp(0);
+        private long lastId;
+        private long delayMillis;
+
+        private TableCursor(Source source, String table, String columns, RowMapper<Change> rowMapper) {
+            this.source = source;
+            this.table = table;
+            this.columns = columns;
+            this.rowMapper = rowMapper;
+        }
+    }
+}
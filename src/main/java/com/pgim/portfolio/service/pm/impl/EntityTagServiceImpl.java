@@ -0,0 +1,98 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.service.pm.EntityTagService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Strong entity tags for the portfolio and trade resources, for conditional GETs.
+ *
+ * A tag is computed two ways that always agree: from the database with a primary key read, to answer
+ * If-None-Match before anything is loaded, and from the DTO actually served, so a 200 never carries a tag newer
+ * or older than its body. Every write bumps the version of the rows it changes, so a trade is identified by
+ * (id, version). A portfolio is its own version plus portfolios.trades_version, a stamp bumped through
+ * {@link #touchPortfolios} once a write to its trades has committed (see CacheInvalidator), so trade writers
+ * never lock the portfolio row. Between the commit and the bump a reader may still get the old tag, for as
+ * long as it would have been served the cached body anyway.
+ */
+@Service
+public class EntityTagServiceImpl implements EntityTagService {
+    private final JdbcTemplate jdbcTemplate;
+
+    public EntityTagServiceImpl(@Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+    }
+
+    @Override
+    public Optional<String> currentPortfolioTag(Long portfolioId) {
+        List<String> tags = jdbcTemplate.query(
+                "SELECT version, trades_version FROM portfolios WHERE id = ?",
+                (rs, rowNum) -> portfolioTag(portfolioId, rs.getLong("version"), rs.getLong("trades_version")),
+                portfolioId);
+        return tags.stream().findFirst();
+    }
+
+    @Override
+    public String portfolioTag(PortfolioDTO portfolio) {
+        // Null only on a portfolio just inserted, where the column default of 0 applies
+        long tradesVersion = portfolio.tradesVersion() != null ? portfolio.tradesVersion() : 0;
+        return portfolioTag(portfolio.id(), portfolio.version(), tradesVersion);
+    }
+
+    /**
+     * Bumps trades_version of each portfolio in a short transaction of its own, after the trade write committed,
+     * so the row lock is held for this one statement only. Ids are locked in ascending order.
+     * updated_at is left as is, so the change stays invisible to change data capture on portfolios.
+     */
+    @Override
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER, propagation = Propagation.REQUIRES_NEW)
+    public void touchPortfolios(Collection<Long> portfolioIds) {
+        List<Long> ids = portfolioIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.update("UPDATE portfolios SET trades_version = trades_version + 1, updated_at = updated_at "
+                + "WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    /**
+     * Archived trades keep their id and version, so the tag survives the move to trades_archive.
+     */
+    @Override
+    public Optional<String> currentTradeTag(Long tradeId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM trades WHERE id = ? "
+                        + "UNION ALL SELECT version FROM trades_archive WHERE id = ? LIMIT 1",
+                Long.class, tradeId, tradeId);
+        return versions.stream().findFirst().map(version -> tradeTag(tradeId, version));
+    }
+
+    @Override
+    public String tradeTag(TradeDTO trade) {
+        return tradeTag(trade.id(), trade.version());
+    }
+
+    private static String portfolioTag(Long id, Long version, long tradesVersion) {
+        return "\"p" + id + "-" + version + "-" + tradesVersion + "\"";
+    }
+
+    private static String tradeTag(Long id, Long version) {
+        return "\"t" + id + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,95 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer, single-consumer ring of pre-allocated slots, the hand-off of {@link TradeIngestServiceImpl}.
+ *
+ * A producer claims the next sequence with one CAS, fills the slot it maps to and publishes it by writing the
+ * slot's sequence; no locks are taken. A claim that would lap the consumer is rejected at once. The consumer
+ * takes slots strictly in sequence order, so a slot claimed but not yet published holds back the ones after it.
+ */
+final class IngestRing<T> {
+    private final Slot<T>[] slots;
+    private final int mask;
+    // Highest sequence claimed by a producer, and highest one the consumer has taken out of its slot
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+
+    @SuppressWarnings("unchecked")
+    IngestRing(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot<>();
+        }
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Claims, fills and publishes the next slot. Throws RejectedExecutionException if every slot is still
+     * claimed, published or not, and not yet taken.
+     */
+    void publish(T item) {
+        long sequence;
+        long current;
+        do {
+            current = claimed.get();
+            sequence = current + 1;
+            if (sequence - consumed > slots.length) {
+                throw new RejectedExecutionException("Trade ingest ring is full, retry later");
+            }
+        } while (!claimed.compareAndSet(current, sequence));
+
+        Slot<T> slot = slots[(int) (sequence & mask)];
+        slot.item = item;
+        slot.sequence = sequence; // publishes the item to the consumer
+    }
+
+    /**
+     * Takes the next published item, or returns null if the producer that claimed it has not published yet.
+     * Consumer thread only.
+     */
+    T take() {
+        long sequence = consumed + 1;
+        Slot<T> slot = slots[(int) (sequence & mask)];
+        if (slot.sequence != sequence) {
+            return null;
+        }
+        T item = slot.item;
+        slot.item = null;
+        consumed = sequence; // frees the slot for the producer one lap ahead
+        return item;
+    }
+
+    /**
+     * Whether {@link #take} would return an item now. Consumer thread only.
+     */
+    boolean hasPublished() {
+        long next = consumed + 1;
+        return slots[(int) (next & mask)].sequence == next;
+    }
+
+    /**
+     * Whether every claimed slot has been taken.
+     */
+    boolean isDrained() {
+        return claimed.get() == consumed;
+    }
+
+    /**
+     * One ring entry. sequence is written last by the producer and read first by the consumer, so the
+     * plain field is safely handed over through it.
+     */
+    private static final class Slot<T> {
+        private volatile long sequence = -1;
+        private T item;
+    }
+}
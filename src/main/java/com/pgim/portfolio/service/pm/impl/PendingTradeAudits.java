@@ -0,0 +1,170 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
+import com.pgim.portfolio.service.audit.TradeAuditService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Audit rows owed for trade writes that go to audit_db after their portfolio_db transaction, so a crash or an
+ * audit_db failure in between cannot lose them. Writers record the rows in trade_pending_audits inside their
+ * own transaction; once it has committed the batch is written to audit_db and deleted. A batch still there
+ * after audit.pending.grace (a failed or interrupted write) is written by the periodic sweep.
+ *
+ * A batch is written under FOR UPDATE SKIP LOCKED on its pending rows, so the after-commit write and the
+ * sweep of any instance never write it twice at the same time. Delivery is at least once: a crash between
+ * the audit_db commit and the delete writes the batch again.
+ */
+@Component
+public class PendingTradeAudits {
+    private static final Logger logger = LoggerFactory.getLogger(PendingTradeAudits.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final TradeAuditService tradeAuditService;
+    private final ObjectMapper objectMapper;
+    private final Duration grace;
+    private final int sweepBatches;
+
+    public PendingTradeAudits(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            TradeAuditService tradeAuditService,
+            ObjectMapper objectMapper,
+            @Value("${audit.pending.grace:1m}") Duration grace,
+            @Value("${audit.pending.sweep-batches:100}") int sweepBatches
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.requiresNew = new TransactionTemplate(pmTransactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tradeAuditService = tradeAuditService;
+        this.objectMapper = objectMapper;
+        this.grace = grace;
+        this.sweepBatches = sweepBatches;
+    }
+
+    /**
+     * Records the audit rows of one write in the caller's portfolio_db transaction, and writes them to
+     * audit_db once it has committed. Without a transaction the rows could be recorded apart from their
+     * change, so this refuses to run.
+     */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER, propagation = Propagation.MANDATORY)
+    public void record(AuditAction action, Map<Long, AuditDetails> detailsByTradeId) {
+        if (detailsByTradeId.isEmpty()) {
+            return;
+        }
+        String batchId = UUID.randomUUID().toString();
+        List<Object[]> rows = new ArrayList<>(detailsByTradeId.size());
+        detailsByTradeId.forEach((tradeId, details) ->
+                rows.add(new Object[]{batchId, action.name(), tradeId, toJson(details)}));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO trade_pending_audits (batch_id, action, trade_id, details) VALUES (?, ?, ?, ?)", rows);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    write(batchId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the batches older than the grace period. Scheduled by audit.pending.sweep-interval-millis; the
+     * first run after a start writes what a crashed instance still owed. Returns the number of batches written.
+     */
+    @Scheduled(fixedDelayString = "${audit.pending.sweep-interval-millis:60000}", scheduler = MAINTENANCE_SCHEDULER)
+    public int sweep() {
+        List<String> batchIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT batch_id FROM trade_pending_audits "
+                        + "WHERE created_at < NOW() - INTERVAL ? SECOND LIMIT ?",
+                String.class, grace.toSeconds(), sweepBatches);
+        int written = 0;
+        for (String batchId : batchIds) {
+            if (write(batchId)) {
+                written++;
+            }
+        }
+        if (written > 0) {
+            logger.info("Wrote {} owed trade audit batches", written);
+        }
+        return written;
+    }
+
+    /**
+     * Writes one batch to audit_db and deletes it, in a portfolio_db transaction of its own (the caller may
+     * run after its own transaction completed, with that connection still bound). Only logs a failure; the
+     * batch stays recorded for the sweep.
+     */
+    private boolean write(String batchId) {
+        try {
+            return Boolean.TRUE.equals(requiresNew.execute(status -> writeLocked(batchId)));
+        } catch (RuntimeException e) {
+            logger.error("Owed trade audit batch {} could not be written; the sweep retries it", batchId, e);
+            return false;
+        }
+    }
+
+    private boolean writeLocked(String batchId) {
+        Map<AuditAction, Map<Long, AuditDetails>> byAction = new EnumMap<>(AuditAction.class);
+        jdbcTemplate.query(
+                "SELECT action, trade_id, details FROM trade_pending_audits WHERE batch_id = ? "
+                        + "ORDER BY id FOR UPDATE SKIP LOCKED",
+                rs -> {
+                    byAction.computeIfAbsent(AuditAction.valueOf(rs.getString("action")), action -> new LinkedHashMap<>())
+                            .put(rs.getLong("trade_id"), fromJson(rs.getString("details")));
+                },
+                batchId);
+        if (byAction.isEmpty()) {
+            return false; // written already, or being written by someone else
+        }
+        byAction.forEach(tradeAuditService::logTradeEvents);
+        jdbcTemplate.update("DELETE FROM trade_pending_audits WHERE batch_id = ?", batchId);
+        return true;
+    }
+
+    private String toJson(AuditDetails details) {
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AuditDetails fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, AuditDetails.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
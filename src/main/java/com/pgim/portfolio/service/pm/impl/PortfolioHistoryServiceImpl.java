@@ -0,0 +1,265 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.dto.audit.TradeAuditDTO;
+import com.pgim.portfolio.domain.dto.pm.PortfolioAsOfDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
+import com.pgim.portfolio.service.audit.TradeAuditService;
+import com.pgim.portfolio.service.pm.PortfolioHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Rebuilds portfolios as of a past time from snapshot checkpoints plus trade_audit events.
+ *
+ * A scheduled job writes a compact snapshot (name and every hot and archived trade, as deflated JSON) of each
+ * portfolio from one consistent read. An as-of query loads the latest snapshot at or before T (decoded
+ * snapshots are kept in a small LRU cache) and replays only the audit events between the snapshot and T,
+ * read from the portfolio_id/created_at index of the matching audit partitions. Audit events record the
+ * trade state they leave behind, so replay is a fold and replaying an event already in a snapshot is harmless.
+ *
+ * Limits: trade writes that are not audited (portfolio-level create/update/patch) are only seen at the next
+ * snapshot, and events in sealed audit segments are not replayed.
+ */
+@Service
+public class PortfolioHistoryServiceImpl implements PortfolioHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioHistoryServiceImpl.class);
+
+    // Lower bound of a MySQL TIMESTAMP, used when there is no snapshot to start from
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotReadTemplate;
+    private final TradeAuditService tradeAuditService;
+    private final ObjectMapper objectMapper;
+    private final int retentionDays;
+    private final Map<Long, SnapshotState> snapshotCache;
+
+    public PortfolioHistoryServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            TradeAuditService tradeAuditService,
+            ObjectMapper objectMapper,
+            @Value("${portfolio.snapshot.retention-days:400}") int retentionDays,
+            @Value("${portfolio.snapshot.cache-size:32}") int cacheSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.snapshotReadTemplate = new TransactionTemplate(pmTransactionManager);
+        this.snapshotReadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotReadTemplate.setReadOnly(true);
+        this.tradeAuditService = tradeAuditService;
+        this.objectMapper = objectMapper;
+        this.retentionDays = retentionDays;
+        this.snapshotCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SnapshotState> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the portfolio and its trades as they stood at asOf.
+     */
+    @Override
+    public PortfolioAsOfDTO getPortfolioAsOf(Long portfolioId, LocalDateTime asOf) {
+        if (asOf == null || asOf.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("As-of time must be given and not in the future: " + asOf);
+        }
+        List<Map<String, Object>> snapshots = jdbcTemplate.queryForList(
+                "SELECT id, as_of FROM portfolio_snapshots WHERE portfolio_id = ? AND as_of <= ? "
+                        + "ORDER BY as_of DESC LIMIT 1",
+                portfolioId, Timestamp.valueOf(asOf));
+
+        String name;
+        LocalDateTime snapshotAsOf = null;
+        Map<Long, TradeDTO> trades = new LinkedHashMap<>();
+        if (snapshots.isEmpty()) {
+            List<String> names = jdbcTemplate.queryForList("SELECT name FROM portfolios WHERE id = ?", String.class, portfolioId);
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("Portfolio not found with id: " + portfolioId);
+            }
+            name = names.get(0); // names are not audited, so the current one is used
+        } else {
+            long snapshotId = ((Number) snapshots.get(0).get("id")).longValue();
+            snapshotAsOf = ((Timestamp) snapshots.get(0).get("as_of")).toLocalDateTime();
+            SnapshotState state = loadSnapshot(snapshotId);
+            name = state.name();
+            state.trades().forEach(trade -> trades.put(trade.id(), trade));
+        }
+
+        // Inclusive lower bound: created_at has second precision, and replaying an event twice is harmless
+        List<TradeAuditDTO> events = tradeAuditService.getAuditLogsForPortfolio(
+                portfolioId, snapshotAsOf != null ? snapshotAsOf : EPOCH, asOf);
+        events.forEach(event -> apply(trades, event));
+
+        List<TradeDTO> result = new ArrayList<>(trades.values());
+        result.sort(Comparator.comparing(TradeDTO::id));
+        return new PortfolioAsOfDTO(portfolioId, name, asOf, snapshotAsOf, events.size(), result);
+    }
+
+    /**
+     * Snapshots every portfolio and removes snapshots past the retention period.
+     * Returns the number of snapshots written.
+     */
+    @Override
+    @Scheduled(cron = "${portfolio.snapshot.cron:0 5 0 * * *}", scheduler = MAINTENANCE_SCHEDULER)
+    public int takeSnapshots() {
+        int written = 0;
+        for (Long portfolioId : jdbcTemplate.queryForList("SELECT id FROM portfolios ORDER BY id", Long.class)) {
+            try {
+                if (takeSnapshot(portfolioId)) {
+                    written++;
+                }
+            } catch (DataAccessException | UncheckedIOException e) {
+                logger.error("Snapshot of portfolio {} failed", portfolioId, e);
+            }
+        }
+        int removed = jdbcTemplate.update("DELETE FROM portfolio_snapshots WHERE as_of < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)));
+        logger.info("Wrote {} portfolio snapshots, removed {} past retention", written, removed);
+        return written;
+    }
+
+    private boolean takeSnapshot(Long portfolioId) {
+        EncodedSnapshot snapshot = snapshotReadTemplate.execute(status -> encodeSnapshot(portfolioId));
+        if (snapshot == null) {
+            return false; // portfolio deleted meanwhile
+        }
+        jdbcTemplate.update(
+                "INSERT INTO portfolio_snapshots (portfolio_id, as_of, trade_count, state) VALUES (?, ?, ?, ?)",
+                portfolioId, snapshot.asOf(), snapshot.tradeCount(), snapshot.state());
+        return true;
+    }
+
+    /**
+     * Reads the portfolio in one REPEATABLE READ transaction. as_of is taken before the first read,
+     * so it is never later than the state captured; events in between are simply replayed again.
+     */
+    private EncodedSnapshot encodeSnapshot(Long portfolioId) {
+        Timestamp asOf = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM portfolios WHERE id = ?", String.class, portfolioId);
+        if (names.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] tradeCount = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new DeflaterOutputStream(bytes))) {
+            generator.writeStartObject();
+            generator.writeStringField("name", names.get(0));
+            generator.writeArrayFieldStart("trades");
+            jdbcTemplate.query(
+                    "SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM trades WHERE portfolio_id = ? "
+                            + "UNION ALL SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM trades_archive WHERE portfolio_id = ?",
+                    rs -> {
+                        try {
+                            TradeJsonWriter.writeTrade(generator, rs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        tradeCount[0]++;
+                    },
+                    portfolioId, portfolioId);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode snapshot of portfolio " + portfolioId, e);
+        }
+        return new EncodedSnapshot(asOf, tradeCount[0], bytes.toByteArray());
+    }
+
+    private SnapshotState loadSnapshot(long snapshotId) {
+        synchronized (snapshotCache) {
+            SnapshotState cached = snapshotCache.get(snapshotId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] state = jdbcTemplate.queryForObject(
+                "SELECT state FROM portfolio_snapshots WHERE id = ?", byte[].class, snapshotId);
+        SnapshotState decoded;
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(state))) {
+            decoded = objectMapper.readValue(in, SnapshotState.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode portfolio snapshot " + snapshotId, e);
+        }
+        synchronized (snapshotCache) {
+            snapshotCache.put(snapshotId, decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Folds one audit event into the trade map. Details hold the state the event left behind:
+     * CREATE sets the trade, ADJUST overlays the fields it carries, and CANCEL either sets the
+     * CANCELLED status or, without a status, records a deletion.
+     */
+    private static void apply(Map<Long, TradeDTO> trades, TradeAuditDTO event) {
+        AuditDetails details = event.details();
+        if (details == null || event.action() == null) {
+            return;
+        }
+        Long tradeId = event.tradeId();
+        switch (AuditAction.valueOf(event.action())) {
+            case CREATE -> trades.put(tradeId, overlay(null, tradeId, details, event.createdAt()));
+            case ADJUST -> trades.put(tradeId, overlay(trades.get(tradeId), tradeId, details, event.createdAt()));
+            case CANCEL -> {
+                if (details.getStatus() != null) {
+                    trades.put(tradeId, overlay(trades.get(tradeId), tradeId, details, event.createdAt()));
+                } else {
+                    trades.remove(tradeId);
+                }
+            }
+        }
+    }
+
+    private static TradeDTO overlay(TradeDTO existing, Long tradeId, AuditDetails details, LocalDateTime eventTime) {
+        return new TradeDTO(
+                tradeId,
+                details.getPortfolioId() != null ? details.getPortfolioId() : existing != null ? existing.portfolioId() : null,
+                details.getReferenceId() != null ? details.getReferenceId() : existing != null ? existing.tradeReferenceId() : null,
+                details.getTradeType() != null ? details.getTradeType() : existing != null ? existing.tradeType() : null,
+                details.getQuantity() != null ? details.getQuantity() : existing != null ? existing.quantity() : null,
+                details.getPrice() != null ? details.getPrice() : existing != null ? existing.price() : null,
+                details.getStatus() != null ? details.getStatus() : existing != null ? existing.status() : null,
+                existing != null ? existing.createdAt() : eventTime,
+                null
+        );
+    }
+
+    private record SnapshotState(String name, List<TradeDTO> trades) {}
+
+    private record EncodedSnapshot(Timestamp asOf, int tradeCount, byte[] state) {}
+}
@@ -0,0 +1,269 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.service.pm.EntityTagService;
+import com.pgim.portfolio.service.pm.PortfolioPayloadService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized response bodies for the largest portfolios.
+ *
+ * A portfolio with at least portfolio.payload-cache.min-trades trades is admitted the first time it is served
+ * the normal way and is then loaded and serialized in the background; from then on GET v1/api/portfolios/{id}
+ * writes its cached JSON (or gzipped JSON) bytes without touching the database, the entity graph, the mapper or
+ * Jackson. Freshness is tracked without reading the ETag per request: every write (from the service layer, or
+ * from change data capture for writes made by another instance) marks the payload stale after commit and
+ * schedules a rebuild on a background thread. A payload is served only if its rebuild started after the last
+ * such mark. Until the rebuild lands, readers of that portfolio take the normal path; nobody waits for
+ * reserialization. Rebuilds of one portfolio are coalesced.
+ *
+ * At most portfolio.payload-cache.max-entries payloads are held, least recently served evicted first.
+ */
+@Service
+public class PortfolioPayloadServiceImpl implements PortfolioPayloadService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioPayloadServiceImpl.class);
+
+    private final TieredPortfolioReader tieredPortfolioReader;
+    private final EntityTagService entityTagService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int minTrades;
+    private final int maxEntries;
+    // Guarded by itself
+    private final Map<Long, Entry> payloads;
+    // Portfolios with a payload cached or being built; only these are tracked for staleness
+    private final Set<Long> admitted = ConcurrentHashMap.newKeySet();
+    // Portfolios with a rebuild queued but not yet started
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Tick of the last write to each admitted portfolio that no stored payload has caught up with yet
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService rebuilder;
+
+    public PortfolioPayloadServiceImpl(
+            TieredPortfolioReader tieredPortfolioReader,
+            EntityTagService entityTagService,
+            ObjectMapper objectMapper,
+            @Value("${portfolio.payload-cache.enabled:true}") boolean enabled,
+            @Value("${portfolio.payload-cache.min-trades:1000}") int minTrades,
+            @Value("${portfolio.payload-cache.max-entries:32}") int maxEntries,
+            @Value("${portfolio.payload-cache.workers:1}") int workers
+    ) {
+        this.tieredPortfolioReader = tieredPortfolioReader;
+        this.entityTagService = entityTagService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minTrades = minTrades;
+        this.maxEntries = maxEntries;
+        this.payloads = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= PortfolioPayloadServiceImpl.this.maxEntries) {
+                    return false;
+                }
+                admitted.remove(eldest.getKey());
+                invalidatedAt.remove(eldest.getKey());
+                return true;
+            }
+        };
+        this.rebuilder = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-payload-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached payload unless a write has been committed since it was built; that write has already
+     * scheduled its rebuild.
+     */
+    @Override
+    public Optional<Payload> getPayload(Long portfolioId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (payloads) {
+            entry = payloads.get(portfolioId);
+        }
+        if (entry == null || entry.builtAt() < invalidatedAt.getOrDefault(portfolioId, 0L)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.payload());
+    }
+
+    /**
+     * Admits a large portfolio the caller has just served. It is reloaded in the background rather than
+     * serialized from the caller's copy, which may predate a write that was not yet being tracked.
+     */
+    @Override
+    public void offer(PortfolioDTO portfolio) {
+        if (!enabled || portfolio.trades() == null || portfolio.trades().size() < minTrades) {
+            return;
+        }
+        if (admitted.add(portfolio.id())) {
+            scheduleRebuild(portfolio.id());
+        }
+    }
+
+    /**
+     * Marks the cached payloads of the given portfolios stale and rebuilds them, after commit when called inside
+     * a transaction. Portfolios that are not admitted are ignored; that is decided after commit too, so a
+     * portfolio admitted while the write was in flight is still marked.
+     */
+    @Override
+    public void refresh(Collection<Long> portfolioIds) {
+        if (!enabled || portfolioIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(portfolioIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAdmitted(ids);
+                }
+            });
+        } else {
+            invalidateAdmitted(ids);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void invalidateAdmitted(List<Long> portfolioIds) {
+        portfolioIds.stream().distinct().filter(admitted::contains).forEach(portfolioId -> {
+            invalidatedAt.put(portfolioId, clock.incrementAndGet());
+            scheduleRebuild(portfolioId);
+        });
+    }
+
+    private void scheduleRebuild(Long portfolioId) {
+        if (pending.add(portfolioId)) {
+            submit(portfolioId, () -> rebuild(portfolioId));
+        }
+    }
+
+    /**
+     * Reloads and reserializes the portfolio, unless the cached payload turns out to be current already
+     * (the same write is often reported by both the service layer and change data capture), in which case it
+     * is only re-stamped. Everything is read after the start tick, so the result covers every write marked
+     * before it.
+     */
+    private void rebuild(Long portfolioId) {
+        long startedAt = clock.get();
+        Optional<String> current = entityTagService.currentPortfolioTag(portfolioId);
+        if (current.isEmpty()) {
+            remove(portfolioId);
+            return;
+        }
+        Entry cached;
+        synchronized (payloads) {
+            cached = payloads.get(portfolioId);
+        }
+        if (cached != null && cached.payload().eTag().equals(current.get())) {
+            put(portfolioId, new Entry(cached.payload(), startedAt));
+            return;
+        }
+        tieredPortfolioReader.findById(portfolioId)
+                .ifPresentOrElse(portfolio -> store(portfolio, startedAt), () -> remove(portfolioId));
+    }
+
+    private void submit(Long portfolioId, Runnable task) {
+        try {
+            rebuilder.execute(() -> {
+                // Cleared first, so a write landing during this rebuild queues another one
+                pending.remove(portfolioId);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // Readers keep taking the normal path; the next write or stale read retries
+                    remove(portfolioId);
+                    logger.warn("Rebuilding the payload of portfolio {} failed", portfolioId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(portfolioId); // shutting down
+        }
+    }
+
+    private void store(PortfolioDTO portfolio, long builtAt) {
+        if (portfolio.trades() == null || portfolio.trades().size() < minTrades) {
+            remove(portfolio.id());
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(portfolio);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        Payload payload = new Payload(entityTagService.portfolioTag(portfolio), json, gzip(json));
+        put(portfolio.id(), new Entry(payload, builtAt));
+        logger.debug("Cached {} byte payload of portfolio {}", json.length, portfolio.id());
+    }
+
+    /**
+     * Stores the entry unless the portfolio was evicted or dropped meanwhile, and forgets the last write mark
+     * once the entry covers it.
+     */
+    private void put(Long portfolioId, Entry entry) {
+        synchronized (payloads) {
+            if (!admitted.contains(portfolioId)) {
+                return;
+            }
+            payloads.put(portfolioId, entry);
+        }
+        invalidatedAt.computeIfPresent(portfolioId, (id, tick) -> tick <= entry.builtAt() ? null : tick);
+    }
+
+    private void remove(Long portfolioId) {
+        synchronized (payloads) {
+            payloads.remove(portfolioId);
+            admitted.remove(portfolioId);
+        }
+        invalidatedAt.remove(portfolioId);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A payload and the clock tick at which the rebuild that produced or last confirmed it started.
+     */
+    private record Entry(Payload payload, long builtAt) {}
+}
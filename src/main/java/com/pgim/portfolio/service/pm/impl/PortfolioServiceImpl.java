@@ -1,26 +1,60 @@
 package com.pgim.portfolio.service.pm.impl;
 
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.api.util.ReadThroughCache;
 import com.pgim.portfolio.domain.PortfolioMapper;
+import com.pgim.portfolio.domain.TradeMapper;
 import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.PortfolioPatchDTO;
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradePatchDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
 import com.pgim.portfolio.domain.entity.pm.Portfolio;
 import com.pgim.portfolio.domain.entity.pm.Trade;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.domain.event.TradeChangedEvent.ChangeType;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
 import com.pgim.portfolio.repository.pm.PortfolioRepository;
+import com.pgim.portfolio.repository.pm.TradeRepository;
+import com.pgim.portfolio.service.audit.TradeAuditService;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
 import com.pgim.portfolio.service.pm.PortfolioService;
+import jakarta.persistence.EntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_ENTITY_MANAGER;
 import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.ADJUST;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CANCEL;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CREATE;
 
 @Service
 public class PortfolioServiceImpl implements PortfolioService {
@@ -30,42 +64,87 @@ public class PortfolioServiceImpl implements PortfolioService {
     // Constructor injection is preferred for immutability and easier testing
     private final PortfolioRepository portfolioRepository;
     private final PortfolioMapper portfolioMapper;
+    private final TradeRepository tradeRepository;
+    private final TradeMapper tradeMapper;
+    private final TradeAuditService tradeAuditService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int deleteChunkSize;
+    private final ReadThroughCache<Long, PortfolioDTO> portfolioCache;
+    private final EntityManagerFactory pmEntityManagerFactory;
+    private final GenerationalPageCache listingPageCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final TradeOutboxService tradeOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingTradeAudits pendingTradeAudits;
+    private final TieredPortfolioReader tieredPortfolioReader;
 
     // @Autowired is implicit for single constructor
     public PortfolioServiceImpl (
             PortfolioRepository portfolioRepository,
-            PortfolioMapper portfolioMapper
+            PortfolioMapper portfolioMapper,
+            TradeRepository tradeRepository,
+            TradeMapper tradeMapper,
+            TradeAuditService tradeAuditService,
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            @Value("${portfolio.delete.chunk-size:1000}") int deleteChunkSize,
+            ReadThroughCache<Long, PortfolioDTO> portfolioCache,
+            @Qualifier(PORTFOLIO_ENTITY_MANAGER) EntityManagerFactory pmEntityManagerFactory,
+            GenerationalPageCache listingPageCache,
+            CacheInvalidator cacheInvalidator,
+            TradeOutboxService tradeOutboxService,
+            ApplicationEventPublisher eventPublisher,
+            PendingTradeAudits pendingTradeAudits,
+            TieredPortfolioReader tieredPortfolioReader
     ) {
         this.portfolioRepository = portfolioRepository;
         this.portfolioMapper = portfolioMapper;
+        this.tradeRepository = tradeRepository;
+        this.tradeMapper = tradeMapper;
+        this.tradeAuditService = tradeAuditService;
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.deleteChunkSize = deleteChunkSize;
+        this.portfolioCache = portfolioCache;
+        this.pmEntityManagerFactory = pmEntityManagerFactory;
+        this.listingPageCache = listingPageCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.tradeOutboxService = tradeOutboxService;
+        this.eventPublisher = eventPublisher;
+        this.pendingTradeAudits = pendingTradeAudits;
+        this.tieredPortfolioReader = tieredPortfolioReader;
     }
 
     /**
      * Fetches all portfolios with pagination support.
      * Uses repository and mapper to convert entities to DTOs.
+     * Pages are served from the listing page cache until a portfolio or trade write.
      */
     public Page<PortfolioDTO> getAllPortfolios(Pageable pageable) {
         logger.info("Getting all portfolios");
-        Page<Portfolio> portfolios = portfolioRepository.findAllWithTrades(pageable);
-        List<PortfolioDTO> portfolioDTOs = portfolios.getContent().stream()
-                .map(portfolioMapper::toDTO)
-                .collect(Collectors.toList());
-        return new PageImpl<>(portfolioDTOs, pageable, portfolios.getTotalElements());
+        return listingPageCache.get("portfolios", null, null, pageable, () -> loadAllPortfolios(pageable));
+    }
+
+    private Page<PortfolioDTO> loadAllPortfolios(Pageable pageable) {
+        return tieredPortfolioReader.findAll(pageable);
     }
 
     /**
-     * Retrieves a portfolio by its ID, throws if not found.
+     * Retrieves a portfolio by its ID with its hot and archived trades, throws if not found.
+     * Served from the portfolio cache; unknown ids are cached briefly as misses.
      */
     public PortfolioDTO getPortfolioById(Long portfolioId) {
-        Portfolio existingPortfolio = portfolioRepository.findByIdWithTrades(portfolioId)
+        return portfolioCache.get(portfolioId, tieredPortfolioReader::findById)
                 .orElseThrow(() -> new IllegalArgumentException("Portfolio not found with id: " + portfolioId));
-        return portfolioMapper.toDTO(existingPortfolio);
     }
 
     /**
      * Creates a new portfolio. Links trades to the portfolio entity before saving.
      * This ensures bidirectional mapping and correct persistence.
+     * A CREATED event per trade is written to the outbox in the same transaction.
      */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
     public PortfolioDTO createPortfolio(PortfolioDTO portfolioDTO) {
         Portfolio portfolio = portfolioMapper.toEntity(portfolioDTO);
 
@@ -73,19 +152,26 @@ public class PortfolioServiceImpl implements PortfolioService {
         if (portfolio.getTrades() != null) {
             portfolio.getTrades().forEach(trade -> trade.setPortfolio(portfolio));
         }
-        Portfolio savedPortfolio = portfolioRepository.save(portfolio);
-        return portfolioMapper.toDTO(savedPortfolio);
+        // Flushed so the events carry the ids, versions and timestamps as stored
+        Portfolio savedPortfolio = portfolioRepository.saveAndFlush(portfolio);
+        // New ids may still be cached as misses
+        PortfolioDTO savedPortfolioDTO = portfolioMapper.toDTO(savedPortfolio);
+        publishChanges(ChangeType.CREATED, savedPortfolioDTO.trades());
+        invalidateCaches(savedPortfolioDTO.id(), savedPortfolioDTO.trades());
+        return savedPortfolioDTO;
     }
 
     /**
      * Updates an existing portfolio and its trades.
      * @Transactional ensures atomicity and consistency for the upsert logic.
      * Existing trades are updated, new trades are added, and all are linked to the portfolio.
+     * An UPDATED or CREATED event per trade in the request is written to the outbox in the same transaction.
      */
     @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER) // Ensures all changes are committed or rolled back together
     public PortfolioDTO updatePortfolio(Long portfolioId, PortfolioDTO portfolioDTO) {
         // Fetch the existing portfolio, throws if not found
         Portfolio portfolio = getExistingPortfolio(portfolioId);
+        checkVersion(portfolio, portfolioDTO.version());
 
         // Update portfolio fields (currently only name)
         portfolio.setName(portfolioDTO.name());
@@ -119,26 +205,288 @@ public class PortfolioServiceImpl implements PortfolioService {
                 portfolio.getTrades().add(newTrade);
             }
         });
-        Portfolio savedPortfolio = portfolioRepository.save(portfolio);
-        return portfolioMapper.toDTO(savedPortfolio);
+        // Flushed so the events carry the ids and bumped versions as stored
+        Portfolio savedPortfolio = portfolioRepository.saveAndFlush(portfolio);
+        PortfolioDTO savedPortfolioDTO = portfolioMapper.toDTO(savedPortfolio);
+        Set<Long> requestedIds = tradeDTOs.stream().map(TradeDTO::id).filter(Objects::nonNull).collect(Collectors.toSet());
+        List<TradeDTO> created = new ArrayList<>();
+        List<TradeDTO> updated = new ArrayList<>();
+        for (TradeDTO trade : savedPortfolioDTO.trades()) {
+            if (!existingTrades.containsKey(trade.id())) {
+                created.add(trade);
+            } else if (requestedIds.contains(trade.id())) {
+                updated.add(trade);
+            }
+        }
+        publishChanges(ChangeType.UPDATED, updated);
+        publishChanges(ChangeType.CREATED, created);
+        invalidateCaches(portfolioId, savedPortfolioDTO.trades());
+        return savedPortfolioDTO;
+    }
+
+    /**
+     * Applies a partial update to a portfolio.
+     * Only the trades named in the patch are loaded (one query), and only fields whose value actually
+     * changes are set, so @DynamicUpdate emits no SQL for unchanged fields and the trades collection is
+     * never initialised. Round trips depend on the size of the change, not the size of the portfolio.
+     * Returns the portfolio header with only the patched and added trades.
+     * Every trade actually changed gets an ADJUST audit row and every added trade a CREATE row. Reference ids
+     * that are new to the portfolio are checked against hot and archived trades, like submitTrade does.
+     * An UPDATED or CREATED event per patched or added trade is written to the outbox in the same transaction.
+     */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
+    public PortfolioDTO patchPortfolio(Long portfolioId, PortfolioPatchDTO patch) {
+        Portfolio portfolio = getExistingPortfolio(portfolioId);
+        checkVersion(portfolio, patch.version());
+        if (patch.name() != null && !patch.name().equals(portfolio.getName())) {
+            portfolio.setName(patch.name());
+        }
+
+        List<TradePatchDTO> tradePatches = patch.trades() != null ? patch.trades() : List.of();
+        Set<Long> tradeIds = tradePatches.stream()
+                .map(TradePatchDTO::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Trade> existingTrades = tradeIds.isEmpty()
+                ? Map.of()
+                : tradeRepository.findByPortfolioIdAndIdIn(portfolioId, tradeIds).stream()
+                        .collect(Collectors.toMap(Trade::getId, Function.identity()));
+
+        List<Trade> touched = new ArrayList<>(tradePatches.size());
+        Set<Long> changedIds = new HashSet<>();
+        List<String> newReferenceIds = new ArrayList<>();
+        for (TradePatchDTO tradePatch : tradePatches) {
+            Trade trade;
+            if (tradePatch.id() != null) {
+                trade = existingTrades.get(tradePatch.id());
+                if (trade == null) {
+                    throw new IllegalArgumentException("Trade " + tradePatch.id() + " not found in portfolio " + portfolioId);
+                }
+            } else {
+                // Link new trade to the portfolio without touching its trades collection
+                trade = new Trade();
+                trade.setPortfolio(portfolio);
+            }
+            String referenceId = trade.getTradeReferenceId();
+            if (applyTradePatch(trade, tradePatch) && trade.getId() != null) {
+                changedIds.add(trade.getId());
+            }
+            TradeServiceImpl.validateTrade(tradeMapper.toDTO(trade));
+            if (trade.getId() == null && trade.getTradeReferenceId() == null) {
+                throw new IllegalArgumentException("Trade reference ID is required for new trades.");
+            }
+            if (!trade.getTradeReferenceId().equals(referenceId)) {
+                newReferenceIds.add(trade.getTradeReferenceId());
+            }
+            touched.add(trade);
+        }
+        rejectExistingReferences(newReferenceIds);
+        for (int i = 0; i < touched.size(); i++) {
+            if (touched.get(i).getId() == null) {
+                touched.set(i, tradeRepository.save(touched.get(i)));
+            }
+        }
+        logger.info("Patched portfolio {}: {} trades amended, {} added",
+                portfolioId, existingTrades.size(), touched.size() - existingTrades.size());
+
+        // Flushed so the events carry the bumped versions
+        tradeRepository.flush();
+        List<TradeDTO> tradeDTOs = touched.stream()
+                .map(tradeMapper::toDTO)
+                .collect(Collectors.toList());
+        Map<Long, AuditDetails> adjusted = new LinkedHashMap<>();
+        Map<Long, AuditDetails> added = new LinkedHashMap<>();
+        for (TradeDTO trade : tradeDTOs) {
+            if (!existingTrades.containsKey(trade.id())) {
+                added.put(trade.id(), AuditDetails.ofTrade("Trade added by portfolio patch.", trade));
+            } else if (changedIds.contains(trade.id())) {
+                adjusted.put(trade.id(), AuditDetails.ofTrade("Trade updated by portfolio patch.", trade));
+            }
+        }
+        if (!adjusted.isEmpty()) {
+            tradeAuditService.logTradeEvents(ADJUST, adjusted);
+        }
+        if (!added.isEmpty()) {
+            tradeAuditService.logTradeEvents(CREATE, added);
+        }
+        publishChanges(ChangeType.UPDATED, tradeDTOs.stream().filter(t -> existingTrades.containsKey(t.id())).toList());
+        publishChanges(ChangeType.CREATED, tradeDTOs.stream().filter(t -> !existingTrades.containsKey(t.id())).toList());
+        invalidateCaches(portfolioId, tradeDTOs);
+        return new PortfolioDTO(portfolio.getId(), portfolio.getName(), tradeDTOs,
+                portfolio.getCreatedAt(), portfolio.getUpdatedAt(), portfolio.getVersion(), portfolio.getTradesVersion());
     }
 
     /**
      * Deletes a portfolio by ID. Throws if not found.
+     * Trades are removed with chunked set-based DELETEs instead of cascading through JPA, which would load
+     * and delete every trade entity one by one. Each chunk locks the next id range of trades, then of
+     * trades_archive, deletes it and commits; the portfolio row goes last, once no trade of either tier is
+     * left, so nothing is removed by ON DELETE CASCADE without its audit row. The CANCEL audit rows and
+     * DELETED outbox events of a chunk are recorded in the transaction of the chunk (see PendingTradeAudits).
      */
     public void deletePortfolio(Long portfolioId) {
         if (!portfolioRepository.existsById(portfolioId)) {
             throw new IllegalArgumentException("Portfolio not found with id: " + portfolioId);
         }
-        portfolioRepository.deleteById(portfolioId);
+        long deletedTrades = 0;
+        boolean portfolioDeleted = false;
+        while (!portfolioDeleted) {
+            DeletedChunk chunk = transactionTemplate.execute(status -> deleteTradeChunk(portfolioId));
+            deletedTrades += chunk.trades().size();
+            portfolioDeleted = chunk.portfolioDeleted();
+        }
+        // The row went away through JDBC, which Hibernate's second-level cache does not see
+        pmEntityManagerFactory.getCache().evict(Portfolio.class, portfolioId);
+        logger.info("Deleted portfolio {} with {} trades", portfolioId, deletedTrades);
+    }
+
+    /**
+     * Locks and deletes the next chunk of a portfolio's hot, then archived trades. Once both are empty the
+     * portfolio row is locked first, which holds off new trades at their foreign key check, and deleted if
+     * still no trade is left.
+     */
+    private DeletedChunk deleteTradeChunk(Long portfolioId) {
+        String table = "trades";
+        Map<Long, String> trades = lockTradeChunk(table, portfolioId);
+        if (trades.isEmpty()) {
+            table = "trades_archive";
+            trades = lockTradeChunk(table, portfolioId);
+        }
+        if (trades.isEmpty()) {
+            jdbcTemplate.queryForList("SELECT id FROM portfolios WHERE id = ? FOR UPDATE", Long.class, portfolioId);
+            if (!lockTradeChunk("trades", portfolioId).isEmpty() || !lockTradeChunk("trades_archive", portfolioId).isEmpty()) {
+                return new DeletedChunk(trades, false);
+            }
+            jdbcTemplate.update("DELETE FROM portfolios WHERE id = ?", portfolioId);
+            cacheInvalidator.portfoliosChanged(List.of(portfolioId));
+            return new DeletedChunk(trades, true);
+        }
+        List<Object> ids = new ArrayList<>(trades.keySet());
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE id IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+
+        String note = "Trade deleted with portfolio " + portfolioId + ".";
+        Map<Long, AuditDetails> details = new LinkedHashMap<>(trades.size());
+        trades.forEach((tradeId, referenceId) -> details.put(tradeId, AuditDetails.builder()
+                .note(note)
+                .referenceId(referenceId)
+                .portfolioId(portfolioId)
+                .build()));
+        pendingTradeAudits.record(CANCEL, details);
+        tradeOutboxService.append(trades.keySet().stream()
+                .map(tradeId -> new TradeLifecycleEvent(
+                        ChangeType.DELETED, tradeId, portfolioId, null, null, null, LocalDateTime.now()))
+                .toList());
+        trades.keySet().forEach(tradeId -> eventPublisher.publishEvent(
+                new TradeChangedEvent(ChangeType.DELETED, tradeId, portfolioId, null, null)));
+        cacheInvalidator.tradesChanged(trades.keySet(), List.of(portfolioId));
+        return new DeletedChunk(trades, false);
+    }
+
+    private Map<Long, String> lockTradeChunk(String table, Long portfolioId) {
+        Map<Long, String> trades = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, trade_reference_id FROM " + table + " WHERE portfolio_id = ? ORDER BY id LIMIT ? FOR UPDATE",
+                rs -> {
+                    trades.put(rs.getLong("id"), rs.getString("trade_reference_id"));
+                },
+                portfolioId, deleteChunkSize);
+        return trades;
+    }
+
+    /**
+     * Writes one outbox event per trade and tells in-process listeners (expiry) about it, in the caller's
+     * transaction, as TradeServiceImpl does for single trades.
+     */
+    private void publishChanges(ChangeType type, List<TradeDTO> trades) {
+        if (trades == null || trades.isEmpty()) {
+            return;
+        }
+        tradeOutboxService.append(trades.stream().map(trade -> TradeLifecycleEvent.of(type, trade)).toList());
+        trades.forEach(trade -> eventPublisher.publishEvent(
+                new TradeChangedEvent(type, trade.id(), trade.portfolioId(), trade.status(), trade.createdAt())));
+    }
+
+    /**
+     * Rejects reference ids already used by a hot or archived trade. Archived trades keep their reference ids,
+     * so the unique key on trades alone does not cover them.
+     */
+    private void rejectExistingReferences(List<String> referenceIds) {
+        if (referenceIds.isEmpty()) {
+            return;
+        }
+        String in = String.join(", ", Collections.nCopies(referenceIds.size(), "?"));
+        List<Object> params = new ArrayList<>(referenceIds);
+        params.addAll(referenceIds);
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT trade_reference_id FROM trades WHERE trade_reference_id IN (" + in + ") "
+                        + "UNION ALL SELECT trade_reference_id FROM trades_archive WHERE trade_reference_id IN (" + in + ")",
+                String.class, params.toArray());
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("Duplicate trade submission with reference ID: " + existing.get(0));
+        }
+    }
+
+    /**
+     * Sets only the fields that are present in the patch and differ from the current value, and tells
+     * whether any did. Decimals are compared numerically so 50.5 vs 50.5000 is not treated as a change.
+     */
+    private static boolean applyTradePatch(Trade trade, TradePatchDTO patch) {
+        boolean changed = false;
+        if (patch.tradeReferenceId() != null && !patch.tradeReferenceId().equals(trade.getTradeReferenceId())) {
+            trade.setTradeReferenceId(patch.tradeReferenceId());
+            changed = true;
+        }
+        if (patch.tradeType() != null && patch.tradeType() != trade.getTradeType()) {
+            trade.setTradeType(patch.tradeType());
+            changed = true;
+        }
+        if (patch.quantity() != null && !sameAmount(patch.quantity(), trade.getQuantity())) {
+            trade.setQuantity(patch.quantity());
+            changed = true;
+        }
+        if (patch.price() != null && !sameAmount(patch.price(), trade.getPrice())) {
+            trade.setPrice(patch.price());
+            changed = true;
+        }
+        if (patch.status() != null && patch.status() != trade.getStatus()) {
+            trade.setStatus(patch.status());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Rejects the write if the client's expected version is stale.
+     * Hibernate's versioned UPDATE (WHERE id = ? AND version = ?) covers the window between this check and flush.
+     */
+    private static void checkVersion(Portfolio portfolio, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(portfolio.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Portfolio.class, portfolio.getId());
+        }
+    }
+
+    /**
+     * Invalidates the cached portfolio and the cached trades written with it, once the write has committed.
+     */
+    private void invalidateCaches(Long portfolioId, List<TradeDTO> trades) {
+        cacheInvalidator.tradesChanged(trades != null ? trades.stream().map(TradeDTO::id).toList() : List.of(),
+                List.of(portfolioId));
     }
 
     /**
      * Helper method to fetch portfolio or throw if not found.
-     * Used to centralize error handling.
+     * Used to centralize error handling. Reads the row rather than the second-level cache, so the version
+     * checked and returned is current.
      */
     private Portfolio getExistingPortfolio(Long portfolioId) {
-        return portfolioRepository.findById(portfolioId)
+        return portfolioRepository.findCurrentById(portfolioId)
                 .orElseThrow(() -> new IllegalArgumentException("Portfolio not found with id: " + portfolioId));
     }
+
+    private record DeletedChunk(Map<Long, String> trades, boolean portfolioDeleted) {}
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.PortfolioMapper;
+import com.pgim.portfolio.domain.TradeMapper;
+import com.pgim.portfolio.domain.dto.pm.PortfolioDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.repository.pm.ArchivedTradeRepository;
+import com.pgim.portfolio.repository.pm.PortfolioRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Loads portfolios with all their trades: the hot trades, followed by the archived ones in id order.
+ * Both tiers are read in one read-only transaction, so a trade the archival job moves in between is seen
+ * in exactly one of them.
+ */
+@Component
+public class TieredPortfolioReader {
+    private final PortfolioRepository portfolioRepository;
+    private final ArchivedTradeRepository archivedTradeRepository;
+    private final PortfolioMapper portfolioMapper;
+    private final TradeMapper tradeMapper;
+
+    public TieredPortfolioReader(
+            PortfolioRepository portfolioRepository,
+            ArchivedTradeRepository archivedTradeRepository,
+            PortfolioMapper portfolioMapper,
+            TradeMapper tradeMapper
+    ) {
+        this.portfolioRepository = portfolioRepository;
+        this.archivedTradeRepository = archivedTradeRepository;
+        this.portfolioMapper = portfolioMapper;
+        this.tradeMapper = tradeMapper;
+    }
+
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER, readOnly = true)
+    public Optional<PortfolioDTO> findById(Long portfolioId) {
+        return portfolioRepository.findByIdWithTrades(portfolioId)
+                .map(portfolioMapper::toDTO)
+                .map(portfolio -> withArchivedTrades(List.of(portfolio)).get(0));
+    }
+
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER, readOnly = true)
+    public Page<PortfolioDTO> findAll(Pageable pageable) {
+        Page<PortfolioDTO> portfolios = portfolioRepository.findAllWithTrades(pageable).map(portfolioMapper::toDTO);
+        return new PageImpl<>(withArchivedTrades(portfolios.getContent()), pageable, portfolios.getTotalElements());
+    }
+
+    private List<PortfolioDTO> withArchivedTrades(List<PortfolioDTO> portfolios) {
+        if (portfolios.isEmpty()) {
+            return portfolios;
+        }
+        Map<Long, List<TradeDTO>> archived = archivedTradeRepository
+                .findByPortfolioIdInOrderById(portfolios.stream().map(PortfolioDTO::id).toList()).stream()
+                .map(tradeMapper::toDTO)
+                .collect(Collectors.groupingBy(TradeDTO::portfolioId));
+        return portfolios.stream()
+                .map(portfolio -> {
+                    List<TradeDTO> cold = archived.getOrDefault(portfolio.id(), List.of());
+                    if (cold.isEmpty()) {
+                        return portfolio;
+                    }
+                    List<TradeDTO> trades = new ArrayList<>(portfolio.trades());
+                    trades.addAll(cold);
+                    return new PortfolioDTO(portfolio.id(), portfolio.name(), trades, portfolio.createdAt(),
+                            portfolio.updatedAt(), portfolio.version(), portfolio.tradesVersion());
+                })
+                .toList();
+    }
+}
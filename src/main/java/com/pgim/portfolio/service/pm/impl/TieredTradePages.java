@@ -0,0 +1,125 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Serves one page over two sorted trade sources: the hot trades table and trades_archive. id is appended to
+ * every sort as the tie-breaker, so the merged order is total and the same in both sources.
+ *
+ * A page after a given trade ({@link #mergeAfter}) asks each source for its next size rows past that trade, a
+ * keyset on (sort key, id), and keeps the first size of the merge: every page costs what the first does.
+ * A numbered page ({@link #merge}) needs each source's first offset + size rows instead, merged like a
+ * sort-merge with the requested window sliced out, so it is meant for the first pages; totals are summed.
+ * The comparators follow MySQL ordering (NULLs first ascending, ENUMs in declaration order, which matches the
+ * Java enums).
+ */
+final class TieredTradePages {
+    private static final Comparator<Object> NULLS_FIRST = Comparator.nullsFirst(
+            (a, b) -> {
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                int result = ((Comparable) a).compareTo(b);
+                return result;
+            });
+
+    // Sort property (DTO name or entity path) -> value it orders by
+    private static final Map<String, Function<TradeDTO, Object>> SORT_KEYS = Map.of(
+            "id", TradeDTO::id,
+            "portfolioId", TradeDTO::portfolioId,
+            "portfolio.id", TradeDTO::portfolioId,
+            "tradeReferenceId", TradeDTO::tradeReferenceId,
+            "tradeType", TradeDTO::tradeType,
+            "quantity", TradeDTO::quantity,
+            "price", TradeDTO::price,
+            "status", TradeDTO::status,
+            "createdAt", TradeDTO::createdAt,
+            "version", TradeDTO::version
+    );
+
+    private TieredTradePages() {}
+
+    static Page<TradeDTO> merge(
+            Pageable pageable,
+            Function<Pageable, Page<TradeDTO>> hot,
+            Function<Pageable, Page<TradeDTO>> cold
+    ) {
+        Sort sort = withTieBreaker(pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "id"));
+        Comparator<TradeDTO> comparator = comparator(sort);
+        if (pageable.isUnpaged()) {
+            Pageable all = Pageable.unpaged(sort);
+            return new PageImpl<>(mergeSorted(hot.apply(all).getContent(), cold.apply(all).getContent(), comparator));
+        }
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page is too deep to merge hot and archived trades: " + pageable);
+        }
+        Pageable prefix = PageRequest.of(0, (int) window, sort);
+        Page<TradeDTO> hotPage = hot.apply(prefix);
+        Page<TradeDTO> coldPage = cold.apply(prefix);
+        List<TradeDTO> merged = mergeSorted(hotPage.getContent(), coldPage.getContent(), comparator);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = (int) Math.min(window, merged.size());
+        return new PageImpl<>(
+                new ArrayList<>(merged.subList(from, to)),
+                pageable,
+                hotPage.getTotalElements() + coldPage.getTotalElements()
+        );
+    }
+
+    /**
+     * The page after a trade: hot and cold each return at most size rows following it in keysetSort, which
+     * must end in id. Keyset pages carry no total; the next one starts after the last trade of this one.
+     */
+    static Page<TradeDTO> mergeAfter(
+            Sort keysetSort,
+            int size,
+            Function<Integer, List<TradeDTO>> hot,
+            Function<Integer, List<TradeDTO>> cold
+    ) {
+        List<TradeDTO> merged = mergeSorted(hot.apply(size), cold.apply(size), comparator(keysetSort));
+        return new PageImpl<>(new ArrayList<>(merged.subList(0, Math.min(size, merged.size()))));
+    }
+
+    private static Sort withTieBreaker(Sort sort) {
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private static Comparator<TradeDTO> comparator(Sort sort) {
+        Comparator<TradeDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<TradeDTO, Object> key = SORT_KEYS.get(order.getProperty());
+            if (key == null) {
+                throw new IllegalArgumentException("Cannot sort hot and archived trades together on: " + order.getProperty());
+            }
+            Comparator<TradeDTO> next = Comparator.comparing(key, NULLS_FIRST);
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static List<TradeDTO> mergeSorted(List<TradeDTO> left, List<TradeDTO> right, Comparator<TradeDTO> comparator) {
+        List<TradeDTO> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            // Ties go to the hot row, so equal keys keep a stable hot-then-cold order
+            merged.add(comparator.compare(left.get(i), right.get(j)) <= 0 ? left.get(i++) : right.get(j++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+}
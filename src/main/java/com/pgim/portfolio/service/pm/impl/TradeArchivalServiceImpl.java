@@ -0,0 +1,134 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.service.pm.TradeArchivalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Moves old terminal trades from trades (hot) to trades_archive (cold) so the hot table, its indexes and
+ * its pages in the buffer pool only hold the working set.
+ *
+ * Candidates are found by walking the primary key from the last archived id; trade ids grow with created_at,
+ * so the old rows sit at the front and the walk only reads the (small) hot tail once per run. Each chunk is
+ * then locked, re-checked, copied with INSERT ... SELECT and deleted in one short transaction.
+ */
+@Service
+public class TradeArchivalServiceImpl implements TradeArchivalService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeArchivalServiceImpl.class);
+
+    private static final String ARCHIVE_COLUMNS =
+            "id, portfolio_id, trade_reference_id, trade_type, quantity, price, status, created_at, updated_at, version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterDays;
+    private final int chunkSize;
+    private final CacheInvalidator cacheInvalidator;
+    private final List<String> archivableStatuses = Arrays.stream(TradeStatus.values())
+            .filter(TradeStatus::isArchivable)
+            .map(Enum::name)
+            .toList();
+
+    public TradeArchivalServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            @Value("${trade.archive.after-days:90}") int afterDays,
+            @Value("${trade.archive.chunk-size:1000}") int chunkSize,
+            CacheInvalidator cacheInvalidator
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    /**
+     * Archives every COMPLETED, CANCELLED or CLOSED trade created more than trade.archive.after-days ago.
+     * Returns the number of trades moved. Scheduled by trade.archive.cron ("-" disables the schedule).
+     */
+    @Override
+    @Scheduled(cron = "${trade.archive.cron:-}", scheduler = MAINTENANCE_SCHEDULER)
+    public long archiveTrades() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(afterDays));
+        String statusFilter = "status IN (" + placeholders(archivableStatuses.size()) + ") AND created_at < ?";
+        long lastId = 0;
+        long archived = 0;
+        int chunks = 0;
+        while (true) {
+            List<Object> params = new ArrayList<>();
+            params.add(lastId);
+            params.addAll(archivableStatuses);
+            params.add(cutoff);
+            params.add(chunkSize);
+            List<Long> candidates = jdbcTemplate.queryForList(
+                    "SELECT id FROM trades WHERE id > ? AND " + statusFilter + " ORDER BY id LIMIT ?",
+                    Long.class, params.toArray());
+            if (candidates.isEmpty()) {
+                break;
+            }
+            lastId = candidates.get(candidates.size() - 1);
+            Integer moved = transactionTemplate.execute(status -> moveChunk(candidates, statusFilter, cutoff));
+            archived += moved == null ? 0 : moved;
+            chunks++;
+        }
+        logger.info("Archived {} trades created before {} in {} chunks", archived, cutoff, chunks);
+        return archived;
+    }
+
+    /**
+     * Locks the candidates that still qualify (a trade may have been updated since it was read),
+     * copies them to trades_archive and deletes them from trades.
+     */
+    private int moveChunk(List<Long> candidates, String statusFilter, Timestamp cutoff) {
+        Set<Long> portfolioIds = new HashSet<>();
+        List<Object> params = new ArrayList<>(candidates);
+        params.addAll(archivableStatuses);
+        params.add(cutoff);
+        List<Long> locked = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT id, portfolio_id FROM trades WHERE id IN (" + placeholders(candidates.size()) + ") AND "
+                        + statusFilter + " FOR UPDATE",
+                rs -> {
+                    locked.add(rs.getLong("id"));
+                    portfolioIds.add(rs.getLong("portfolio_id"));
+                },
+                params.toArray());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        String idList = placeholders(locked.size());
+        jdbcTemplate.update("INSERT INTO trades_archive (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS
+                + " FROM trades WHERE id IN (" + idList + ")", locked.toArray());
+        int deleted = jdbcTemplate.update("DELETE FROM trades WHERE id IN (" + idList + ")", locked.toArray());
+        // Archived trades are still served by id, but no longer listed in their portfolio
+        cacheInvalidator.tradesChanged(List.of(), portfolioIds);
+        return deleted;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
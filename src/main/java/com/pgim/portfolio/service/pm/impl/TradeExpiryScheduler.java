@@ -0,0 +1,167 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.api.util.HierarchicalTimingWheel;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.DataChangeEvent;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.service.pm.TradeStatusTransitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+
+/**
+ * Expires trades that stay PENDING or OPEN for too long.
+ *
+ * Deadlines live in memory in one hierarchical timing wheel per watched status, seeded from created_at at
+ * startup with a single streaming read and kept current by {@link TradeChangedEvent}s. Each tick advances the
+ * wheels and moves the expired trades (PENDING to FAILED, OPEN to CANCELLED) through the chunked bulk
+ * transition path, which writes the audit rows in batches. The transition re-checks the status in SQL, so a
+ * stale deadline for a trade that was changed outside the service layer is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.expiry.enabled", havingValue = "true")
+public class TradeExpiryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(TradeExpiryScheduler.class);
+
+    private static final int WHEEL_BITS = 8;   // 256 slots per level
+    private static final int WHEEL_LEVELS = 4; // 256^4 ticks of range before deadlines are parked
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TradeStatusTransitionService tradeStatusTransitionService;
+    private final Map<TradeStatus, Duration> timeouts = new EnumMap<>(TradeStatus.class);
+    private final Map<TradeStatus, TradeStatus> expiryTargets = new EnumMap<>(TradeStatus.class);
+    private final Map<TradeStatus, HierarchicalTimingWheel<Long>> wheels = new EnumMap<>(TradeStatus.class);
+    private volatile boolean seeded;
+
+    public TradeExpiryScheduler(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            TradeStatusTransitionService tradeStatusTransitionService,
+            @Value("${trade.expiry.pending-timeout:PT24H}") Duration pendingTimeout,
+            @Value("${trade.expiry.open-timeout:PT72H}") Duration openTimeout,
+            @Value("${trade.expiry.tick-millis:1000}") long tickMillis
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.tradeStatusTransitionService = tradeStatusTransitionService;
+        timeouts.put(TradeStatus.PENDING, pendingTimeout);
+        timeouts.put(TradeStatus.OPEN, openTimeout);
+        expiryTargets.put(TradeStatus.PENDING, TradeStatus.FAILED);
+        expiryTargets.put(TradeStatus.OPEN, TradeStatus.CANCELLED);
+        long now = System.currentTimeMillis();
+        for (TradeStatus status : timeouts.keySet()) {
+            wheels.put(status, new HierarchicalTimingWheel<>(tickMillis, WHEEL_BITS, WHEEL_LEVELS, now));
+        }
+    }
+
+    /**
+     * Seeds the wheels from every PENDING/OPEN trade with one streaming pass over idx_status.
+     * Runs after the schema initializers (ApplicationRunners) have completed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT id, status, created_at FROM trades WHERE status IN ('PENDING', 'OPEN')",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL row streaming
+            return ps;
+        }, rs -> {
+            TradeStatus status = TradeStatus.valueOf(rs.getString("status"));
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            schedule(rs.getLong("id"), status, createdAt != null ? createdAt.getTime() : System.currentTimeMillis());
+        });
+        seeded = true;
+        wheels.forEach((status, wheel) -> logger.info("Trade expiry: {} {} deadlines scheduled", wheel.size(), status));
+    }
+
+    /**
+     * Keeps deadlines in step with writes made through the service layer.
+     */
+    @EventListener
+    public void onTradeChanged(TradeChangedEvent event) {
+        if (event.tradeId() == null) {
+            return;
+        }
+        if (event.changeType() == TradeChangedEvent.ChangeType.DELETED) {
+            cancelAll(event.tradeId());
+            return;
+        }
+        if (event.status() == null) {
+            return; // status unchanged or unknown; the SQL guard covers any stale deadline
+        }
+        reschedule(event.tradeId(), event.status(), event.createdAt());
+    }
+
+    /**
+     * Picks up trades written outside the service layer (imports by other apps, SQL scripts) from change
+     * data capture. Rows already seen through TradeChangedEvent are simply rescheduled to the same deadline.
+     */
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        if (event.source() != DataChangeEvent.Source.TRADES) {
+            return;
+        }
+        event.changes().forEach(change -> reschedule(change.id(), change.status(), change.createdAt()));
+    }
+
+    private void reschedule(Long tradeId, TradeStatus status, LocalDateTime createdAt) {
+        cancelAll(tradeId);
+        if (wheels.containsKey(status)) {
+            long createdAtMillis = createdAt != null
+                    ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            schedule(tradeId, status, createdAtMillis);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trade.expiry.tick-millis:1000}")
+    public void expireDueTrades() {
+        if (!seeded) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        wheels.forEach((status, wheel) -> {
+            List<Long> expired = wheel.advanceTo(now);
+            if (expired.isEmpty()) {
+                return;
+            }
+            TradeStatus target = expiryTargets.get(status);
+            String note = "Trade expired: " + status + " for longer than " + timeouts.get(status) + ".";
+            int updated = tradeStatusTransitionService.transitionTradesByIds(expired, status, target, note);
+            logger.info("Trade expiry: {} of {} due {} trades moved to {} at {}",
+                    updated, expired.size(), status, target, LocalDateTime.now());
+        });
+    }
+
+    private void schedule(long tradeId, TradeStatus status, long createdAtMillis) {
+        HierarchicalTimingWheel<Long> wheel = wheels.get(status);
+        if (wheel != null) {
+            wheel.schedule(tradeId, createdAtMillis + timeouts.get(status).toMillis());
+        }
+    }
+
+    private void cancelAll(long tradeId) {
+        for (HierarchicalTimingWheel<Long> wheel : wheels.values()) {
+            wheel.cancel(tradeId);
+        }
+    }
+}
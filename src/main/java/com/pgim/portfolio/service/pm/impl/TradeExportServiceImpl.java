@@ -0,0 +1,206 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.service.pm.TradeExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Streams trades from a forward-only JDBC cursor straight to the response output stream.
+ * No entities, DTOs or pages are built, so heap usage is constant regardless of result size.
+ *
+ * The hot trades come first, then trades_archive (skipped when the status filter cannot match archived
+ * trades), each in id order. Both cursors run in one read-only transaction, so a trade archived meanwhile
+ * is exported exactly once.
+ */
+@Service
+public class TradeExportServiceImpl implements TradeExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportServiceImpl.class);
+
+    // MySQL Connector/J streams rows one at a time (instead of buffering the whole result set) for this fetch size
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,portfolioId,tradeReferenceId,tradeType,quantity,price,status,createdAt\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    private final ObjectMapper objectMapper;
+
+    public TradeExportServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            ObjectMapper objectMapper
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.snapshot = new TransactionTemplate(pmTransactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportTrades(Format format, Long portfolioId, TradeStatus status,
+                             LocalDateTime createdFrom, LocalDateTime createdTo,
+                             OutputStream out) throws IOException {
+        logger.info("Exporting trades as {} for portfolioId: {}, status: {}, from: {}, to: {}",
+                format, portfolioId, status, createdFrom, createdTo);
+        List<PreparedStatementCreator> statements = new ArrayList<>(2);
+        statements.add(streamingStatement("trades", portfolioId, status, createdFrom, createdTo));
+        if (status == null || status.isArchivable()) {
+            statements.add(streamingStatement("trades_archive", portfolioId, status, createdFrom, createdTo));
+        }
+        OutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        try {
+            snapshot.executeWithoutResult(tx -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(statements, buffered);
+                    } else {
+                        writeNdjson(statements, buffered);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream; surface the original IOException to the servlet container
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void writeNdjson(List<PreparedStatementCreator> statements, OutputStream out) throws IOException {
+        // One generator for the whole stream; root values are separated by newlines
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            for (PreparedStatementCreator statement : statements) {
+                jdbcTemplate.query(statement, rs -> {
+                    try {
+                        TradeJsonWriter.writeTrade(generator, rs);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void writeCsv(List<PreparedStatementCreator> statements, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        for (PreparedStatementCreator statement : statements) {
+            jdbcTemplate.query(statement, rs -> {
+                try {
+                    writeCsvRow(writer, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writer.write(Long.toString(rs.getLong("id")));
+        writer.write(',');
+        writer.write(Long.toString(rs.getLong("portfolio_id")));
+        writer.write(',');
+        writer.write(csvEscape(rs.getString("trade_reference_id")));
+        writer.write(',');
+        writer.write(rs.getString("trade_type"));
+        writer.write(',');
+        writer.write(rs.getBigDecimal("quantity").toPlainString());
+        writer.write(',');
+        writer.write(rs.getBigDecimal("price").toPlainString());
+        writer.write(',');
+        writer.write(rs.getString("status"));
+        writer.write(',');
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(createdAt.toLocalDateTime()));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Builds a forward-only, read-only statement over trades or trades_archive, ordered by primary key so
+     * rows come off the clustered index (or the secondary index on portfolio_id, which carries the PK)
+     * without a sort.
+     */
+    private static PreparedStatementCreator streamingStatement(String table, Long portfolioId, TradeStatus status,
+                                                               LocalDateTime createdFrom, LocalDateTime createdTo) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM " + table + " WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (portfolioId != null) {
+            sql.append(" AND portfolio_id = ?");
+            params.add(portfolioId);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(status.name());
+        }
+        if (createdFrom != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(createdFrom));
+        }
+        if (createdTo != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(createdTo));
+        }
+        sql.append(" ORDER BY id");
+
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        };
+    }
+}
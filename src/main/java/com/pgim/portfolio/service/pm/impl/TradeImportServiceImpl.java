@@ -0,0 +1,683 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeImportJobDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeImportRejectDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.service.audit.TradeAuditService;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
+import com.pgim.portfolio.service.pm.TradeImportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CREATE;
+
+/**
+ * Streams a CSV file of trades into portfolio_db without loading it into memory.
+ *
+ * The reader thread parses the stream line by line and hands fixed-size chunks to a bounded pool of
+ * workers. Each chunk is validated with the same rules as {@link TradeServiceImpl#validateTrade(TradeDTO)},
+ * de-duplicated against the file and the trades table, inserted with multi-row INSERT statements and
+ * committed together with its trade_import_chunks marker and the list of trades it still owes CREATE audit rows
+ * for. A restarted job first writes the audit rows a previous run owed, then skips every chunk that has a
+ * marker, so it resumes from the last committed chunk.
+ *
+ * The upload is spooled to a temporary file and its header checked before the request returns; the import
+ * itself runs on one of trade.import.concurrent-jobs job threads, with up to trade.import.queued-jobs waiting.
+ */
+@Service
+public class TradeImportServiceImpl implements TradeImportService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeImportServiceImpl.class);
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private static final int MAX_REJECT_LINE_LENGTH = 1024;
+    private static final String INSERT_TRADE_COLUMNS =
+            "INSERT INTO trades (portfolio_id, trade_reference_id, trade_type, quantity, price, status, created_at) VALUES ";
+    private static final String INSERT_TRADE_VALUES = "(?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
+
+    private final JdbcTemplate pmJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TradeAuditService tradeAuditService;
+    private final int chunkSize;
+    private final int insertBatchRows;
+    private final int workers;
+    private final ThreadPoolExecutor jobRunner;
+    private final CacheInvalidator cacheInvalidator;
+    private final TradeOutboxService tradeOutboxService;
+
+    public TradeImportServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            TradeAuditService tradeAuditService,
+            @Value("${trade.import.chunk-size:5000}") int chunkSize,
+            @Value("${trade.import.insert-batch-rows:500}") int insertBatchRows,
+            @Value("${trade.import.workers:4}") int workers,
+            @Value("${trade.import.concurrent-jobs:1}") int concurrentJobs,
+            @Value("${trade.import.queued-jobs:10}") int queuedJobs,
+            CacheInvalidator cacheInvalidator,
+            TradeOutboxService tradeOutboxService
+    ) {
+        this.pmJdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.tradeAuditService = tradeAuditService;
+        this.chunkSize = chunkSize;
+        this.insertBatchRows = insertBatchRows;
+        this.workers = workers;
+        this.jobRunner = new ThreadPoolExecutor(concurrentJobs, concurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queuedJobs), runnable -> new Thread(runnable, "trade-import-job"));
+        this.cacheInvalidator = cacheInvalidator;
+        this.tradeOutboxService = tradeOutboxService;
+    }
+
+    /**
+     * Accepts the file and returns its RUNNING job; poll {@link #getImportJob} for progress. An empty file or a
+     * header without the required columns is rejected here. A resumed job that already COMPLETED is returned as
+     * is. Throws RejectedExecutionException (503) when trade.import.queued-jobs jobs are already waiting.
+     */
+    @Override
+    public TradeImportJobDTO importTrades(InputStream csv, String sourceName, Long resumeJobId) throws IOException {
+        TradeImportJobDTO resumed = resumeJobId != null ? getImportJob(resumeJobId) : null;
+        if (resumed != null && "COMPLETED".equals(resumed.status())) {
+            return resumed;
+        }
+        Path file = spool(csv);
+        long jobId = -1;
+        try {
+            Map<String, Integer> header = readHeader(file);
+            int jobChunkSize;
+            if (resumed != null) {
+                // Only one request takes a failed job over; a job still running is left alone
+                if (pmJdbcTemplate.update("UPDATE trade_import_jobs SET status = 'RUNNING' WHERE id = ? AND status = 'FAILED'",
+                        resumed.id()) == 0) {
+                    throw new IllegalArgumentException("Only a FAILED trade import job can be resumed: " + resumed.id());
+                }
+                jobId = resumed.id();
+                jobChunkSize = resumed.chunkSize(); // chunk boundaries must match the original run
+            } else {
+                jobId = createJob(sourceName);
+                jobChunkSize = chunkSize;
+                logger.info("Started trade import job {} for {}", jobId, sourceName);
+            }
+            long acceptedJobId = jobId;
+            jobRunner.execute(() -> {
+                try {
+                    runJob(file, header, acceptedJobId, jobChunkSize, resumed != null);
+                } finally {
+                    deleteQuietly(file);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            if (jobId >= 0) {
+                pmJdbcTemplate.update("UPDATE trade_import_jobs SET status = 'FAILED' WHERE id = ?", jobId);
+            }
+            if (e instanceof RejectedExecutionException) {
+                throw new RejectedExecutionException("Too many trade import jobs waiting, retry later", e);
+            }
+            throw e;
+        }
+        return getImportJob(jobId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs end FAILED and can be resumed
+        jobRunner.shutdownNow();
+    }
+
+    /**
+     * Imports the spooled file, on a job thread. Any failure ends the job FAILED, to be resumed.
+     */
+    private void runJob(Path file, Map<String, Integer> header, long jobId, int jobChunkSize, boolean resume) {
+        Set<Long> committedChunks = Set.of();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        // Bounds the number of parsed chunks held in memory at once
+        Semaphore inFlight = new Semaphore(workers * 2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong importedRows = new AtomicLong();
+        AtomicLong rejectedRows = new AtomicLong();
+        long rowsRead = 0;
+        long lineNo = 1; // physical line in the file, the header is line 1
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (resume) {
+                writeOwedAuditRows(jobId);
+                committedChunks = new HashSet<>(pmJdbcTemplate.queryForList(
+                        "SELECT chunk_no FROM trade_import_chunks WHERE job_id = ?", Long.class, jobId));
+                logger.info("Resuming trade import job {} with {} committed chunks", jobId, committedChunks.size());
+            }
+            reader.readLine(); // header, checked when the job was accepted
+
+            List<CsvRow> rows = new ArrayList<>(jobChunkSize);
+            String line;
+            while ((line = reader.readLine()) != null && failure.get() == null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowsRead++;
+                long chunkNo = (rowsRead - 1) / jobChunkSize;
+                if (committedChunks.contains(chunkNo)) {
+                    continue; // already imported by a previous run
+                }
+                rows.add(new CsvRow(lineNo, line));
+                if (rowsRead % jobChunkSize == 0) {
+                    submitChunk(executor, inFlight, failure, importedRows, rejectedRows, jobId, chunkNo, header, rows);
+                    rows = new ArrayList<>(jobChunkSize);
+                }
+            }
+            if (!rows.isEmpty() && failure.get() == null) {
+                long lastChunkNo = (rowsRead - 1) / jobChunkSize;
+                submitChunk(executor, inFlight, failure, importedRows, rejectedRows, jobId, lastChunkNo, header, rows);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+
+        String status = failure.get() == null ? "COMPLETED" : "FAILED";
+        pmJdbcTemplate.update("UPDATE trade_import_jobs SET status = ?, rows_read = GREATEST(rows_read, ?) WHERE id = ?",
+                status, rowsRead, jobId);
+        logger.info("Trade import job {} {}: {} rows read, {} imported, {} rejected in this run",
+                jobId, status, rowsRead, importedRows.get(), rejectedRows.get());
+        if (failure.get() != null) {
+            logger.error("Trade import job {} failed, restart it with resumeJobId={}", jobId, jobId, failure.get());
+        }
+    }
+
+    @Override
+    public TradeImportJobDTO getImportJob(Long jobId) {
+        List<TradeImportJobDTO> jobs = pmJdbcTemplate.query(
+                "SELECT j.id, j.source_name, j.status, j.chunk_size, j.rows_read, j.created_at, j.updated_at, "
+                        + "COUNT(c.chunk_no) AS committed_chunks, "
+                        + "COALESCE(SUM(c.rows_imported), 0) AS rows_imported, "
+                        + "COALESCE(SUM(c.rows_rejected), 0) AS rows_rejected "
+                        + "FROM trade_import_jobs j LEFT JOIN trade_import_chunks c ON c.job_id = j.id "
+                        + "WHERE j.id = ? GROUP BY j.id",
+                (rs, rowNum) -> new TradeImportJobDTO(
+                        rs.getLong("id"),
+                        rs.getString("source_name"),
+                        rs.getString("status"),
+                        rs.getInt("chunk_size"),
+                        rs.getLong("rows_read"),
+                        rs.getLong("committed_chunks"),
+                        rs.getLong("rows_imported"),
+                        rs.getLong("rows_rejected"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("updated_at").toLocalDateTime()
+                ),
+                jobId);
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException("Trade import job not found with id: " + jobId);
+        }
+        return jobs.get(0);
+    }
+
+    @Override
+    public List<TradeImportRejectDTO> getRejectedRows(Long jobId, long afterLine, int limit) {
+        return pmJdbcTemplate.query(
+                "SELECT line_no, reason, raw_line FROM trade_import_rejects "
+                        + "WHERE job_id = ? AND line_no > ? ORDER BY line_no LIMIT ?",
+                (rs, rowNum) -> new TradeImportRejectDTO(
+                        rs.getLong("line_no"), rs.getString("reason"), rs.getString("raw_line")),
+                jobId, afterLine, limit);
+    }
+
+    private long createJob(String sourceName) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        pmJdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO trade_import_jobs (source_name, status, chunk_size) VALUES (?, 'RUNNING', ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, sourceName);
+            ps.setInt(2, chunkSize);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void submitChunk(ExecutorService executor, Semaphore inFlight, AtomicReference<Exception> failure,
+                             AtomicLong importedRows, AtomicLong rejectedRows,
+                             long jobId, long chunkNo, Map<String, Integer> header, List<CsvRow> rows)
+            throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                ChunkResult result = importChunk(jobId, chunkNo, header, rows);
+                importedRows.addAndGet(result.imported().size());
+                rejectedRows.addAndGet(result.rejected());
+                logger.info("Trade import job {} committed chunk {} ({} imported, {} rejected)",
+                        jobId, chunkNo, result.imported().size(), result.rejected());
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Imports one chunk in its own transaction. A duplicate key means a concurrent chunk committed the
+     * same reference id after our duplicate check; the retry sees it and rejects the row instead.
+     */
+    private ChunkResult importChunk(long jobId, long chunkNo, Map<String, Integer> header, List<CsvRow> rows) {
+        ChunkResult result;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                result = transactionTemplate.execute(status -> writeChunk(jobId, chunkNo, header, rows));
+                break;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Trade import job {} chunk {} hit a concurrent duplicate, retrying", jobId, chunkNo);
+            }
+        }
+        // A failure here fails the job; the chunk's pending audit rows are written when it is resumed
+        writeAuditRows(jobId, result.imported());
+        clearPendingAudits(jobId, chunkNo);
+        return result;
+    }
+
+    private ChunkResult writeChunk(long jobId, long chunkNo, Map<String, Integer> header, List<CsvRow> rows) {
+        List<Object[]> rejects = new ArrayList<>();
+        Map<String, ParsedTrade> accepted = new LinkedHashMap<>();
+
+        for (CsvRow row : rows) {
+            try {
+                ParsedTrade trade = parseRow(header, row);
+                TradeServiceImpl.validateTrade(trade.dto());
+                if (accepted.putIfAbsent(trade.dto().tradeReferenceId(), trade) != null) {
+                    rejects.add(reject(jobId, row, "Duplicate trade reference ID in file: " + trade.dto().tradeReferenceId()));
+                }
+            } catch (IllegalArgumentException e) {
+                rejects.add(reject(jobId, row, e.getMessage()));
+            }
+        }
+
+        rejectUnknownPortfolios(jobId, accepted, rejects);
+        rejectExistingReferences(jobId, accepted, rejects);
+
+        List<ParsedTrade> trades = new ArrayList<>(accepted.values());
+        for (int from = 0; from < trades.size(); from += insertBatchRows) {
+            insertTrades(trades.subList(from, Math.min(from + insertBatchRows, trades.size())));
+        }
+
+        if (!rejects.isEmpty()) {
+            pmJdbcTemplate.batchUpdate(
+                    "INSERT INTO trade_import_rejects (job_id, line_no, reason, raw_line) VALUES (?, ?, ?, ?)", rejects);
+        }
+        pmJdbcTemplate.update(
+                "INSERT INTO trade_import_chunks (job_id, chunk_no, rows_imported, rows_rejected) VALUES (?, ?, ?, ?)",
+                jobId, chunkNo, trades.size(), rejects.size());
+
+        Map<Long, TradeDTO> imported = new HashMap<>();
+        loadTradeIds(accepted.keySet()).forEach((tradeId, referenceId) ->
+                imported.put(tradeId, accepted.get(referenceId).dto()));
+        if (!imported.isEmpty()) {
+            pmJdbcTemplate.batchUpdate(
+                    "INSERT INTO trade_import_pending_audits (job_id, chunk_no, trade_id) VALUES (?, ?, ?)",
+                    imported.keySet().stream().map(tradeId -> new Object[]{jobId, chunkNo, tradeId}).toList());
+        }
+        tradeOutboxService.append(createdEvents(imported));
+        cacheInvalidator.tradesChanged(imported.keySet(), imported.values().stream().map(TradeDTO::portfolioId).toList());
+        return new ChunkResult(imported, rejects.size());
+    }
+
+    /**
+     * CREATED outbox events for the chunk's trades, written in the chunk's transaction.
+     */
+    private static List<TradeLifecycleEvent> createdEvents(Map<Long, TradeDTO> imported) {
+        LocalDateTime now = LocalDateTime.now();
+        return imported.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    TradeDTO csv = entry.getValue();
+                    TradeDTO trade = new TradeDTO(entry.getKey(), csv.portfolioId(), csv.tradeReferenceId(),
+                            csv.tradeType(), csv.quantity(), csv.price(),
+                            csv.status() != null ? csv.status() : TradeStatus.PENDING, csv.createdAt(), 0L);
+                    return new TradeLifecycleEvent(TradeChangedEvent.ChangeType.CREATED, trade.id(),
+                            trade.portfolioId(), trade.status(), trade.version(), trade, now);
+                })
+                .toList();
+    }
+
+    /**
+     * Checked once per chunk, in its transaction: a set kept across chunks would still accept a portfolio
+     * deleted meanwhile, and fail the whole chunk on the foreign key.
+     */
+    private void rejectUnknownPortfolios(long jobId, Map<String, ParsedTrade> accepted, List<Object[]> rejects) {
+        Set<Long> portfolioIds = accepted.values().stream()
+                .map(trade -> trade.dto().portfolioId())
+                .collect(Collectors.toSet());
+        if (portfolioIds.isEmpty()) {
+            return;
+        }
+        Set<Long> knownPortfolioIds = new HashSet<>(pmJdbcTemplate.queryForList(
+                "SELECT id FROM portfolios WHERE id IN (" + placeholders(portfolioIds.size()) + ")",
+                Long.class, portfolioIds.toArray()));
+        accepted.values().removeIf(trade -> {
+            if (knownPortfolioIds.contains(trade.dto().portfolioId())) {
+                return false;
+            }
+            rejects.add(reject(jobId, trade.row(), "Portfolio not found with id: " + trade.dto().portfolioId()));
+            return true;
+        });
+    }
+
+    private void rejectExistingReferences(long jobId, Map<String, ParsedTrade> accepted, List<Object[]> rejects) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        // Archived trades keep their reference ids, so the idempotency check covers both tables like submitTrade
+        String in = placeholders(accepted.size());
+        Object[] params = new Object[accepted.size() * 2];
+        int p = 0;
+        for (int copy = 0; copy < 2; copy++) {
+            for (String referenceId : accepted.keySet()) {
+                params[p++] = referenceId;
+            }
+        }
+        List<String> existing = pmJdbcTemplate.queryForList(
+                "SELECT trade_reference_id FROM trades WHERE trade_reference_id IN (" + in + ") "
+                        + "UNION ALL SELECT trade_reference_id FROM trades_archive WHERE trade_reference_id IN (" + in + ")",
+                String.class, params);
+        for (String referenceId : existing) {
+            ParsedTrade trade = accepted.remove(referenceId);
+            if (trade != null) {
+                rejects.add(reject(jobId, trade.row(), "Duplicate trade submission with reference ID: " + referenceId));
+            }
+        }
+    }
+
+    private void insertTrades(List<ParsedTrade> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_TRADE_COLUMNS.length() + batch.size() * (INSERT_TRADE_VALUES.length() + 2));
+        sql.append(INSERT_TRADE_COLUMNS);
+        Object[] params = new Object[batch.size() * 7];
+        int p = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_TRADE_VALUES);
+            TradeDTO dto = batch.get(i).dto();
+            params[p++] = dto.portfolioId();
+            params[p++] = dto.tradeReferenceId();
+            params[p++] = dto.tradeType().name();
+            params[p++] = dto.quantity();
+            params[p++] = dto.price();
+            params[p++] = (dto.status() != null ? dto.status() : TradeStatus.PENDING).name();
+            params[p++] = dto.createdAt() != null ? Timestamp.valueOf(dto.createdAt()) : null;
+        }
+        pmJdbcTemplate.update(sql.toString(), params);
+    }
+
+    private Map<Long, String> loadTradeIds(Set<String> referenceIds) {
+        Map<Long, String> ids = new HashMap<>();
+        if (referenceIds.isEmpty()) {
+            return ids;
+        }
+        pmJdbcTemplate.query(
+                "SELECT id, trade_reference_id FROM trades WHERE trade_reference_id IN (" + placeholders(referenceIds.size()) + ")",
+                rs -> {
+                    ids.put(rs.getLong("id"), rs.getString("trade_reference_id"));
+                },
+                referenceIds.toArray());
+        return ids;
+    }
+
+    /**
+     * Writes the audit rows that an earlier run committed trades for but never got into audit_db, chunk by
+     * chunk. They describe the trades as stored now; trades deleted or archived since are skipped. A crash
+     * between an audit batch and its clearing repeats that batch on the next resume.
+     */
+    private void writeOwedAuditRows(long jobId) {
+        List<Long> chunks = pmJdbcTemplate.queryForList(
+                "SELECT DISTINCT chunk_no FROM trade_import_pending_audits WHERE job_id = ? ORDER BY chunk_no",
+                Long.class, jobId);
+        for (Long chunkNo : chunks) {
+            Map<Long, TradeDTO> trades = new HashMap<>();
+            pmJdbcTemplate.query(
+                    "SELECT t.id, t.portfolio_id, t.trade_reference_id, t.trade_type, t.quantity, t.price, t.status, "
+                            + "t.created_at, t.version FROM trade_import_pending_audits a "
+                            + "JOIN trades t ON t.id = a.trade_id WHERE a.job_id = ? AND a.chunk_no = ?",
+                    rs -> {
+                        trades.put(rs.getLong("id"), new TradeDTO(rs.getLong("id"), rs.getLong("portfolio_id"),
+                                rs.getString("trade_reference_id"), TradeType.valueOf(rs.getString("trade_type")),
+                                rs.getBigDecimal("quantity"), rs.getBigDecimal("price"),
+                                TradeStatus.valueOf(rs.getString("status")),
+                                rs.getTimestamp("created_at").toLocalDateTime(), rs.getLong("version")));
+                    },
+                    jobId, chunkNo);
+            if (!trades.isEmpty()) {
+                writeAuditRows(jobId, trades);
+            }
+            clearPendingAudits(jobId, chunkNo);
+        }
+        if (!chunks.isEmpty()) {
+            logger.info("Trade import job {} wrote the audit rows owed for {} chunks", jobId, chunks.size());
+        }
+    }
+
+    private void clearPendingAudits(long jobId, long chunkNo) {
+        pmJdbcTemplate.update("DELETE FROM trade_import_pending_audits WHERE job_id = ? AND chunk_no = ?", jobId, chunkNo);
+    }
+
+    /**
+     * Writes CREATE audit rows for a committed chunk in one batch.
+     * Runs after the portfolio_db commit, the same ordering submitTrade uses for logTradeEvent.
+     */
+    private void writeAuditRows(long jobId, Map<Long, TradeDTO> imported) {
+        String note = "Trade imported by job " + jobId + ".";
+        Map<Long, AuditDetails> details = new HashMap<>(imported.size());
+        imported.forEach((tradeId, trade) -> {
+            AuditDetails tradeDetails = AuditDetails.ofTrade(note, trade);
+            if (tradeDetails.getStatus() == null) {
+                tradeDetails.setStatus(TradeStatus.PENDING); // column default applied by the insert
+            }
+            details.put(tradeId, tradeDetails);
+        });
+        tradeAuditService.logTradeEvents(CREATE, details);
+    }
+
+    private static Map<String, Integer> parseHeader(String headerLine) {
+        String[] columns = parseCsvLine(headerLine);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            header.put(columns[i].trim(), i);
+        }
+        for (String required : List.of("portfolioId", "tradeReferenceId", "tradeType", "quantity", "price")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + required);
+            }
+        }
+        return header;
+    }
+
+    private static ParsedTrade parseRow(Map<String, Integer> header, CsvRow row) {
+        String[] fields = parseCsvLine(row.line());
+        String referenceId = field(header, fields, "tradeReferenceId");
+        if (referenceId == null) {
+            throw new IllegalArgumentException("Trade reference ID must be specified.");
+        }
+        String portfolioId = field(header, fields, "portfolioId");
+        if (portfolioId == null) {
+            throw new IllegalArgumentException("Portfolio ID must be specified.");
+        }
+        String tradeType = field(header, fields, "tradeType");
+        String quantity = field(header, fields, "quantity");
+        String price = field(header, fields, "price");
+        String status = field(header, fields, "status");
+        String createdAt = field(header, fields, "createdAt");
+        try {
+            TradeDTO dto = new TradeDTO(
+                    null,
+                    Long.valueOf(portfolioId),
+                    referenceId,
+                    tradeType != null ? TradeType.valueOf(tradeType) : null,
+                    quantity != null ? new BigDecimal(quantity) : null,
+                    price != null ? new BigDecimal(price) : null,
+                    status != null ? TradeStatus.valueOf(status) : null,
+                    createdAt != null ? LocalDateTime.parse(createdAt) : null,
+                    null
+            );
+            return new ParsedTrade(row, dto);
+        } catch (RuntimeException e) {
+            // NumberFormatException is an IllegalArgumentException; DateTimeParseException is not
+            throw new IllegalArgumentException("Malformed field: " + e.getMessage(), e);
+        }
+    }
+
+    private static String field(Map<String, Integer> header, String[] fields, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.length) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record (RFC 4180 quoting, no embedded line breaks).
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static Object[] reject(long jobId, CsvRow row, String reason) {
+        String raw = row.line().length() > MAX_REJECT_LINE_LENGTH
+                ? row.line().substring(0, MAX_REJECT_LINE_LENGTH)
+                : row.line();
+        return new Object[]{jobId, row.lineNumber(), reason, raw};
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Copies the request body to a temporary file, so the import can outlive the request.
+     */
+    private static Path spool(InputStream csv) throws IOException {
+        Path file = Files.createTempFile("trade-import-", ".csv");
+        try {
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private static Map<String, Integer> readHeader(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            return parseHeader(headerLine);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled import file {}", file, e);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for trade import chunks to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private record CsvRow(long lineNumber, String line) {}
+
+    private record ParsedTrade(CsvRow row, TradeDTO dto) {}
+
+    private record ChunkResult(Map<Long, TradeDTO> imported, int rejected) {}
+}
@@ -0,0 +1,388 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
+import com.pgim.portfolio.service.pm.TradeIngestService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CREATE;
+
+/**
+ * Single-writer ingest engine for high-rate trade submission, in front of the per-trade submitTrade path.
+ *
+ * Request threads hand trades over through a lock-free {@link IngestRing} of trade.ingest.ring-size slots (a power
+ * of two). A full ring rejects the trade at once (503) rather than queueing without bound.
+ *
+ * One consumer thread drains the ring in sequence order into a batch, closed when it reaches
+ * trade.ingest.max-batch or trade.ingest.linger after its first trade. Per batch it validates each trade,
+ * drops duplicates against the batch and an in-memory set of recently ingested reference ids, checks the rest
+ * against trades and trades_archive in one query, and writes the survivors with multi-row INSERTs and their
+ * CREATED outbox events in one portfolio_db transaction: one commit, and one log flush, per batch. The CREATE audit
+ * rows are recorded in the same transaction and written in one batch to audit_db once it has committed (see
+ * PendingTradeAudits), so an acknowledged trade never lacks its audit row for good. Each caller's future
+ * completes with its trade once the batch has committed, or with the reason it was rejected.
+ *
+ * The UNIQUE key on trade_reference_id stays the final guard against writers outside the sequencer; a batch that
+ * hits it is re-checked and retried. The sequencer is per instance, so this is also what keeps several instances
+ * consistent.
+ */
+@Service
+public class TradeIngestServiceImpl implements TradeIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeIngestServiceImpl.class);
+
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String INSERT_TRADE_COLUMNS =
+            "INSERT INTO trades (portfolio_id, trade_reference_id, trade_type, quantity, price, status, created_at) VALUES ";
+    private static final String INSERT_TRADE_VALUES = "(?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
+
+    private final JdbcTemplate pmJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PendingTradeAudits pendingTradeAudits;
+    private final TradeOutboxService tradeOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidator cacheInvalidator;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final int insertBatchRows;
+    private final long lingerNanos;
+
+    private final IngestRing<Pending> ring;
+    private volatile boolean running;
+    private volatile boolean consumerParked;
+    private final Thread consumer;
+
+    // Consumer thread only
+    private final Set<Long> knownPortfolioIds = new HashSet<>();
+    private final Map<String, Boolean> recentReferences;
+
+    public TradeIngestServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            PendingTradeAudits pendingTradeAudits,
+            TradeOutboxService tradeOutboxService,
+            ApplicationEventPublisher eventPublisher,
+            CacheInvalidator cacheInvalidator,
+            @Value("${trade.ingest.enabled:false}") boolean enabled,
+            @Value("${trade.ingest.ring-size:65536}") int ringSize,
+            @Value("${trade.ingest.max-batch:1000}") int maxBatch,
+            @Value("${trade.ingest.insert-batch-rows:500}") int insertBatchRows,
+            @Value("${trade.ingest.linger:2ms}") Duration linger,
+            @Value("${trade.ingest.recent-references:1000000}") int maxRecentReferences
+    ) {
+        if (enabled && (ringSize <= 0 || Integer.bitCount(ringSize) != 1 || maxBatch <= 0 || insertBatchRows <= 0)) {
+            throw new IllegalArgumentException("Trade ingest needs a power of two ring size and positive batch sizes");
+        }
+        this.pmJdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.pendingTradeAudits = pendingTradeAudits;
+        this.tradeOutboxService = tradeOutboxService;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidator = cacheInvalidator;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.insertBatchRows = insertBatchRows;
+        this.lingerNanos = linger.toNanos();
+        this.ring = new IngestRing<>(enabled ? ringSize : 1);
+        this.recentReferences = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxRecentReferences;
+            }
+        };
+        this.consumer = new Thread(this::consume, "trade-ingest-sequencer");
+        this.consumer.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        consumer.start();
+        logger.info("Trade ingest sequencer started with {} slots, batches of up to {}", ring.capacity(), maxBatch);
+    }
+
+    /**
+     * Queues the trade for the next batch. The future completes with the stored trade once its batch has
+     * committed, or exceptionally with an IllegalArgumentException when the trade is rejected.
+     */
+    @Override
+    public CompletableFuture<TradeDTO> submit(TradeDTO tradeDTO) {
+        if (!running) {
+            throw new IllegalStateException("Trade ingest is not running");
+        }
+        CompletableFuture<TradeDTO> ack = new CompletableFuture<>();
+        ring.publish(new Pending(tradeDTO, ack));
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+        return ack;
+    }
+
+    /**
+     * Stops taking trades; the consumer commits what was already published before it exits.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void consume() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        long closesAt = 0;
+        while (true) {
+            Pending next = ring.take();
+            if (next != null) {
+                if (batch.isEmpty()) {
+                    closesAt = System.nanoTime() + lingerNanos;
+                }
+                batch.add(next);
+                if (batch.size() < maxBatch) {
+                    continue;
+                }
+            } else if (batch.isEmpty()) {
+                if (!running && ring.isDrained()) {
+                    return;
+                }
+                park(IDLE_PARK_NANOS);
+                continue;
+            } else if (running && closesAt - System.nanoTime() > 0) {
+                park(Math.min(closesAt - System.nanoTime(), IDLE_PARK_NANOS));
+                continue;
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void park(long nanos) {
+        consumerParked = true;
+        // A trade published between the failed take and this flag would otherwise wait out the park
+        if (!ring.hasPublished()) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        consumerParked = false;
+    }
+
+    private void commit(List<Pending> batch) {
+        Map<String, Pending> accepted = new LinkedHashMap<>(batch.size() * 2);
+        for (Pending pending : batch) {
+            TradeDTO trade = pending.trade();
+            try {
+                if (trade.portfolioId() == null || trade.tradeReferenceId() == null) {
+                    throw new IllegalArgumentException("Trade portfolio and reference ID must be specified.");
+                }
+                TradeServiceImpl.validateTrade(trade);
+                if (recentReferences.containsKey(trade.tradeReferenceId())
+                        || accepted.putIfAbsent(trade.tradeReferenceId(), pending) != null) {
+                    throw duplicate(trade.tradeReferenceId());
+                }
+            } catch (IllegalArgumentException e) {
+                pending.ack().completeExceptionally(e);
+            }
+        }
+        List<TradeDTO> stored;
+        try {
+            stored = write(accepted);
+        } catch (RuntimeException e) {
+            logger.error("Trade ingest batch of {} failed", accepted.size(), e);
+            accepted.values().forEach(pending -> pending.ack().completeExceptionally(e));
+            return;
+        }
+        // Committed: acknowledge before any follow-up work, whose failures must not fail a stored trade
+        for (TradeDTO trade : stored) {
+            recentReferences.put(trade.tradeReferenceId(), Boolean.TRUE);
+            accepted.get(trade.tradeReferenceId()).ack().complete(trade);
+        }
+        if (!stored.isEmpty()) {
+            afterCommit(stored);
+        }
+    }
+
+    /**
+     * In-process events for a committed batch. Only logs a failure; the trades, their outbox events and audit
+     * rows are already stored.
+     */
+    private void afterCommit(List<TradeDTO> stored) {
+        try {
+            for (TradeDTO trade : stored) {
+                eventPublisher.publishEvent(new TradeChangedEvent(TradeChangedEvent.ChangeType.CREATED,
+                        trade.id(), trade.portfolioId(), trade.status(), trade.createdAt()));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Change events could not be published for {} ingested trades", stored.size(), e);
+        }
+    }
+
+    /**
+     * Rejects unknown portfolios and stored reference ids, then inserts the rest in one transaction. A duplicate
+     * key means another writer stored one of the reference ids after the check; the retry's check rejects it.
+     */
+    private List<TradeDTO> write(Map<String, Pending> accepted) {
+        for (int attempt = 1; ; attempt++) {
+            rejectUnknownPortfolios(accepted);
+            rejectExistingReferences(accepted);
+            if (accepted.isEmpty()) {
+                return List.of();
+            }
+            try {
+                return transactionTemplate.execute(status -> insertTrades(accepted));
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Trade ingest batch hit a concurrent duplicate, retrying");
+            }
+        }
+    }
+
+    private List<TradeDTO> insertTrades(Map<String, Pending> accepted) {
+        List<TradeDTO> trades = accepted.values().stream().map(Pending::trade).toList();
+        for (int from = 0; from < trades.size(); from += insertBatchRows) {
+            insertRows(trades.subList(from, Math.min(from + insertBatchRows, trades.size())));
+        }
+        List<TradeDTO> stored = new ArrayList<>(trades.size());
+        pmJdbcTemplate.query(
+                "SELECT id, trade_reference_id, status, created_at FROM trades WHERE trade_reference_id IN ("
+                        + placeholders(accepted.size()) + ") ORDER BY id",
+                rs -> {
+                    TradeDTO trade = accepted.get(rs.getString("trade_reference_id")).trade();
+                    stored.add(new TradeDTO(rs.getLong("id"), trade.portfolioId(), trade.tradeReferenceId(),
+                            trade.tradeType(), trade.quantity(), trade.price(), TradeStatus.valueOf(rs.getString("status")),
+                            rs.getTimestamp("created_at").toLocalDateTime(), 0L));
+                },
+                accepted.keySet().toArray());
+        LocalDateTime now = LocalDateTime.now();
+        tradeOutboxService.append(stored.stream()
+                .map(trade -> new TradeLifecycleEvent(TradeChangedEvent.ChangeType.CREATED, trade.id(),
+                        trade.portfolioId(), trade.status(), trade.version(), trade, now))
+                .toList());
+        Map<Long, AuditDetails> details = new HashMap<>(stored.size() * 2);
+        stored.forEach(trade -> details.put(trade.id(), AuditDetails.ofTrade("Trade submitted successfully.", trade)));
+        pendingTradeAudits.record(CREATE, details);
+        cacheInvalidator.tradesChanged(stored.stream().map(TradeDTO::id).toList(),
+                stored.stream().map(TradeDTO::portfolioId).toList());
+        return stored;
+    }
+
+    private void insertRows(List<TradeDTO> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_TRADE_COLUMNS.length() + batch.size() * (INSERT_TRADE_VALUES.length() + 2));
+        sql.append(INSERT_TRADE_COLUMNS);
+        Object[] params = new Object[batch.size() * 7];
+        int p = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_TRADE_VALUES);
+            TradeDTO dto = batch.get(i);
+            params[p++] = dto.portfolioId();
+            params[p++] = dto.tradeReferenceId();
+            params[p++] = dto.tradeType().name();
+            params[p++] = dto.quantity();
+            params[p++] = dto.price();
+            params[p++] = (dto.status() != null ? dto.status() : TradeStatus.PENDING).name();
+            params[p++] = dto.createdAt() != null ? Timestamp.valueOf(dto.createdAt()) : null;
+        }
+        pmJdbcTemplate.update(sql.toString(), params);
+    }
+
+    private void rejectUnknownPortfolios(Map<String, Pending> accepted) {
+        Set<Long> unchecked = new HashSet<>();
+        accepted.values().forEach(pending -> {
+            if (!knownPortfolioIds.contains(pending.trade().portfolioId())) {
+                unchecked.add(pending.trade().portfolioId());
+            }
+        });
+        if (unchecked.isEmpty()) {
+            return;
+        }
+        knownPortfolioIds.addAll(pmJdbcTemplate.queryForList(
+                "SELECT id FROM portfolios WHERE id IN (" + placeholders(unchecked.size()) + ")",
+                Long.class, unchecked.toArray()));
+        accepted.values().removeIf(pending -> {
+            if (knownPortfolioIds.contains(pending.trade().portfolioId())) {
+                return false;
+            }
+            pending.ack().completeExceptionally(
+                    new IllegalArgumentException("Portfolio not found with id: " + pending.trade().portfolioId()));
+            return true;
+        });
+    }
+
+    private void rejectExistingReferences(Map<String, Pending> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        String in = placeholders(accepted.size());
+        Object[] params = new Object[accepted.size() * 2];
+        int p = 0;
+        for (int copy = 0; copy < 2; copy++) {
+            for (String referenceId : accepted.keySet()) {
+                params[p++] = referenceId;
+            }
+        }
+        List<String> existing = pmJdbcTemplate.queryForList(
+                "SELECT trade_reference_id FROM trades WHERE trade_reference_id IN (" + in + ") "
+                        + "UNION ALL SELECT trade_reference_id FROM trades_archive WHERE trade_reference_id IN (" + in + ")",
+                String.class, params);
+        for (String referenceId : existing) {
+            Pending pending = accepted.remove(referenceId);
+            if (pending != null) {
+                recentReferences.put(referenceId, Boolean.TRUE);
+                pending.ack().completeExceptionally(duplicate(referenceId));
+            }
+        }
+    }
+
+    private static IllegalArgumentException duplicate(String referenceId) {
+        return new IllegalArgumentException("Duplicate trade submission with reference ID: " + referenceId);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record Pending(TradeDTO trade, CompletableFuture<TradeDTO> ack) {}
+}
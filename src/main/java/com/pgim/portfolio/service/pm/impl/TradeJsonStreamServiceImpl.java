@@ -0,0 +1,202 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.repository.pm.TradeSpecifications;
+import com.pgim.portfolio.service.pm.TradeJsonStreamService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Fast path for trade list endpoints.
+ *
+ * Reads the page with plain JDBC and writes each row as JSON tokens into the response body, skipping the
+ * persistence context, Trade entities, TradeDTO records and the Jackson tree. The envelope matches the JSON
+ * Jackson produces for a Spring Data Page of TradeDTO, so clients see the same wire format.
+ *
+ * Otherwise it serves what the normal listing does: sorting is limited to the indexed columns of
+ * {@link TradeSpecifications#indexedSort} (id is added as tie-breaker), trades_archive is merged in unless the
+ * status filter cannot match archived trades, and rendered pages are kept in the listing page cache. Each tier
+ * contributes its first offset + size rows in the page order, like {@link TieredTradePages#merge}, and the
+ * counts and the page are read in one snapshot.
+ */
+@Service
+public class TradeJsonStreamServiceImpl implements TradeJsonStreamService {
+    // ENUM columns lose their declaration order in a UNION, so the outer sort orders status explicitly
+    private static final String STATUS_ORDER = Arrays.stream(TradeStatus.values())
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "FIELD(status, ", ")"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    private final ObjectMapper objectMapper;
+    private final GenerationalPageCache listingPageCache;
+
+    public TradeJsonStreamServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            ObjectMapper objectMapper,
+            GenerationalPageCache listingPageCache
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.snapshot = new TransactionTemplate(pmTransactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+        this.listingPageCache = listingPageCache;
+    }
+
+    /**
+     * Returns the page as JSON. A sort on a column without an index is rejected with an
+     * IllegalArgumentException before anything is read.
+     */
+    @Override
+    public byte[] tradePage(Pageable pageable, TradeStatus status, Long portfolioId) {
+        Sort sort = TradeSpecifications.keysetSort(pageable.getSort());
+        String listing = portfolioId != null ? "portfolio-trades-json" : "trades-json";
+        String filter = status != null ? status.name() : null;
+        // The cache holds pages of any type; a rendered page is stored as a page of its one body
+        return listingPageCache.get(listing, portfolioId, filter, pageable,
+                        () -> new PageImpl<>(List.of(render(pageable, sort, status, portfolioId))))
+                .getContent().get(0);
+    }
+
+    private byte[] render(Pageable pageable, Sort sort, TradeStatus status, Long portfolioId) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (portfolioId != null) {
+            where.append(" AND portfolio_id = ?");
+            params.add(portfolioId);
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            params.add(status.name());
+        }
+        boolean archive = status == null || status.isArchivable();
+
+        String countSql;
+        String pageSql;
+        List<Object> countParams = new ArrayList<>(params);
+        List<Object> pageParams = new ArrayList<>(params);
+        if (archive) {
+            countSql = "SELECT (SELECT COUNT(*) FROM trades" + where + ") + (SELECT COUNT(*) FROM trades_archive" + where + ")";
+            countParams.addAll(params);
+            long prefix = pageable.getOffset() + pageable.getPageSize();
+            pageSql = "SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM ("
+                    + "(SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM trades" + where + orderBy(sort, "status") + " LIMIT ?)"
+                    + " UNION ALL "
+                    + "(SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM trades_archive" + where + orderBy(sort, "status") + " LIMIT ?)"
+                    + ") tiers" + orderBy(sort, STATUS_ORDER) + " LIMIT ? OFFSET ?";
+            pageParams.add(prefix);
+            pageParams.addAll(params);
+            pageParams.add(prefix);
+        } else {
+            countSql = "SELECT COUNT(*) FROM trades" + where;
+            pageSql = "SELECT " + TradeJsonWriter.TRADE_COLUMNS + " FROM trades" + where + orderBy(sort, "status") + " LIMIT ? OFFSET ?";
+        }
+        pageParams.add(pageable.getPageSize());
+        pageParams.add(pageable.getOffset());
+
+        return snapshot.execute(tx -> {
+            Long total = jdbcTemplate.queryForObject(countSql, Long.class, countParams.toArray());
+            try {
+                return write(pageable, total != null ? total : 0L, pageSql, pageParams);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private byte[] write(Pageable pageable, long totalElements, String sql, List<Object> params) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("content");
+            int[] numberOfElements = {0};
+            try {
+                jdbcTemplate.query(sql, rs -> {
+                    try {
+                        TradeJsonWriter.writeTrade(generator, rs);
+                        numberOfElements[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, params.toArray());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            writePageEnvelope(generator, pageable, totalElements, numberOfElements[0]);
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the Page properties that follow "content" in Jackson's serialization of PageImpl.
+     */
+    private static void writePageEnvelope(JsonGenerator generator, Pageable pageable,
+                                          long totalElements, int numberOfElements) throws IOException {
+        int size = pageable.getPageSize();
+        int number = pageable.getPageNumber();
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) size);
+
+        generator.writeObjectFieldStart("pageable");
+        generator.writeNumberField("pageNumber", number);
+        generator.writeNumberField("pageSize", size);
+        writeSort(generator, pageable.getSort());
+        generator.writeNumberField("offset", pageable.getOffset());
+        generator.writeBooleanField("paged", true);
+        generator.writeBooleanField("unpaged", false);
+        generator.writeEndObject();
+
+        generator.writeBooleanField("last", number + 1 >= totalPages);
+        generator.writeNumberField("totalElements", totalElements);
+        generator.writeNumberField("totalPages", totalPages);
+        generator.writeNumberField("size", size);
+        generator.writeNumberField("number", number);
+        writeSort(generator, pageable.getSort());
+        generator.writeBooleanField("first", number == 0);
+        generator.writeNumberField("numberOfElements", numberOfElements);
+        generator.writeBooleanField("empty", numberOfElements == 0);
+    }
+
+    private static void writeSort(JsonGenerator generator, Sort sort) throws IOException {
+        generator.writeObjectFieldStart("sort");
+        generator.writeBooleanField("empty", sort.isEmpty());
+        generator.writeBooleanField("sorted", sort.isSorted());
+        generator.writeBooleanField("unsorted", sort.isUnsorted());
+        generator.writeEndObject();
+    }
+
+    private static String orderBy(Sort sort, String statusOrder) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = TradeJsonWriter.INDEXED_COLUMNS.get(order.getProperty());
+            orders.add((column.equals("status") ? statusOrder : column) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+}
@@ -0,0 +1,49 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes trades rows from a JDBC ResultSet as JSON tokens, with the same field names and
+ * formats Jackson produces for TradeDTO. Used by the read paths that bypass entity hydration.
+ */
+final class TradeJsonWriter {
+    static final String TRADE_COLUMNS =
+            "id, portfolio_id, trade_reference_id, trade_type, quantity, price, status, created_at, version";
+
+    // Indexed entity attribute (see TradeSpecifications.indexedSort) -> trades column, for sorts in SQL
+    static final Map<String, String> INDEXED_COLUMNS = Map.of(
+            "id", "id",
+            "portfolio.id", "portfolio_id",
+            "tradeReferenceId", "trade_reference_id",
+            "status", "status",
+            "createdAt", "created_at"
+    );
+
+    private TradeJsonWriter() {}
+
+    static void writeTrade(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", rs.getLong("id"));
+        generator.writeNumberField("portfolioId", rs.getLong("portfolio_id"));
+        generator.writeStringField("tradeReferenceId", rs.getString("trade_reference_id"));
+        generator.writeStringField("tradeType", rs.getString("trade_type"));
+        generator.writeNumberField("quantity", rs.getBigDecimal("quantity"));
+        generator.writeNumberField("price", rs.getBigDecimal("price"));
+        generator.writeStringField("status", rs.getString("status"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            generator.writeStringField("createdAt", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(createdAt.toLocalDateTime()));
+        } else {
+            generator.writeNullField("createdAt");
+        }
+        generator.writeNumberField("version", rs.getLong("version"));
+        generator.writeEndObject();
+    }
+}
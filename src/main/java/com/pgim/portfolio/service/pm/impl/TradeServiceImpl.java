@@ -1,20 +1,42 @@
 package com.pgim.portfolio.service.pm.impl;
 
+import com.pgim.portfolio.api.util.GenerationalPageCache;
+import com.pgim.portfolio.api.util.ReadThroughCache;
 import com.pgim.portfolio.domain.TradeMapper;
 import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSearchCriteria;
 import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.pm.ArchivedTrade;
 import com.pgim.portfolio.domain.entity.pm.Trade;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.repository.pm.ArchivedTradeRepository;
 import com.pgim.portfolio.repository.pm.TradeRepository;
+import com.pgim.portfolio.repository.pm.TradeSpecifications;
 import com.pgim.portfolio.service.audit.TradeAuditService;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
 import com.pgim.portfolio.service.pm.TradeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
 import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.ADJUST;
 import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CANCEL;
 import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CREATE;
@@ -28,21 +50,67 @@ public class TradeServiceImpl implements TradeService {
     private final TradeRepository tradeRepository;
     private final TradeMapper tradeMapper;
     private final TradeAuditService tradeAuditService;
-//    private final MessageQueuePublisher messageQueuePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArchivedTradeRepository archivedTradeRepository;
+    private final int archiveAfterDays;
+    private final ReadThroughCache<Long, TradeDTO> tradeCache;
+    private final GenerationalPageCache listingPageCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final TradeOutboxService tradeOutboxService;
 
     // @Autowired is implicit for single constructor
     public TradeServiceImpl(
             TradeRepository tradeRepository,
             TradeMapper tradeMapper,
-            TradeAuditService tradeAuditService
+            TradeAuditService tradeAuditService,
+            ApplicationEventPublisher eventPublisher,
+            ArchivedTradeRepository archivedTradeRepository,
+            @Value("${trade.archive.after-days:90}") int archiveAfterDays,
+            ReadThroughCache<Long, TradeDTO> tradeCache,
+            GenerationalPageCache listingPageCache,
+            CacheInvalidator cacheInvalidator,
+            TradeOutboxService tradeOutboxService
     ) {
         this.tradeRepository = tradeRepository;
         this.tradeMapper = tradeMapper;
         this.tradeAuditService = tradeAuditService;
+        this.eventPublisher = eventPublisher;
+        this.archivedTradeRepository = archivedTradeRepository;
+        this.archiveAfterDays = archiveAfterDays;
+        this.tradeCache = tradeCache;
+        this.listingPageCache = listingPageCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.tradeOutboxService = tradeOutboxService;
     }
 
+    /**
+     * Lists trades from the hot table and, unless the status filter cannot match archived trades,
+     * trades_archive, merged into one page. With afterId the page is the one following that trade (see
+     * {@link #pageAfter}); numbered pages are served from the listing page cache until a trade write.
+     */
     @Override
-    public Page<TradeDTO> getAllTrades(Pageable pageable, String status) {
+    public Page<TradeDTO> getAllTrades(Pageable pageable, String status, Long afterId) {
+        if (afterId != null) {
+            return pageAfter(listingCriteria(status, null), pageable, afterId);
+        }
+        return listingPageCache.get("trades", null, status, pageable, () -> loadAllTrades(pageable, status));
+    }
+
+    private Page<TradeDTO> loadAllTrades(Pageable pageable, String status) {
+        if (status == null) {
+            return TieredTradePages.merge(
+                    pageable,
+                    hot -> tradeRepository.findAll(hot).map(tradeMapper::toDTO),
+                    cold -> archivedTradeRepository.findAll(cold).map(tradeMapper::toDTO)
+            );
+        }
+        if (isArchivable(status)) {
+            return TieredTradePages.merge(
+                    pageable,
+                    hot -> tradeRepository.findByStatus(hot, status).map(tradeMapper::toDTO),
+                    cold -> archivedTradeRepository.findByStatus(TradeStatus.valueOf(status), cold).map(tradeMapper::toDTO)
+            );
+        }
         if (status != null) {
             return tradeRepository.findByStatus(pageable, status)
                     .map(tradeMapper::toDTO);
@@ -52,20 +120,47 @@ public class TradeServiceImpl implements TradeService {
     }
 
     /**
-     * Fetches a trade by its ID, throws if not found.
+     * Fetches a trade by its ID, falling back to the archive on a hot miss. Throws if not found in either.
+     * Served from the trade cache; unknown ids are cached briefly as misses.
      */
     public TradeDTO getTradeById(Long tradeId) {
-        Trade existingTrade = tradeRepository.findById(tradeId)
+        return tradeCache.get(tradeId, id -> tradeRepository.findById(id)
+                        .map(tradeMapper::toDTO)
+                        .or(() -> archivedTradeRepository.findById(id).map(tradeMapper::toDTO)))
                 .orElseThrow(() -> new IllegalArgumentException("Portfolio not found with id: " + tradeId));
-        return tradeMapper.toDTO(existingTrade);
     }
 
     /**
      * Fetches trades for a portfolio with pagination.
-     * Uses repository and mapper to convert entities to DTOs.
+     * Uses repository and mapper to convert entities to DTOs. Without a status, or with an archivable one,
+     * trades_archive is read too. With afterId the page is the one following that trade; numbered pages are
+     * served from the listing page cache until a write to this portfolio's trades.
      */
-    public Page<TradeDTO> getTradesByPortfolioId(Pageable pageable, String status, Long id) {
+    public Page<TradeDTO> getTradesByPortfolioId(Pageable pageable, String status, Long id, Long afterId) {
         logger.info("Fetching trades for portfolioId: {}, status: {}", id, status);
+        if (afterId != null) {
+            return pageAfter(listingCriteria(status, id), pageable, afterId);
+        }
+        return listingPageCache.get("portfolio-trades", id, status, pageable,
+                () -> loadTradesByPortfolioId(pageable, status, id));
+    }
+
+    private Page<TradeDTO> loadTradesByPortfolioId(Pageable pageable, String status, Long id) {
+        if (status == null) {
+            return TieredTradePages.merge(
+                    pageable,
+                    hot -> tradeRepository.findByPortfolioId(id, hot).map(tradeMapper::toDTO),
+                    cold -> archivedTradeRepository.findByPortfolioId(id, cold).map(tradeMapper::toDTO)
+            );
+        }
+        if (isArchivable(status)) {
+            return TieredTradePages.merge(
+                    pageable,
+                    hot -> tradeRepository.findByPortfolioIdAndStatus(hot, status, id).map(tradeMapper::toDTO),
+                    cold -> archivedTradeRepository.findByPortfolioIdAndStatus(id, TradeStatus.valueOf(status), cold)
+                            .map(tradeMapper::toDTO)
+            );
+        }
         if (status != null) {
             return tradeRepository.findByPortfolioIdAndStatus(pageable, status, id)
                     .map(tradeMapper::toDTO);
@@ -74,14 +169,46 @@ public class TradeServiceImpl implements TradeService {
                 .map(tradeMapper::toDTO);
     }
 
+    /**
+     * Searches trades by any combination of optional filters in a single query.
+     * The client sort is rewritten onto indexed columns, or rejected if it has no supporting index.
+     * trades_archive is only read when the criteria can match archived trades (see {@link #readsArchive}).
+     * With afterId the page is the one following that trade.
+     */
+    @Override
+    public Page<TradeDTO> searchTrades(TradeSearchCriteria criteria, Pageable pageable, Long afterId) {
+        logger.info("Searching trades with criteria: {}", criteria);
+        if (afterId != null) {
+            return pageAfter(criteria, pageable, afterId);
+        }
+        Pageable indexedPageable = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                TradeSpecifications.indexedSort(pageable.getSort())
+        );
+        if (readsArchive(criteria)) {
+            return TieredTradePages.merge(
+                    indexedPageable,
+                    hot -> tradeRepository.findAll(TradeSpecifications.<Trade>matching(criteria), hot)
+                            .map(tradeMapper::toDTO),
+                    cold -> archivedTradeRepository.findAll(TradeSpecifications.matching(criteria), cold)
+                            .map(tradeMapper::toDTO)
+            );
+        }
+        return tradeRepository.findAll(TradeSpecifications.matching(criteria), indexedPageable)
+                .map(tradeMapper::toDTO);
+    }
+
     /**
      * Submits a trade with idempotency check.
      * Throws if duplicate reference ID is found.
-     * Validates trade details before persisting.
+     * Validates trade details before persisting. The CREATED event is written to the outbox in the same transaction.
      */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
     public TradeDTO submitTrade(TradeDTO tradeDTO) {
-        // Idempotency check
-        if (tradeRepository.findByTradeReferenceId(tradeDTO.tradeReferenceId()).isPresent()) {
+        // Idempotency check, across hot and archived trades
+        if (tradeRepository.findByTradeReferenceId(tradeDTO.tradeReferenceId()).isPresent()
+                || archivedTradeRepository.findByTradeReferenceId(tradeDTO.tradeReferenceId()).isPresent()) {
             throw new IllegalArgumentException("Duplicate trade submission with reference ID: " + tradeDTO.tradeReferenceId());
         }
 
@@ -95,56 +222,149 @@ public class TradeServiceImpl implements TradeService {
         tradeAuditService.logTradeEvent(
             savedTrade.getId(),
             CREATE,
-            setAuditDetails("Trade submitted successfully.", savedTrade.getTradeReferenceId())
+            AuditDetails.ofTrade("Trade submitted successfully.", tradeMapper.toDTO(savedTrade))
         );
         // log submission
         logger.info("Trade submitted successfully: {}", savedTrade);
-        return tradeMapper.toDTO(savedTrade);
+        TradeDTO savedTradeDTO = tradeMapper.toDTO(savedTrade);
+        tradeOutboxService.append(List.of(TradeLifecycleEvent.of(TradeChangedEvent.ChangeType.CREATED, savedTradeDTO)));
+        invalidateCaches(savedTradeDTO.id(), savedTradeDTO.portfolioId());
+        eventPublisher.publishEvent(new TradeChangedEvent(
+                TradeChangedEvent.ChangeType.CREATED,
+                savedTradeDTO.id(),
+                savedTradeDTO.portfolioId(),
+                savedTradeDTO.status(),
+                savedTradeDTO.createdAt()
+        ));
+        return savedTradeDTO;
     }
 
     /**
-     * Updates an existing trade. Preserves ID and portfolio relationship.
+     * Updates an existing trade with a single compare-and-set UPDATE on (id, version).
+     * No prior SELECT and no pessimistic lock: concurrent writers race on the version and the loser gets 409.
+     * The request is a full replacement, so the response, audit row and events are built from it and the new
+     * version without reading the row back. createdAt is echoed from the request; change data capture later
+     * corrects an expiry deadline scheduled from a request that left it out.
+     * Preserves ID and portfolio relationship. The UPDATED event is written to the outbox in the same transaction.
      */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
     public TradeDTO updateTrade(Long id, TradeDTO updateTradeDTO) {
-        Trade existingTrade = tradeRepository.findById(id).orElseThrow(
-                () -> new IllegalArgumentException("Trade not found for trade id: " + id)
-        );
-        tradeAuditService.logTradeEvent(
+        if (updateTradeDTO.version() == null) {
+            throw new IllegalArgumentException("Trade version is required for updates.");
+        }
+        if (updateTradeDTO.portfolioId() == null) {
+            throw new IllegalArgumentException("Portfolio ID is required for updates.");
+        }
+        if (updateTradeDTO.status() == null) {
+            throw new IllegalArgumentException("Trade status is required for updates.");
+        }
+        validateTrade(updateTradeDTO);
+
+        Long portfolioId = updateTradeDTO.portfolioId();
+        int updated = tradeRepository.compareAndSetUpdate(
                 id,
-                ADJUST,
-                setAuditDetails("Trade update initiated.", existingTrade.getTradeReferenceId())
+                updateTradeDTO.version(),
+                portfolioId,
+                updateTradeDTO.tradeReferenceId(),
+                updateTradeDTO.tradeType(),
+                updateTradeDTO.quantity(),
+                updateTradeDTO.price(),
+                updateTradeDTO.status()
         );
-        // Update trade details
-        Trade updateTrade = tradeMapper.toEntity(updateTradeDTO);
-        updateTrade.setId(existingTrade.getId()); // Preserve ID
-        updateTrade.setPortfolio(existingTrade.getPortfolio()); // Preserve portfolio relationship
-        Trade savedTrade = tradeRepository.save(updateTrade);
+        if (updated == 0) {
+            // Only the failure path pays for telling "missing" and "moved" apart from "stale"
+            Trade existing = tradeRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Trade not found for trade id: " + id));
+            if (!existing.getPortfolio().getId().equals(portfolioId)) {
+                throw new IllegalArgumentException("Trade " + id + " does not belong to portfolio " + portfolioId);
+            }
+            throw new ObjectOptimisticLockingFailureException(Trade.class, id);
+        }
 
+        TradeDTO updatedTradeDTO = new TradeDTO(
+                id,
+                portfolioId,
+                updateTradeDTO.tradeReferenceId(),
+                updateTradeDTO.tradeType(),
+                updateTradeDTO.quantity(),
+                updateTradeDTO.price(),
+                updateTradeDTO.status(),
+                updateTradeDTO.createdAt(),
+                updateTradeDTO.version() + 1
+        );
         tradeAuditService.logTradeEvent(
                 id,
                 ADJUST,
-                setAuditDetails("Trade updated successfully.", updateTrade.getTradeReferenceId())
+                AuditDetails.builder()
+                        .note("Trade updated successfully.")
+                        .referenceId(updatedTradeDTO.tradeReferenceId())
+                        .portfolioId(portfolioId)
+                        .tradeType(updatedTradeDTO.tradeType())
+                        .quantity(updatedTradeDTO.quantity())
+                        .price(updatedTradeDTO.price())
+                        .status(updatedTradeDTO.status())
+                        .build()
         );
-        return tradeMapper.toDTO(savedTrade);
+        tradeOutboxService.append(List.of(new TradeLifecycleEvent(
+                TradeChangedEvent.ChangeType.UPDATED,
+                id,
+                portfolioId,
+                updatedTradeDTO.status(),
+                updatedTradeDTO.version(),
+                updatedTradeDTO,
+                LocalDateTime.now()
+        )));
+        invalidateCaches(id, portfolioId);
+        eventPublisher.publishEvent(new TradeChangedEvent(
+                TradeChangedEvent.ChangeType.UPDATED,
+                id,
+                portfolioId,
+                updatedTradeDTO.status(),
+                updatedTradeDTO.createdAt()
+        ));
+        return updatedTradeDTO;
     }
 
     /**
      * Deletes a trade by ID.
+     * The CANCEL audit row carries no status, which marks the trade as removed for history replay.
+     * The DELETED event is written to the outbox in the same transaction.
      */
+    @Transactional(transactionManager = PORTFOLIO_TRANSACTION_MANAGER)
     public void deleteTrade(Long id) {
+        Trade trade = tradeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Trade not found for trade id: " + id));
         tradeAuditService.logTradeEvent(
                 id,
                 CANCEL,
-                setAuditDetails("Trade deleted successfully.", String.valueOf(id))
+                AuditDetails.builder()
+                        .note("Trade deleted successfully.")
+                        .referenceId(trade.getTradeReferenceId())
+                        .portfolioId(trade.getPortfolio().getId())
+                        .build()
         );
-        tradeRepository.deleteById(id);
+        tradeRepository.delete(trade);
+        tradeOutboxService.append(List.of(new TradeLifecycleEvent(
+                TradeChangedEvent.ChangeType.DELETED, id, trade.getPortfolio().getId(), null, null, null, LocalDateTime.now()
+        )));
+        invalidateCaches(id, trade.getPortfolio().getId());
+        eventPublisher.publishEvent(new TradeChangedEvent(
+                TradeChangedEvent.ChangeType.DELETED, id, trade.getPortfolio().getId(), null, null
+        ));
+    }
+
+    /**
+     * Invalidates the cached trade and everything that lists it once the write has committed.
+     */
+    private void invalidateCaches(Long tradeId, Long portfolioId) {
+        cacheInvalidator.tradesChanged(List.of(tradeId), Collections.singletonList(portfolioId));
     }
 
     /**
      * Validates trade details for business rules.
-     * Throws if invalid.
+     * Throws if invalid. Shared with the bulk CSV import so both paths apply the same rules.
      */
-    private void validateTrade(TradeDTO tradeDTO) {
+    static void validateTrade(TradeDTO tradeDTO) {
         if (tradeDTO.quantity() == null || tradeDTO.quantity().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Trade quantity must be greater than zero.");
         }
@@ -156,10 +376,56 @@ public class TradeServiceImpl implements TradeService {
         }
     }
 
-    private AuditDetails setAuditDetails(String note, String refId) {
-        return AuditDetails.builder()
-                .note(note)
-                .referenceId(refId)
-                .build();
+    /**
+     * The archive only holds archivable statuses created more than trade.archive.after-days ago,
+     * so it can be skipped when the status filter or the createdFrom bound rules those out.
+     */
+    /**
+     * The page following trade afterId in the requested sort, which is limited to indexed columns and gets id
+     * as tie-breaker. Each tier is read with a keyset on (sort key, id) past that trade, so a deep page costs
+     * what the first does. The page carries no total; the client continues from its last trade.
+     */
+    private Page<TradeDTO> pageAfter(TradeSearchCriteria criteria, Pageable pageable, Long afterId) {
+        Sort sort = TradeSpecifications.keysetSort(pageable.getSort());
+        TradeDTO after = getTradeById(afterId);
+        Specification<Trade> hot = TradeSpecifications.<Trade>matching(criteria).and(TradeSpecifications.after(sort, after));
+        Specification<ArchivedTrade> cold = TradeSpecifications.<ArchivedTrade>matching(criteria)
+                .and(TradeSpecifications.after(sort, after));
+        boolean archive = readsArchive(criteria);
+        return TieredTradePages.mergeAfter(
+                sort,
+                pageable.getPageSize(),
+                size -> tradeRepository.findBy(hot, query -> query.sortBy(sort).limit(size).all()).stream()
+                        .map(tradeMapper::toDTO).toList(),
+                size -> archive
+                        ? archivedTradeRepository.findBy(cold, query -> query.sortBy(sort).limit(size).all()).stream()
+                                .map(tradeMapper::toDTO).toList()
+                        : List.of()
+        );
+    }
+
+    private static TradeSearchCriteria listingCriteria(String status, Long portfolioId) {
+        return new TradeSearchCriteria(null, status != null ? Set.of(TradeStatus.valueOf(status)) : null,
+                null, null, null, null, null, null, null, portfolioId != null ? Set.of(portfolioId) : null);
+    }
+
+    private boolean readsArchive(TradeSearchCriteria criteria) {
+        if (criteria.statuses() != null && !criteria.statuses().isEmpty()
+                && criteria.statuses().stream().noneMatch(TradeStatus::isArchivable)) {
+            return false;
+        }
+        return criteria.createdFrom() == null
+                || criteria.createdFrom().isBefore(LocalDateTime.now().minusDays(archiveAfterDays));
+    }
+
+    private static boolean isArchivable(String status) {
+        if (status == null) {
+            return false;
+        }
+        try {
+            return TradeStatus.valueOf(status).isArchivable();
+        } catch (IllegalArgumentException e) {
+            return false; // unknown status, left to the hot query as before
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeStatusTransitionResultDTO;
+import com.pgim.portfolio.domain.entity.audit.AuditDetails;
+import com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.event.TradeChangedEvent;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.service.outbox.TradeOutboxService;
+import com.pgim.portfolio.service.pm.TradeStatusTransitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.ADJUST;
+import static com.pgim.portfolio.domain.entity.audit.TradeAudit.AuditAction.CANCEL;
+
+/**
+ * Moves trades between lifecycle states with chunked, set-based UPDATEs.
+ *
+ * Each chunk runs in its own short transaction: the next id range matching the filter is locked with
+ * SELECT ... FOR UPDATE (keyset on id, so no OFFSET scans), updated in one statement that re-checks the
+ * from-status, and committed. The audit rows of the chunk are recorded in the same transaction and written to
+ * audit_db in one batch once it has committed (see PendingTradeAudits).
+ */
+@Service
+public class TradeStatusTransitionServiceImpl implements TradeStatusTransitionService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeStatusTransitionServiceImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PendingTradeAudits pendingTradeAudits;
+    private final int chunkSize;
+    private final CacheInvalidator cacheInvalidator;
+    private final TradeOutboxService tradeOutboxService;
+
+    public TradeStatusTransitionServiceImpl(
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            PendingTradeAudits pendingTradeAudits,
+            @Value("${trade.transition.chunk-size:1000}") int chunkSize,
+            CacheInvalidator cacheInvalidator,
+            TradeOutboxService tradeOutboxService
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.pendingTradeAudits = pendingTradeAudits;
+        this.chunkSize = chunkSize;
+        this.cacheInvalidator = cacheInvalidator;
+        this.tradeOutboxService = tradeOutboxService;
+    }
+
+    /**
+     * Transitions every trade matching the request filter, chunk by chunk.
+     */
+    @Override
+    public TradeStatusTransitionResultDTO transitionTrades(TradeStatusTransitionDTO request) {
+        checkTransition(request.fromStatus(), request.toStatus());
+
+        StringBuilder sql = new StringBuilder("SELECT id, trade_reference_id, portfolio_id, version FROM trades WHERE status = ?");
+        List<Object> filterParams = new ArrayList<>();
+        filterParams.add(request.fromStatus().name());
+        if (request.portfolioId() != null) {
+            sql.append(" AND portfolio_id = ?");
+            filterParams.add(request.portfolioId());
+        }
+        if (request.createdAfter() != null) {
+            sql.append(" AND created_at >= ?");
+            filterParams.add(Timestamp.valueOf(request.createdAfter()));
+        }
+        if (request.createdBefore() != null) {
+            sql.append(" AND created_at < ?");
+            filterParams.add(Timestamp.valueOf(request.createdBefore()));
+        }
+        sql.append(" AND id > ? ORDER BY id LIMIT ? FOR UPDATE");
+        String note = transitionNote(request.fromStatus(), request.toStatus());
+
+        long lastId = 0;
+        long updated = 0;
+        int chunks = 0;
+        while (true) {
+            List<Object> params = new ArrayList<>(filterParams);
+            params.add(lastId);
+            params.add(chunkSize);
+            Map<Long, LockedTrade> chunk = transactionTemplate.execute(status -> {
+                Map<Long, LockedTrade> locked = lockTrades(sql.toString(), params.toArray());
+                updateStatus(locked, request.fromStatus(), request.toStatus());
+                recordAudits(locked, request.toStatus(), note);
+                appendEvents(locked, request.toStatus());
+                invalidateCaches(locked);
+                return locked;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            chunks++;
+            updated += chunk.size();
+            lastId = Collections.max(chunk.keySet());
+            logger.debug("Transitioned chunk {} ({} trades) {} -> {}", chunks, chunk.size(),
+                    request.fromStatus(), request.toStatus());
+        }
+        logger.info("Transitioned {} trades {} -> {} in {} chunks", updated,
+                request.fromStatus(), request.toStatus(), chunks);
+        return new TradeStatusTransitionResultDTO(request.fromStatus(), request.toStatus(), chunks, updated);
+    }
+
+    /**
+     * Transitions the given trades that are still in fromStatus; trades that moved on meanwhile are skipped.
+     * Returns the number of trades updated.
+     */
+    @Override
+    public int transitionTradesByIds(Collection<Long> tradeIds, TradeStatus fromStatus, TradeStatus toStatus, String note) {
+        checkTransition(fromStatus, toStatus);
+        List<Long> ids = new ArrayList<>(tradeIds);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> slice = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<Object> params = new ArrayList<>(slice);
+            params.add(fromStatus.name());
+            String sql = "SELECT id, trade_reference_id, portfolio_id, version FROM trades WHERE id IN (" + placeholders(slice.size())
+                    + ") AND status = ? FOR UPDATE";
+            Map<Long, LockedTrade> chunk = transactionTemplate.execute(status -> {
+                Map<Long, LockedTrade> locked = lockTrades(sql, params.toArray());
+                updateStatus(locked, fromStatus, toStatus);
+                recordAudits(locked, toStatus, note);
+                appendEvents(locked, toStatus);
+                invalidateCaches(locked);
+                return locked;
+            });
+            if (chunk != null) {
+                updated += chunk.size();
+            }
+        }
+        return updated;
+    }
+
+    private Map<Long, LockedTrade> lockTrades(String sql, Object[] params) {
+        Map<Long, LockedTrade> locked = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            locked.put(rs.getLong("id"), new LockedTrade(rs.getString("trade_reference_id"), rs.getLong("portfolio_id"),
+                    rs.getLong("version")));
+        }, params);
+        return locked;
+    }
+
+    /**
+     * Set-based UPDATE for the locked chunk. The status guard keeps the transition legal in SQL as well.
+     */
+    private void updateStatus(Map<Long, LockedTrade> locked, TradeStatus fromStatus, TradeStatus toStatus) {
+        if (locked.isEmpty()) {
+            return;
+        }
+        List<Object> params = new ArrayList<>(locked.size() + 2);
+        params.add(toStatus.name());
+        params.addAll(locked.keySet());
+        params.add(fromStatus.name());
+        jdbcTemplate.update("UPDATE trades SET status = ?, version = version + 1 WHERE id IN ("
+                + placeholders(locked.size()) + ") AND status = ?", params.toArray());
+    }
+
+    /**
+     * Outbox events for the chunk, in its transaction. The UPDATE bumped every locked trade's version by one.
+     */
+    private void appendEvents(Map<Long, LockedTrade> locked, TradeStatus toStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        tradeOutboxService.append(locked.entrySet().stream()
+                .map(entry -> new TradeLifecycleEvent(TradeChangedEvent.ChangeType.UPDATED, entry.getKey(),
+                        entry.getValue().portfolioId(), toStatus, entry.getValue().version() + 1, null, now))
+                .toList());
+    }
+
+    /**
+     * Audit rows for the chunk, recorded in its transaction so a crash or an audit_db failure after the commit
+     * cannot lose them.
+     */
+    private void recordAudits(Map<Long, LockedTrade> chunk, TradeStatus toStatus, String note) {
+        AuditAction action = toStatus == TradeStatus.CANCELLED ? CANCEL : ADJUST;
+        Map<Long, AuditDetails> details = new LinkedHashMap<>(chunk.size());
+        chunk.forEach((tradeId, trade) -> details.put(tradeId, AuditDetails.builder()
+                .note(note)
+                .referenceId(trade.referenceId())
+                .portfolioId(trade.portfolioId())
+                .status(toStatus)
+                .build()));
+        pendingTradeAudits.record(action, details);
+    }
+
+    private void invalidateCaches(Map<Long, LockedTrade> locked) {
+        cacheInvalidator.tradesChanged(locked.keySet(), locked.values().stream().map(LockedTrade::portfolioId).toList());
+    }
+
+    private static void checkTransition(TradeStatus fromStatus, TradeStatus toStatus) {
+        if (fromStatus == null || toStatus == null || !fromStatus.canTransitionTo(toStatus)) {
+            throw new IllegalArgumentException("Illegal trade status transition: " + fromStatus + " -> " + toStatus);
+        }
+    }
+
+    private static String transitionNote(TradeStatus fromStatus, TradeStatus toStatus) {
+        return "Bulk status transition " + fromStatus + " -> " + toStatus + ".";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record LockedTrade(String referenceId, long portfolioId, long version) {}
+}
@@ -0,0 +1,336 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeStreamEventDTO;
+import com.pgim.portfolio.domain.event.TradeLifecycleEvent;
+import com.pgim.portfolio.service.pm.TradeStreamService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events fan-out of trade writes, per portfolio.
+ *
+ * Each committed {@link TradeLifecycleEvent} (trade creates, updates, status transitions such as cancel, deletes
+ * and imports, whatever the writer) gets the next sequence number (the SSE event id), goes into a ring
+ * of the last trade.stream.replay-size events, and is offered to the bounded queue of every subscriber of its
+ * portfolio. Publishing never blocks: a subscriber whose queue is full loses its queued events and gets a single
+ * "resync" event instead, telling the client to reload the portfolio's trades over REST and carry on from there.
+ *
+ * Connections are async requests, so no thread is held per subscriber. Queues are drained by a small shared
+ * sender pool, at most one drain per subscriber at a time, which keeps each stream in sequence order, and at most
+ * buffer-size events per turn, so a busy stream does not starve the others. Servlet writes block, so a client
+ * that stops reading would hold a sender thread: a watchdog disconnects any subscriber whose send has taken
+ * longer than trade.stream.send-timeout, interrupting the blocked write, and a subscriber that overflows again
+ * before its "resync" was even sent is disconnected as well. Either client reconnects with Last-Event-ID.
+ * A reconnecting client's Last-Event-ID is replayed from the ring; one older than the ring, or one this instance
+ * never issued, gets "resync". Sequence numbers are per instance, so behind a load balancer streams need sticky
+ * sessions to resume without a resync.
+ * Idle streams get a comment every trade.stream.heartbeat-millis, which also detects dead connections.
+ */
+@Service
+public class TradeStreamServiceImpl implements TradeStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeStreamServiceImpl.class);
+
+    private static final String RESYNC = "resync";
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final int maxPortfolios;
+    private final long sendTimeoutNanos;
+    private final ExecutorService senders;
+
+    // Guarded by replay: the sequence, the ring and the fan-out, so every queue receives events in order
+    private final Deque<TradeStreamEventDTO> replay = new ArrayDeque<>();
+    private long sequence;
+
+    private final Map<Long, Set<Subscriber>> subscribersByPortfolio = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public TradeStreamServiceImpl(
+            @Value("${trade.stream.timeout:30m}") Duration timeout,
+            @Value("${trade.stream.buffer-size:256}") int bufferSize,
+            @Value("${trade.stream.replay-size:10000}") int replaySize,
+            @Value("${trade.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${trade.stream.max-portfolios:100}") int maxPortfolios,
+            @Value("${trade.stream.senders:4}") int senders,
+            @Value("${trade.stream.send-timeout:5s}") Duration sendTimeout
+    ) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPortfolios = maxPortfolios;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senders = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "trade-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream of the given portfolios' trade events, replaying those after lastEventId if given.
+     */
+    @Override
+    public SseEmitter subscribe(Set<Long> portfolioIds, Long lastEventId) {
+        if (portfolioIds == null || portfolioIds.isEmpty() || portfolioIds.size() > maxPortfolios) {
+            throw new IllegalArgumentException("Subscribe to between 1 and " + maxPortfolios + " portfolios");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Trade stream subscriber limit of " + maxSubscribers + " reached");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(portfolioIds), bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        synchronized (replay) {
+            if (lastEventId != null) {
+                TradeStreamEventDTO oldest = replay.peekFirst();
+                long oldestAvailable = oldest != null ? oldest.sequence() : sequence + 1;
+                // An id from before a restart (or from another instance) is ahead of this sequence
+                if (lastEventId + 1 < oldestAvailable || lastEventId > sequence) {
+                    subscriber.queue.offer(new Item(RESYNC, sequence, null));
+                } else {
+                    List<TradeStreamEventDTO> missed = new ArrayList<>();
+                    for (TradeStreamEventDTO event : replay) {
+                        if (event.sequence() > lastEventId && subscriber.portfolioIds.contains(event.portfolioId())) {
+                            missed.add(event);
+                        }
+                    }
+                    if (missed.size() > bufferSize) {
+                        subscriber.queue.offer(new Item(RESYNC, sequence, null));
+                    } else {
+                        missed.forEach(event -> subscriber.queue.offer(eventItem(event)));
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+            subscriber.portfolioIds.forEach(id ->
+                    subscribersByPortfolio.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        }
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Fans out trade writes once their transaction has committed; a rolled back write is never streamed.
+     */
+    @TransactionalEventListener
+    public void onTradeLifecycle(TradeLifecycleEvent event) {
+        if (event.portfolioId() == null) {
+            return;
+        }
+        List<Subscriber> ready = new ArrayList<>();
+        List<Subscriber> behind = new ArrayList<>();
+        synchronized (replay) {
+            TradeStreamEventDTO streamEvent = new TradeStreamEventDTO(++sequence, event.type(), event.tradeId(),
+                    event.portfolioId(), event.status(), event.version(), event.occurredAt());
+            replay.addLast(streamEvent);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            Set<Subscriber> interested = subscribersByPortfolio.get(event.portfolioId());
+            if (interested == null) {
+                return;
+            }
+            Item item = eventItem(streamEvent);
+            for (Subscriber subscriber : interested) {
+                if (!subscriber.queue.offer(item)) {
+                    if (subscriber.resyncPending) {
+                        // Not even the last resync went out: the client cannot keep up at all
+                        behind.add(subscriber);
+                        continue;
+                    }
+                    // Slow consumer: drop its backlog and tell it to reload instead of blocking the publisher
+                    subscriber.queue.clear();
+                    subscriber.queue.offer(new Item(RESYNC, streamEvent.sequence(), null));
+                    subscriber.resyncPending = true;
+                    subscriber.resyncs++;
+                }
+                ready.add(subscriber);
+            }
+        }
+        behind.forEach(subscriber -> disconnect(subscriber, "falling behind"));
+        ready.forEach(this::scheduleDrain);
+    }
+
+    @Scheduled(fixedDelayString = "${trade.stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // A full queue is about to be sent anyway
+            if (subscriber.queue.offer(Item.HEARTBEAT)) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Disconnects subscribers whose current send has been blocked longer than trade.stream.send-timeout.
+     */
+    @Scheduled(fixedDelayString = "${trade.stream.watchdog-millis:1000}")
+    public void disconnectStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (subscriber.sender != null && now - subscriber.sendStartedAt > sendTimeoutNanos) {
+                    // Frees the sender thread; the drain sees the failed write and completes the emitter
+                    remove(subscriber);
+                    subscriber.sender.interrupt();
+                    logger.info("Trade stream subscriber for {} disconnected: send blocked for over {} ms",
+                            subscriber.portfolioIds, sendTimeoutNanos / 1_000_000);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false); // shutting down
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Item item;
+            int sent = 0;
+            while (!subscriber.closed && sent++ < bufferSize && (item = subscriber.queue.poll()) != null) {
+                send(subscriber, item);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or was disconnected by the watchdog
+            logger.debug("Trade stream send failed", e);
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            // A watchdog interrupt that landed after the write returned must not hit the next subscriber's send
+            Thread.interrupted();
+            subscriber.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before draining was cleared
+        scheduleDrain(subscriber);
+    }
+
+    private static void send(Subscriber subscriber, Item item) throws IOException {
+        SseEmitter.SseEventBuilder builder;
+        if (item == Item.HEARTBEAT) {
+            builder = SseEmitter.event().comment("heartbeat");
+        } else {
+            builder = SseEmitter.event().id(Long.toString(item.sequence())).name(item.name());
+            if (item.event() != null) {
+                builder.data(item.event(), MediaType.APPLICATION_JSON);
+            } else {
+                builder.data(Map.of("sequence", item.sequence()), MediaType.APPLICATION_JSON);
+            }
+        }
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            subscriber.sender = Thread.currentThread();
+            subscriber.sendStartedAt = System.nanoTime();
+        }
+        try {
+            subscriber.emitter.send(builder);
+            if (RESYNC.equals(item.name())) {
+                subscriber.resyncPending = false;
+            }
+        } finally {
+            synchronized (subscriber) {
+                subscriber.sender = null;
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, String reason) {
+        remove(subscriber);
+        logger.info("Trade stream subscriber for {} disconnected: {}", subscriber.portfolioIds, reason);
+        subscriber.emitter.completeWithError(new IOException("Trade stream subscriber " + reason));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.closed = true;
+        subscriberCount.decrementAndGet();
+        subscriber.portfolioIds.forEach(id -> subscribersByPortfolio.computeIfPresent(id, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        }));
+        if (subscriber.resyncs > 0) {
+            logger.info("Trade stream subscriber for {} closed after {} resyncs", subscriber.portfolioIds, subscriber.resyncs);
+        }
+    }
+
+    private static Item eventItem(TradeStreamEventDTO event) {
+        return new Item(event.type().name().toLowerCase(), event.sequence(), event);
+    }
+
+    /**
+     * One queued SSE message: a trade event, a resync notice (event null) or the heartbeat comment.
+     */
+    private record Item(String name, long sequence, TradeStreamEventDTO event) {
+        private static final Item HEARTBEAT = new Item("heartbeat", 0, null);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> portfolioIds;
+        private final Queue<Item> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // Guarded by replay
+        private int resyncs;
+        // Set under replay, cleared by the sender once the resync event is written
+        private volatile boolean resyncPending;
+        // Guarded by this: the thread blocked in a send to this subscriber, and since when
+        private Thread sender;
+        private long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, Set<Long> portfolioIds, int bufferSize) {
+            this.emitter = emitter;
+            this.portfolioIds = portfolioIds;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.dto.pm.TradeSubmissionDTO;
+import com.pgim.portfolio.service.pm.TradeService;
+import com.pgim.portfolio.service.pm.TradeSubmissionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.pgim.portfolio.api.constant.CommonConstants.MAINTENANCE_SCHEDULER;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_DATASOURCE;
+import static com.pgim.portfolio.api.constant.CommonConstants.PORTFOLIO_TRANSACTION_MANAGER;
+
+/**
+ * Accepted-then-processed trade submission.
+ *
+ * accept only runs the checks that need no trade lookup (the same field checks as a synchronous submit, plus a
+ * duplicate reference id among submissions still in flight), writes the submission to trade_submissions and
+ * queues the trade. Persistence, the duplicate check against stored trades and auditing then run through
+ * {@link TradeService#submitTrade} on one of trade.submit.async.lanes single-threaded lanes. A portfolio always
+ * maps to the same lane, so its trades are written in acceptance order. Each lane's queue is bounded; when it is
+ * full accept throws RejectedExecutionException (503) instead of letting latency build up. Transient database
+ * failures are retried in place, which holds back the lane and so keeps the order.
+ *
+ * The trade and its COMPLETED status commit in one transaction, which first locks the submission row and skips
+ * it unless it is still ACCEPTED. Submissions left ACCEPTED by a restart are queued again once the application is
+ * ready, without writing a trade twice. A unique key violation on the reference id (a concurrent submit won the
+ * race) is REJECTED as a duplicate like the check in submitTrade. Finished submissions are polled from the table
+ * for trade.submit.async.retention-days. Created trades also appear on the trade event stream.
+ */
+@Service
+public class TradeSubmissionServiceImpl implements TradeSubmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeSubmissionServiceImpl.class);
+
+    private static final String ACCEPTED = "ACCEPTED";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String REJECTED = "REJECTED";
+    private static final String FAILED = "FAILED";
+
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private final TradeService tradeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor[] lanes;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long drainTimeoutMillis;
+    private final int retentionDays;
+
+    private final ConcurrentMap<String, String> inFlightByReference = new ConcurrentHashMap<>();
+
+    public TradeSubmissionServiceImpl(
+            TradeService tradeService,
+            @Qualifier(PORTFOLIO_DATASOURCE) DataSource pmDataSource,
+            @Qualifier(PORTFOLIO_TRANSACTION_MANAGER) PlatformTransactionManager pmTransactionManager,
+            ObjectMapper objectMapper,
+            @Value("${trade.submit.async.lanes:8}") int lanes,
+            @Value("${trade.submit.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${trade.submit.async.max-attempts:5}") int maxAttempts,
+            @Value("${trade.submit.async.retry-backoff:200ms}") Duration retryBackoff,
+            @Value("${trade.submit.async.drain-timeout:30s}") Duration drainTimeout,
+            @Value("${trade.submit.async.retention-days:7}") int retentionDays
+    ) {
+        if (lanes <= 0 || queueCapacity <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Async trade submission needs positive lanes, queue capacity and attempts");
+        }
+        this.tradeService = tradeService;
+        this.jdbcTemplate = new JdbcTemplate(pmDataSource);
+        this.transactionTemplate = new TransactionTemplate(pmTransactionManager);
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.drainTimeoutMillis = drainTimeout.toMillis();
+        this.retentionDays = retentionDays;
+        this.lanes = new ThreadPoolExecutor[lanes];
+        for (int i = 0; i < lanes; i++) {
+            String name = "trade-submit-" + i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    /**
+     * Checks, records and queues the trade, returning the ACCEPTED submission to poll.
+     */
+    @Override
+    public TradeSubmissionDTO accept(TradeDTO tradeDTO) {
+        if (tradeDTO.portfolioId() == null || tradeDTO.tradeReferenceId() == null) {
+            throw new IllegalArgumentException("Trade portfolio and reference ID must be specified.");
+        }
+        TradeServiceImpl.validateTrade(tradeDTO);
+        String id = UUID.randomUUID().toString();
+        String inFlight = inFlightByReference.putIfAbsent(tradeDTO.tradeReferenceId(), id);
+        if (inFlight != null) {
+            throw new IllegalArgumentException("Duplicate trade submission with reference ID: "
+                    + tradeDTO.tradeReferenceId() + " is already in progress as " + inFlight);
+        }
+        LocalDateTime acceptedAt = LocalDateTime.now();
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO trade_submissions (id, trade_reference_id, portfolio_id, trade, status, accepted_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    id, tradeDTO.tradeReferenceId(), tradeDTO.portfolioId(), toJson(tradeDTO), ACCEPTED,
+                    Timestamp.valueOf(acceptedAt));
+        } catch (RuntimeException e) {
+            inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+            throw e;
+        }
+        try {
+            lane(tradeDTO).execute(() -> process(id, tradeDTO));
+        } catch (RejectedExecutionException e) {
+            jdbcTemplate.update("DELETE FROM trade_submissions WHERE id = ?", id);
+            inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+            throw new RejectedExecutionException("Trade submission queue is full, retry later", e);
+        }
+        return new TradeSubmissionDTO(id, tradeDTO.tradeReferenceId(), tradeDTO.portfolioId(), ACCEPTED,
+                null, null, 0, acceptedAt, null);
+    }
+
+    @Override
+    public TradeSubmissionDTO getSubmission(String submissionId) {
+        List<TradeSubmissionDTO> found = jdbcTemplate.query(
+                "SELECT id, trade_reference_id, portfolio_id, status, trade_id, message, attempts, accepted_at, completed_at "
+                        + "FROM trade_submissions WHERE id = ?",
+                (rs, rowNum) -> {
+                    Timestamp completedAt = rs.getTimestamp("completed_at");
+                    return new TradeSubmissionDTO(
+                            rs.getString("id"),
+                            rs.getString("trade_reference_id"),
+                            rs.getLong("portfolio_id"),
+                            rs.getString("status"),
+                            rs.getObject("trade_id", Long.class),
+                            rs.getString("message"),
+                            rs.getInt("attempts"),
+                            rs.getTimestamp("accepted_at").toLocalDateTime(),
+                            completedAt == null ? null : completedAt.toLocalDateTime());
+                },
+                submissionId);
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("Trade submission not found with id: " + submissionId);
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Queues the submissions a previous run accepted but did not finish, oldest first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeAccepted() {
+        int[] resumed = {0};
+        jdbcTemplate.query(
+                "SELECT id, trade FROM trade_submissions WHERE status = ? ORDER BY accepted_at",
+                rs -> {
+                    String id = rs.getString("id");
+                    TradeDTO tradeDTO = fromJson(rs.getString("trade"));
+                    inFlightByReference.putIfAbsent(tradeDTO.tradeReferenceId(), id);
+                    try {
+                        lane(tradeDTO).execute(() -> process(id, tradeDTO));
+                        resumed[0]++;
+                    } catch (RejectedExecutionException e) {
+                        inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+                        logger.warn("Trade submission queue full, submission {} stays ACCEPTED until the next start", id);
+                    }
+                },
+                ACCEPTED);
+        if (resumed[0] > 0) {
+            logger.info("Queued {} trade submissions accepted before the last shutdown", resumed[0]);
+        }
+    }
+
+    /**
+     * Deletes finished submissions past the retention period, returning how many were removed.
+     */
+    @Override
+    @Scheduled(cron = "${trade.submit.async.purge-cron:0 45 0 * * *}", scheduler = MAINTENANCE_SCHEDULER)
+    public int purgeFinished() {
+        int purged = jdbcTemplate.update("DELETE FROM trade_submissions WHERE completed_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)));
+        if (purged > 0) {
+            logger.info("Purged {} finished trade submissions older than {} days", purged, retentionDays);
+        }
+        return purged;
+    }
+
+    /**
+     * Stops taking submissions and gives the queued ones trade.submit.async.drain-timeout to be written. What is
+     * left stays ACCEPTED and is queued again at the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} queued trade submissions left for the next start", lane.shutdownNow().size());
+            }
+        }
+    }
+
+    private ThreadPoolExecutor lane(TradeDTO tradeDTO) {
+        return lanes[Math.floorMod(Long.hashCode(tradeDTO.portfolioId()), lanes.length)];
+    }
+
+    private void process(String id, TradeDTO tradeDTO) {
+        int attempt = 0;
+        try {
+            while (true) {
+                attempt++;
+                int attempts = attempt;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        List<String> current = jdbcTemplate.queryForList(
+                                "SELECT status FROM trade_submissions WHERE id = ? FOR UPDATE", String.class, id);
+                        if (current.isEmpty() || !ACCEPTED.equals(current.get(0))) {
+                            return; // finished by another instance that resumed it too
+                        }
+                        TradeDTO saved = tradeService.submitTrade(tradeDTO);
+                        jdbcTemplate.update(
+                                "UPDATE trade_submissions SET status = ?, trade_id = ?, attempts = ?, "
+                                        + "completed_at = CURRENT_TIMESTAMP(3) WHERE id = ?",
+                                COMPLETED, saved.id(), attempts, id);
+                    });
+                    inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+                    return;
+                } catch (IllegalArgumentException e) {
+                    finish(id, tradeDTO, REJECTED, e.getMessage(), attempt);
+                    return;
+                } catch (DuplicateKeyException e) {
+                    finish(id, tradeDTO, REJECTED,
+                            "Duplicate trade submission with reference ID: " + tradeDTO.tradeReferenceId(), attempt);
+                    return;
+                } catch (DataIntegrityViolationException e) {
+                    finish(id, tradeDTO, REJECTED,
+                            "Trade violates a data constraint: " + e.getMostSpecificCause().getMessage(), attempt);
+                    return;
+                } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+                    if (attempt >= maxAttempts) {
+                        throw e;
+                    }
+                    logger.warn("Trade submission {} attempt {} failed, retrying: {}", id, attempt, e.getMessage());
+                    Thread.sleep(retryBackoffMillis << Math.min(attempt - 1, 6));
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stays ACCEPTED and is queued again at the next start
+            Thread.currentThread().interrupt();
+            inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+        } catch (RuntimeException e) {
+            logger.error("Trade submission {} for reference ID {} failed", id, tradeDTO.tradeReferenceId(), e);
+            finish(id, tradeDTO, FAILED, e.getMessage(), attempt);
+        }
+    }
+
+    private void finish(String id, TradeDTO tradeDTO, String status, String message, int attempts) {
+        if (message != null && message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        try {
+            jdbcTemplate.update(
+                    "UPDATE trade_submissions SET status = ?, message = ?, attempts = ?, completed_at = CURRENT_TIMESTAMP(3) "
+                            + "WHERE id = ? AND status = ?",
+                    status, message, attempts, id, ACCEPTED);
+        } catch (RuntimeException e) {
+            logger.error("Could not record trade submission {} as {}, it stays ACCEPTED until the next start", id, status, e);
+        } finally {
+            inFlightByReference.remove(tradeDTO.tradeReferenceId(), id);
+        }
+    }
+
+    private String toJson(TradeDTO tradeDTO) {
+        try {
+            return objectMapper.writeValueAsString(tradeDTO);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TradeDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, TradeDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -5,15 +5,29 @@
 DROP TABLE IF EXISTS trade_audit;
 
 -- Trade Audit table (immutable audit logs)
+-- Range-partitioned by month on created_at: time-window queries prune to the matching partitions and
+-- retention drops whole partitions. Monthly partitions are split off p_future ahead of time by
+-- TradeAuditPartitionManager. MySQL requires the partitioning column in every unique key, hence the PK.
 CREATE TABLE trade_audit (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT NOT NULL AUTO_INCREMENT,
     trade_id BIGINT NOT NULL COMMENT 'References trades.id in primary database',
     action ENUM('CREATE', 'ADJUST', 'CANCEL') NOT NULL,
     details JSON NOT NULL COMMENT 'Audit details in JSON format',
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_trade_id (trade_id),
+    reference_id VARCHAR(255) GENERATED ALWAYS AS (JSON_UNQUOTE(JSON_EXTRACT(details, '$.referenceId'))) VIRTUAL
+        COMMENT 'Business reference id extracted from details, indexed for lookups',
+    portfolio_id BIGINT GENERATED ALWAYS AS (JSON_VALUE(details, '$.portfolioId' RETURNING SIGNED)) VIRTUAL
+        COMMENT 'Portfolio of the trade, extracted from details, indexed for as-of replay',
+    PRIMARY KEY (id, created_at),
+    INDEX idx_trade_id_created_at (trade_id, created_at),
+    INDEX idx_trade_id_action (trade_id, action) COMMENT 'Covers the per-trade counts of the trade audit reconciliation',
+    INDEX idx_reference_id (reference_id, id),
+    INDEX idx_portfolio_id_created_at (portfolio_id, created_at),
     INDEX idx_action (action),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-COMMENT='Immutable audit log for trade operations';
\ No newline at end of file
+COMMENT='Immutable audit log for trade operations'
+PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
\ No newline at end of file
@@ -2,6 +2,15 @@
 -- 3NF Compliant Schema for Portfolios, Trades, and Authorization Roles
 
 -- Drop existing tables (for clean recreation)
+DROP TABLE IF EXISTS trade_submissions;
+DROP TABLE IF EXISTS trade_outbox;
+DROP TABLE IF EXISTS trade_pending_audits;
+DROP TABLE IF EXISTS trade_import_rejects;
+DROP TABLE IF EXISTS trade_import_pending_audits;
+DROP TABLE IF EXISTS trade_import_chunks;
+DROP TABLE IF EXISTS trade_import_jobs;
+DROP TABLE IF EXISTS trades_archive;
+DROP TABLE IF EXISTS portfolio_snapshots;
 DROP TABLE IF EXISTS trades;
 DROP TABLE IF EXISTS portfolios;
 DROP TABLE IF EXISTS auth_roles;
@@ -20,8 +29,12 @@ CREATE TABLE portfolios (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(255) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_name (name)
+    -- Microseconds from the database clock, the only clock change data capture compares against
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic concurrency token',
+    trades_version BIGINT NOT NULL DEFAULT 0 COMMENT 'Bumped after every committed write to the trades of the portfolio, part of its ETag',
+    INDEX idx_name (name),
+    INDEX idx_updated_at (updated_at) -- change data capture high-water mark on (updated_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Trades table
@@ -32,12 +45,138 @@ CREATE TABLE trades (
     trade_type ENUM('BUY', 'SELL') NOT NULL,
     quantity DECIMAL(18, 4) NOT NULL,
     price DECIMAL(18, 4) NOT NULL,
-    status ENUM('PENDING', 'VALIDATED', 'FAILED', 'COMPLETED', 'CANCELLED') NOT NULL DEFAULT 'PENDING',
+    status ENUM('PENDING', 'VALIDATED', 'FAILED', 'COMPLETED', 'CANCELLED', 'CLOSED', 'OPEN') NOT NULL DEFAULT 'PENDING',
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Microseconds from the database clock, the only clock change data capture compares against
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic concurrency token',
     FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE,
     INDEX idx_portfolio_id (portfolio_id),
     INDEX idx_trade_reference_id (trade_reference_id),
     INDEX idx_status (status),
+    INDEX idx_created_at (created_at),
+    INDEX idx_updated_at (updated_at), -- change data capture high-water mark on (updated_at, id)
+    -- Composite indexes for the trade search endpoint (equality columns first, range column last)
+    INDEX idx_portfolio_status_created_at (portfolio_id, status, created_at),
+    INDEX idx_status_created_at (status, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Cold storage for old terminal trades (COMPLETED, CANCELLED, CLOSED), moved here by the archival job.
+-- Same columns and ENUM order as trades so rows copy across and sort the same way.
+CREATE TABLE trades_archive (
+    id BIGINT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    trade_reference_id VARCHAR(255) NOT NULL UNIQUE,
+    trade_type ENUM('BUY', 'SELL') NOT NULL,
+    quantity DECIMAL(18, 4) NOT NULL,
+    price DECIMAL(18, 4) NOT NULL,
+    status ENUM('PENDING', 'VALIDATED', 'FAILED', 'COMPLETED', 'CANCELLED', 'CLOSED', 'OPEN') NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE,
+    INDEX idx_portfolio_status_created_at (portfolio_id, status, created_at),
+    INDEX idx_status_created_at (status, created_at),
     INDEX idx_created_at (created_at)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Periodic checkpoints of each portfolio (name and trades, hot and archived) for as-of queries.
+-- state is deflated JSON. As-of reads start from the latest snapshot at or before T and replay trade_audit.
+CREATE TABLE portfolio_snapshots (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    portfolio_id BIGINT NOT NULL,
+    as_of TIMESTAMP NOT NULL,
+    trade_count INT NOT NULL,
+    state LONGBLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE,
+    INDEX idx_portfolio_as_of (portfolio_id, as_of),
+    INDEX idx_as_of (as_of)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Bulk CSV import jobs (progress and restart bookkeeping)
+CREATE TABLE trade_import_jobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    source_name VARCHAR(255),
+    status ENUM('RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    chunk_size INT NOT NULL,
+    rows_read BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- One row per committed chunk, written in the same transaction as the chunk's trades
+CREATE TABLE trade_import_chunks (
+    job_id BIGINT NOT NULL,
+    chunk_no BIGINT NOT NULL,
+    rows_imported INT NOT NULL,
+    rows_rejected INT NOT NULL,
+    committed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (job_id, chunk_no),
+    FOREIGN KEY (job_id) REFERENCES trade_import_jobs(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Trades of a committed chunk whose CREATE audit rows are not in audit_db yet. Written in the chunk transaction
+-- and cleared once the audit batch is written, so a resumed job writes what a failed or crashed run still owed
+CREATE TABLE trade_import_pending_audits (
+    job_id BIGINT NOT NULL,
+    chunk_no BIGINT NOT NULL,
+    trade_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, chunk_no, trade_id),
+    FOREIGN KEY (job_id) REFERENCES trade_import_jobs(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Rows rejected by validation or duplicate checks
+CREATE TABLE trade_import_rejects (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    job_id BIGINT NOT NULL,
+    line_no BIGINT NOT NULL,
+    reason VARCHAR(512) NOT NULL,
+    raw_line TEXT,
+    FOREIGN KEY (job_id) REFERENCES trade_import_jobs(id) ON DELETE CASCADE,
+    INDEX idx_job_line (job_id, line_no)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Transactional outbox: trade lifecycle events written in the same transaction as the trade change,
+-- relayed to the message broker in id order and deleted once the broker confirmed them.
+-- No foreign keys, so events outlive the trade or portfolio they describe.
+CREATE TABLE trade_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    portfolio_id BIGINT NOT NULL,
+    trade_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    payload JSON NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Audit rows owed to audit_db for committed trade writes (portfolio deletes, status transitions, ingest batches).
+-- Written in the writer transaction and deleted once the batch is in audit_db, details is the AuditDetails JSON
+CREATE TABLE trade_pending_audits (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    batch_id CHAR(36) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    trade_id BIGINT NOT NULL,
+    details JSON NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_batch_id (batch_id),
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Asynchronous trade submissions, written before the 202 is returned. The trade is kept as JSON so submissions
+-- still ACCEPTED after a restart are queued again. COMPLETED is written in the same transaction as the trade.
+-- No foreign keys, a submission may name a portfolio that does not exist and is then REJECTED.
+CREATE TABLE trade_submissions (
+    id CHAR(36) PRIMARY KEY,
+    trade_reference_id VARCHAR(255) NOT NULL,
+    portfolio_id BIGINT NOT NULL,
+    trade JSON NOT NULL,
+    status ENUM('ACCEPTED', 'COMPLETED', 'REJECTED', 'FAILED') NOT NULL,
+    trade_id BIGINT,
+    message VARCHAR(1024),
+    attempts INT NOT NULL DEFAULT 0,
+    accepted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    completed_at TIMESTAMP(3) NULL,
+    INDEX idx_status_accepted (status, accepted_at),
+    INDEX idx_completed_at (completed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,179 @@
+package com.pgim.portfolio.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenerationalPageCacheTest {
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private GenerationalPageCache cache() {
+        return new GenerationalPageCache("test", true, 100, Duration.ofMinutes(5));
+    }
+
+    private Page<String> get(GenerationalPageCache cache, Long portfolioId) {
+        return get(cache, portfolioId, FIRST_PAGE);
+    }
+
+    private Page<String> get(GenerationalPageCache cache, Long portfolioId, Pageable pageable) {
+        return cache.get("trades", portfolioId, null, pageable, this::load);
+    }
+
+    private Page<String> load() {
+        return new PageImpl<>(List.of("load-" + loads.incrementAndGet()));
+    }
+
+    @Test
+    void servesRepeatedRequestsFromTheCache() {
+        GenerationalPageCache cache = cache();
+
+        Page<String> first = get(cache, 1L);
+        Page<String> second = get(cache, 1L);
+
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().hits());
+        assertEquals(1L, cache.stats().misses());
+    }
+
+    @Test
+    void keysIncludeFilterPageAndSort() {
+        GenerationalPageCache cache = cache();
+
+        get(cache, 1L, PageRequest.of(0, 20));
+        get(cache, 1L, PageRequest.of(1, 20));
+        get(cache, 1L, PageRequest.of(0, 50));
+        get(cache, 1L, PageRequest.of(0, 20, Sort.by("createdAt")));
+        cache.get("trades", 1L, "OPEN", FIRST_PAGE, this::load);
+        cache.get("portfolios", 1L, null, FIRST_PAGE, this::load);
+
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void portfolioWriteInvalidatesItsListingsAndTheGlobalOnesOnly() {
+        GenerationalPageCache cache = cache();
+        get(cache, 1L);
+        get(cache, 2L);
+        get(cache, null);
+
+        cache.invalidatePortfolios(List.of(1L));
+        get(cache, 1L);
+        get(cache, 2L);
+        get(cache, null);
+
+        assertEquals(5, loads.get());
+        assertEquals(2L, cache.stats().staleMisses());
+    }
+
+    @Test
+    void invalidateAllDropsEveryListing() {
+        GenerationalPageCache cache = cache();
+        get(cache, 1L);
+        get(cache, null);
+
+        cache.invalidateAll();
+        get(cache, 1L);
+        get(cache, null);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void pageLoadedAcrossAWriteIsStoredAlreadyStale() {
+        GenerationalPageCache cache = cache();
+
+        // The stamp is taken before the loader runs, so a write landing mid-load is not masked
+        cache.get("trades", 1L, null, FIRST_PAGE, () -> {
+            cache.invalidatePortfolios(List.of(1L));
+            return load();
+        });
+        cache.get("trades", null, null, FIRST_PAGE, () -> {
+            cache.invalidatePortfolios(List.of(2L));
+            return load();
+        });
+        Page<String> portfolioPage = get(cache, 1L);
+        Page<String> globalPage = get(cache, null);
+
+        assertEquals(List.of("load-3"), portfolioPage.getContent());
+        assertEquals(List.of("load-4"), globalPage.getContent());
+        assertEquals(2L, cache.stats().staleMisses());
+    }
+
+    @Test
+    void invalidationInsideATransactionIsRepeatedWhenItCompletes() {
+        GenerationalPageCache cache = cache();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidatePortfolios(List.of(1L));
+            // A reader that does not see the uncommitted write yet caches the old rows
+            get(cache, 1L);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        get(cache, 1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiresPagesAfterTheTtl() throws InterruptedException {
+        GenerationalPageCache cache = new GenerationalPageCache("test", true, 100, Duration.ofMillis(1));
+        get(cache, 1L);
+
+        Thread.sleep(5);
+        get(cache, 1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPage() {
+        GenerationalPageCache cache = new GenerationalPageCache("test", true, 2, Duration.ofMinutes(5));
+        get(cache, 1L);
+        get(cache, 2L);
+        get(cache, 1L);
+        get(cache, 3L);
+
+        get(cache, 1L);
+        get(cache, 2L);
+
+        assertEquals(4, loads.get());
+        assertEquals(2L, cache.stats().evictions());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        GenerationalPageCache cache = new GenerationalPageCache("test", false, 0, Duration.ZERO);
+        get(cache, 1L);
+        get(cache, 1L);
+        cache.invalidatePortfolios(List.of(1L));
+
+        assertEquals(2, loads.get());
+        assertEquals(0L, cache.stats().generation());
+    }
+
+    @Test
+    void rejectsAnEnabledCacheWithoutSizeOrTtl() {
+        assertThrows(IllegalArgumentException.class, () -> new GenerationalPageCache("test", true, 0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new GenerationalPageCache("test", true, 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,105 @@
+package com.pgim.portfolio.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    // 1 ms ticks, 4 slots per level, 3 levels: level 0 covers 4 ticks, level 1 16, level 2 64
+    private static HierarchicalTimingWheel<String> smallWheel() {
+        return new HierarchicalTimingWheel<>(1, 2, 3, 0);
+    }
+
+    @Test
+    void expiresEachDeadlineOnItsOwnTickAcrossCascadeBoundaries() {
+        HierarchicalTimingWheel<String> wheel = smallWheel();
+        long[] deadlines = {1, 3, 4, 5, 15, 16, 17, 47, 48, 63, 64, 65, 100, 200};
+        for (long deadline : deadlines) {
+            wheel.schedule("t" + deadline, deadline);
+        }
+
+        Map<String, Long> expiredAt = new HashMap<>();
+        for (long now = 1; now <= 250; now++) {
+            for (String key : wheel.advanceTo(now)) {
+                assertFalse(expiredAt.containsKey(key), key + " expired twice");
+                expiredAt.put(key, now);
+            }
+        }
+
+        for (long deadline : deadlines) {
+            assertEquals(Long.valueOf(deadline), expiredAt.get("t" + deadline), "t" + deadline);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void oneLargeAdvanceReturnsEverythingDue() {
+        HierarchicalTimingWheel<String> wheel = smallWheel();
+        wheel.schedule("near", 2);
+        wheel.schedule("cascaded", 20);
+        wheel.schedule("parked", 150);
+        wheel.schedule("later", 300);
+
+        List<String> expired = wheel.advanceTo(200);
+
+        assertEquals(3, expired.size());
+        assertTrue(expired.containsAll(List.of("near", "cascaded", "parked")));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("later"), wheel.advanceTo(300));
+    }
+
+    @Test
+    void overdueDeadlineIsReturnedByTheNextAdvanceWithoutATick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 2, 3, 10);
+        wheel.schedule("past", 5);
+        wheel.schedule("now", 10);
+
+        List<String> expired = wheel.advanceTo(10);
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("past", "now")));
+        assertEquals(List.of(), wheel.advanceTo(10));
+    }
+
+    @Test
+    void deadlinesRoundUpToTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 2, 3, 1000);
+        wheel.schedule("key", 1005);
+
+        assertEquals(List.of(), wheel.advanceTo(1009));
+        assertEquals(List.of("key"), wheel.advanceTo(1010));
+    }
+
+    @Test
+    void rescheduleMovesAndCancelRemovesTheDeadline() {
+        HierarchicalTimingWheel<String> wheel = smallWheel();
+        wheel.schedule("moved", 5);
+        wheel.schedule("moved", 20);
+        wheel.schedule("cancelled", 8);
+        wheel.schedule("overdue-cancelled", 0);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertTrue(wheel.cancel("overdue-cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(), wheel.advanceTo(19));
+        assertEquals(List.of("moved"), wheel.advanceTo(20));
+    }
+
+    @Test
+    void rejectsInvalidGeometry() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(0, 2, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(1, 0, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(1, 2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(1, 16, 4, 0));
+    }
+}
@@ -0,0 +1,229 @@
+package com.pgim.portfolio.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadThroughCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ReadThroughCache<Long, String> cache() {
+        return new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    private Optional<String> load(Long key) {
+        return Optional.of(key + "-" + loads.incrementAndGet());
+    }
+
+    @Test
+    void loadsOnceAndServesFromTheCache() {
+        ReadThroughCache<Long, String> cache = cache();
+
+        assertEquals(Optional.of("1-1"), cache.get(1L, this::load));
+        assertEquals(Optional.of("1-1"), cache.get(1L, this::load));
+        assertEquals(Optional.of("2-2"), cache.get(2L, this::load));
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().hits());
+    }
+
+    @Test
+    void cachesMissesForTheNegativeTtl() {
+        ReadThroughCache<Long, String> cache = cache();
+        Function<Long, Optional<String>> missing = key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertEquals(Optional.empty(), cache.get(1L, missing));
+        assertEquals(Optional.empty(), cache.get(1L, missing));
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().negativeHits());
+    }
+
+    @Test
+    void doesNotCacheMissesWithoutANegativeTtl() {
+        ReadThroughCache<Long, String> cache =
+                new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(5), Duration.ZERO);
+        Function<Long, Optional<String>> missing = key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        cache.get(1L, missing);
+        cache.get(1L, missing);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ReadThroughCache<Long, String> cache = cache();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, Optional<String>> slow = key -> {
+            started.countDown();
+            await(release);
+            return load(key);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<String>> first = executor.submit(() -> cache.get(1L, slow));
+            await(started);
+            Future<Optional<String>> second = executor.submit(() -> cache.get(1L, slow));
+            waitFor(() -> cache.stats().sharedLoads() == 1);
+            release.countDown();
+
+            assertEquals(Optional.of("1-1"), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("1-1"), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loadFailureReachesEveryWaiterAndIsNotCached() throws Exception {
+        ReadThroughCache<Long, String> cache = cache();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        Function<Long, Optional<String>> failing = key -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<String>> first = executor.submit(() -> cache.get(1L, failing));
+            await(started);
+            Future<Optional<String>> second = executor.submit(() -> cache.get(1L, failing));
+            waitFor(() -> cache.stats().sharedLoads() == 1);
+            release.countDown();
+
+            assertSame(failure, assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Optional.of("1-1"), cache.get(1L, this::load));
+        assertEquals(1L, cache.stats().loadFailures());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsReturnedButNotStored() {
+        ReadThroughCache<Long, String> cache = cache();
+
+        Optional<String> stale = cache.get(1L, key -> {
+            Optional<String> value = load(key);
+            cache.invalidate(key); // a writer commits while the old row is in hand
+            return value;
+        });
+
+        assertEquals(Optional.of("1-1"), stale);
+        assertEquals(Optional.of("1-2"), cache.get(1L, this::load));
+    }
+
+    @Test
+    void invalidateDropsTheEntry() {
+        ReadThroughCache<Long, String> cache = cache();
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        cache.invalidateAll(List.of(1L));
+
+        assertEquals(Optional.of("1-3"), cache.get(1L, this::load));
+        assertEquals(Optional.of("2-2"), cache.get(2L, this::load));
+    }
+
+    @Test
+    void invalidationInsideATransactionIsRepeatedWhenItCompletes() {
+        ReadThroughCache<Long, String> cache = cache();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L);
+            // A reader that does not see the uncommitted write yet caches the old row
+            cache.get(1L, this::load);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.of("1-2"), cache.get(1L, this::load));
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() throws InterruptedException {
+        ReadThroughCache<Long, String> cache =
+                new ReadThroughCache<>("test", true, 100, Duration.ofMillis(1), Duration.ZERO);
+        cache.get(1L, this::load);
+
+        Thread.sleep(5);
+
+        assertEquals(Optional.of("1-2"), cache.get(1L, this::load));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        ReadThroughCache<Long, String> cache =
+                new ReadThroughCache<>("test", true, 2, Duration.ofMinutes(5), Duration.ZERO);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        assertEquals(Optional.of("1-1"), cache.get(1L, this::load));
+        assertEquals(Optional.of("2-4"), cache.get(2L, this::load));
+        assertEquals(2L, cache.stats().evictions());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        ReadThroughCache<Long, String> cache =
+                new ReadThroughCache<>("test", false, 0, Duration.ZERO, Duration.ZERO);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(1);
+        }
+    }
+}
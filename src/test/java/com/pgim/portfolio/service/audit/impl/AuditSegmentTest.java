@@ -0,0 +1,171 @@
+package com.pgim.portfolio.service.audit.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRowsInCreatedAtOrder() {
+        Path file = directory.resolve("p202401.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(file, 3)) {
+            writer.append(1, 7, "CREATE", "{\"quantity\":10}", 1_000);
+            writer.append(2, 7, "ADJUST", null, 2_000);
+            writer.append(5, 7, "ADJUST", "{\"note\":\"\u00e9\"}", 2_000);
+            writer.append(3, 8, "CREATE", "{}", 1_500);
+            writer.append(4, 9, "CANCEL", "{}", 3_000);
+        }
+        assertFalse(Files.exists(directory.resolve("p202401.seg.tmp")));
+
+        AuditSegment segment = AuditSegment.open(file);
+
+        assertEquals(5L, segment.rowCount());
+        assertEquals(3_000L, segment.maxCreatedMillis());
+        assertEquals(List.of(
+                new AuditSegment.Row(1, 7, "CREATE", "{\"quantity\":10}", 1_000),
+                new AuditSegment.Row(2, 7, "ADJUST", "", 2_000),
+                new AuditSegment.Row(5, 7, "ADJUST", "{\"note\":\"\u00e9\"}", 2_000)
+        ), find(segment, 7, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(new AuditSegment.Row(4, 9, "CANCEL", "{}", 3_000)),
+                find(segment, 9, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(), find(segment, 6, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(), find(segment, 10, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void windowIsInclusiveFromAndExclusiveTo() {
+        Path file = directory.resolve("window.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(file, 2)) {
+            for (int i = 1; i <= 5; i++) {
+                writer.append(i, 42, "ADJUST", "{}", i * 100L);
+            }
+        }
+        AuditSegment segment = AuditSegment.open(file);
+
+        assertEquals(List.of(200L, 300L), createdAt(find(segment, 42, 200, 400)));
+        assertEquals(List.of(), createdAt(find(segment, 42, 600, Long.MAX_VALUE)));
+        assertEquals(List.of(), createdAt(find(segment, 42, Long.MIN_VALUE, 100)));
+    }
+
+    @Test
+    void lookupInflatesOnlyTheBlocksOfTheTrade() throws IOException {
+        // Two rows per block: block i holds trade i + 1
+        Path file = directory.resolve("trades.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(file, 2)) {
+            long id = 1;
+            for (long tradeId = 1; tradeId <= 5; tradeId++) {
+                writer.append(id++, tradeId, "CREATE", "{}", 1_000);
+                writer.append(id++, tradeId, "ADJUST", "{}", 2_000);
+            }
+        }
+        corruptBlocksExcept(file, 2);
+        AuditSegment segment = AuditSegment.open(file);
+
+        assertEquals(List.of(5L, 6L), ids(find(segment, 3, Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertThrows(IllegalStateException.class, () -> find(segment, 2, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void lookupSkipsBlocksOutsideTheTimeWindow() throws IOException {
+        // One trade over three blocks: [100, 200], [300, 400], [500, 600]
+        Path file = directory.resolve("history.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(file, 2)) {
+            for (int i = 1; i <= 6; i++) {
+                writer.append(i, 42, "ADJUST", "{}", i * 100L);
+            }
+        }
+        corruptBlocksExcept(file, 1);
+        AuditSegment segment = AuditSegment.open(file);
+
+        assertEquals(List.of(300L, 400L), createdAt(find(segment, 42, 250, 500)));
+        assertThrows(IllegalStateException.class, () -> find(segment, 42, 250, 501));
+    }
+
+    @Test
+    void rejectsRowsOutOfOrder() {
+        AuditSegmentWriter writer = new AuditSegmentWriter(directory.resolve("order.seg"), 4);
+        writer.append(2, 7, "CREATE", "{}", 1_000);
+
+        assertThrows(IllegalStateException.class, () -> writer.append(3, 6, "CREATE", "{}", 1_000));
+        assertThrows(IllegalStateException.class, () -> writer.append(3, 7, "CREATE", "{}", 999));
+        assertThrows(IllegalStateException.class, () -> writer.append(2, 7, "CREATE", "{}", 1_000));
+        writer.abort();
+    }
+
+    @Test
+    void abortLeavesNoFile() throws IOException {
+        Path file = directory.resolve("aborted.seg");
+        AuditSegmentWriter writer = new AuditSegmentWriter(file, 4);
+        writer.append(1, 7, "CREATE", "{}", 1_000);
+        writer.abort();
+
+        try (var files = Files.list(directory)) {
+            assertTrue(files.findAny().isEmpty());
+        }
+    }
+
+    @Test
+    void emptySegmentFindsNothing() {
+        Path file = directory.resolve("empty.seg");
+        new AuditSegmentWriter(file, 4).close();
+
+        AuditSegment segment = AuditSegment.open(file);
+
+        assertEquals(0L, segment.rowCount());
+        assertEquals(List.of(), find(segment, 1, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static List<AuditSegment.Row> find(AuditSegment segment, long tradeId, long from, long to) {
+        List<AuditSegment.Row> rows = new ArrayList<>();
+        segment.find(tradeId, from, to, rows::add);
+        return rows;
+    }
+
+    private static List<Long> ids(List<AuditSegment.Row> rows) {
+        return rows.stream().map(AuditSegment.Row::id).toList();
+    }
+
+    private static List<Long> createdAt(List<AuditSegment.Row> rows) {
+        return rows.stream().map(AuditSegment.Row::createdAtMillis).toList();
+    }
+
+    /**
+     * Overwrites the compressed bytes of every block but one, so reading any other block fails.
+     */
+    private static void corruptBlocksExcept(Path file, int keep) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer trailer = ByteBuffer.allocate(AuditSegment.TRAILER_BYTES);
+            channel.read(trailer, channel.size() - AuditSegment.TRAILER_BYTES);
+            long indexOffset = trailer.getLong(0);
+            int blocks = trailer.getInt(8);
+            for (int block = 0; block < blocks; block++) {
+                if (block == keep) {
+                    continue;
+                }
+                ByteBuffer entry = ByteBuffer.allocate(AuditSegment.INDEX_ENTRY_BYTES);
+                channel.read(entry, indexOffset + (long) block * AuditSegment.INDEX_ENTRY_BYTES);
+                byte[] garbage = new byte[entry.getInt(8)];
+                Arrays.fill(garbage, (byte) 0xFF);
+                channel.write(ByteBuffer.wrap(garbage), entry.getLong(0));
+            }
+        }
+    }
+}
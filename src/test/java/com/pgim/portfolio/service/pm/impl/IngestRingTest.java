@@ -0,0 +1,141 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestRingTest {
+
+    @Test
+    void takesItemsInPublishOrder() {
+        IngestRing<String> ring = new IngestRing<>(4);
+        assertNull(ring.take());
+        assertTrue(ring.isDrained());
+
+        ring.publish("a");
+        ring.publish("b");
+
+        assertTrue(ring.hasPublished());
+        assertFalse(ring.isDrained());
+        assertEquals("a", ring.take());
+        assertEquals("b", ring.take());
+        assertNull(ring.take());
+        assertFalse(ring.hasPublished());
+        assertTrue(ring.isDrained());
+    }
+
+    @Test
+    void rejectsAPublishThatWouldLapTheConsumer() {
+        IngestRing<Integer> ring = new IngestRing<>(4);
+        for (int i = 0; i < 4; i++) {
+            ring.publish(i);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> ring.publish(4));
+
+        assertEquals(Integer.valueOf(0), ring.take());
+        ring.publish(4);
+        assertThrows(RejectedExecutionException.class, () -> ring.publish(5));
+    }
+
+    @Test
+    void wrapsAroundManyTimesWithoutLosingOrReorderingItems() {
+        IngestRing<Integer> ring = new IngestRing<>(4);
+        List<Integer> taken = new ArrayList<>();
+        int next = 0;
+        // Publish three, take two: the ring fills up and wraps repeatedly
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    ring.publish(next);
+                    next++;
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+            taken.add(ring.take());
+            taken.add(ring.take());
+        }
+        Integer item;
+        while ((item = ring.take()) != null) {
+            taken.add(item);
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < next; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, taken);
+        assertTrue(next > 4 * 10, "ring should have wrapped many times");
+    }
+
+    @Test
+    void concurrentProducersHandEveryItemOverOnce() throws Exception {
+        IngestRing<Long> ring = new IngestRing<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                futures.add(executor.submit(() -> {
+                    for (long i = 0; i < perProducer; i++) {
+                        while (true) {
+                            try {
+                                ring.publish(base + i);
+                                break;
+                            } catch (RejectedExecutionException e) {
+                                Thread.onSpinWait();
+                            }
+                        }
+                    }
+                }));
+            }
+
+            Set<Long> seen = new HashSet<>();
+            long[] lastPerProducer = {-1, -1, -1, -1};
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (seen.size() < producers * perProducer) {
+                assertTrue(System.nanoTime() < deadline, "consumer did not receive every item in time");
+                Long item = ring.take();
+                if (item == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                assertTrue(seen.add(item), "item taken twice: " + item);
+                int producer = (int) (item / perProducer);
+                assertTrue(item > lastPerProducer[producer], "items of one producer out of order");
+                lastPerProducer[producer] = item;
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertNull(ring.take());
+            assertTrue(ring.isDrained());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsSizesThatAreNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new IngestRing<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new IngestRing<>(6));
+        assertEquals(1, new IngestRing<>(1).capacity());
+    }
+}
@@ -0,0 +1,192 @@
+package com.pgim.portfolio.service.pm.impl;
+
+import com.pgim.portfolio.domain.dto.pm.TradeDTO;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeStatus;
+import com.pgim.portfolio.domain.entity.pm.Trade.TradeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TieredTradePagesTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final Map<String, Comparator<TradeDTO>> ORDERINGS = Map.of(
+            "id", Comparator.comparing(TradeDTO::id),
+            "createdAt", Comparator.comparing(TradeDTO::createdAt),
+            "status", Comparator.comparing(TradeDTO::status)
+    );
+
+    @Test
+    void numberedPagesInterleaveBothTiersInIdOrder() {
+        List<TradeDTO> hot = List.of(trade(1), trade(3), trade(5), trade(7), trade(9));
+        List<TradeDTO> cold = List.of(trade(2), trade(4), trade(6), trade(8), trade(10));
+
+        List<List<Long>> pages = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            Page<TradeDTO> merged = TieredTradePages.merge(PageRequest.of(page, 3), source(hot), source(cold));
+            assertEquals(10L, merged.getTotalElements());
+            pages.add(ids(merged.getContent()));
+        }
+
+        assertEquals(List.of(List.of(10L, 9L, 8L), List.of(7L, 6L, 5L), List.of(4L, 3L, 2L), List.of(1L)), pages);
+    }
+
+    @Test
+    void numberedPageAsksEachTierForItsPrefix() {
+        List<Pageable> requested = new ArrayList<>();
+        Function<Pageable, Page<TradeDTO>> recording = pageable -> {
+            requested.add(pageable);
+            return Page.empty(pageable);
+        };
+
+        TieredTradePages.merge(PageRequest.of(2, 5, Sort.by("createdAt")), recording, recording);
+
+        Sort expected = Sort.by("createdAt").and(Sort.by(Sort.Direction.ASC, "id"));
+        assertEquals(List.of(PageRequest.of(0, 15, expected), PageRequest.of(0, 15, expected)), requested);
+    }
+
+    @Test
+    void equalSortKeysAreOrderedByIdAcrossPageBoundaries() {
+        // Four trades per timestamp, split between the tiers
+        List<TradeDTO> hot = new ArrayList<>();
+        List<TradeDTO> cold = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            TradeDTO trade = trade(id, T0.plusMinutes((id * 7) % 5), TradeStatus.COMPLETED);
+            (id % 3 == 0 ? cold : hot).add(trade);
+        }
+        Sort sort = Sort.by("createdAt");
+        List<TradeDTO> expected = sorted(Stream.concat(hot.stream(), cold.stream()).toList(),
+                Sort.by("createdAt", "id"));
+
+        List<TradeDTO> walked = new ArrayList<>();
+        for (int page = 0; page < 7; page++) {
+            walked.addAll(TieredTradePages.merge(PageRequest.of(page, 3, sort), source(hot), source(cold)).getContent());
+        }
+
+        assertEquals(ids(expected), ids(walked));
+    }
+
+    @Test
+    void statusSortFollowsTheEnumDeclarationOrder() {
+        List<TradeDTO> hot = List.of(trade(1, T0, TradeStatus.OPEN), trade(2, T0, TradeStatus.PENDING));
+        List<TradeDTO> cold = List.of(trade(3, T0, TradeStatus.CLOSED), trade(4, T0, TradeStatus.COMPLETED));
+
+        Page<TradeDTO> merged = TieredTradePages.merge(PageRequest.of(0, 4, Sort.by("status")), source(hot), source(cold));
+
+        List<TradeStatus> expected = Stream.of(TradeStatus.OPEN, TradeStatus.PENDING, TradeStatus.CLOSED, TradeStatus.COMPLETED)
+                .sorted()
+                .toList();
+        assertEquals(expected, merged.getContent().stream().map(TradeDTO::status).toList());
+    }
+
+    @Test
+    void keysetPagesWalkBothTiersWithoutGapsOrRepeats() {
+        List<TradeDTO> hot = new ArrayList<>();
+        List<TradeDTO> cold = new ArrayList<>();
+        for (long id = 1; id <= 23; id++) {
+            TradeDTO trade = trade(id, T0.plusMinutes(id % 4), TradeStatus.COMPLETED);
+            (id % 2 == 0 ? cold : hot).add(trade);
+        }
+        Sort keysetSort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id"));
+        List<TradeDTO> expected = sorted(Stream.concat(hot.stream(), cold.stream()).toList(), keysetSort);
+
+        List<TradeDTO> walked = new ArrayList<>();
+        TradeDTO last = null;
+        while (true) {
+            Page<TradeDTO> page = TieredTradePages.mergeAfter(keysetSort, 5,
+                    after(hot, keysetSort, last), after(cold, keysetSort, last));
+            if (page.isEmpty()) {
+                break;
+            }
+            walked.addAll(page.getContent());
+            last = page.getContent().get(page.getContent().size() - 1);
+        }
+
+        assertEquals(ids(expected), ids(walked));
+    }
+
+    @Test
+    void keysetPageTakesTheFirstRowsOfTheMerge() {
+        List<TradeDTO> hot = List.of(trade(1), trade(2), trade(3));
+        List<TradeDTO> cold = List.of(trade(4), trade(5));
+        Sort keysetSort = Sort.by("id");
+
+        Page<TradeDTO> page = TieredTradePages.mergeAfter(keysetSort, 2,
+                size -> hot.subList(0, size), size -> cold.subList(0, size));
+
+        assertEquals(List.of(1L, 2L), ids(page.getContent()));
+    }
+
+    @Test
+    void rejectsSortsTheTiersCannotBeMergedOn() {
+        Function<Pageable, Page<TradeDTO>> empty = Page::empty;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> TieredTradePages.merge(PageRequest.of(0, 10, Sort.by("unknown")), empty, empty));
+        assertThrows(IllegalArgumentException.class,
+                () -> TieredTradePages.merge(PageRequest.of(Integer.MAX_VALUE / 10, 20), empty, empty));
+    }
+
+    private static TradeDTO trade(long id) {
+        return trade(id, T0, TradeStatus.COMPLETED);
+    }
+
+    private static TradeDTO trade(long id, LocalDateTime createdAt, TradeStatus status) {
+        return new TradeDTO(id, 1L, "REF-" + id, TradeType.BUY, BigDecimal.ONE, BigDecimal.TEN, status, createdAt, 0L);
+    }
+
+    private static List<Long> ids(List<TradeDTO> trades) {
+        return trades.stream().map(TradeDTO::id).toList();
+    }
+
+    private static Comparator<TradeDTO> comparator(Sort sort) {
+        Comparator<TradeDTO> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<TradeDTO> next = ORDERINGS.get(order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending() ? next : next.reversed());
+        }
+        return comparator;
+    }
+
+    private static List<TradeDTO> sorted(List<TradeDTO> trades, Sort sort) {
+        return trades.stream().sorted(comparator(sort)).toList();
+    }
+
+    /**
+     * A tier answering offset queries like the repository: sorted, sliced and counted.
+     */
+    private static Function<Pageable, Page<TradeDTO>> source(List<TradeDTO> trades) {
+        return pageable -> {
+            List<TradeDTO> all = sorted(trades, pageable.getSort());
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), all.size());
+            return new PageImpl<>(all.subList(from, to), pageable, all.size());
+        };
+    }
+
+    /**
+     * A tier answering keyset queries: the first size rows strictly after the given trade.
+     */
+    private static Function<Integer, List<TradeDTO>> after(List<TradeDTO> trades, Sort keysetSort, TradeDTO last) {
+        Comparator<TradeDTO> comparator = comparator(keysetSort);
+        return size -> sorted(trades, keysetSort).stream()
+                .filter(trade -> last == null || comparator.compare(trade, last) > 0)
+                .limit(size)
+                .toList();
+    }
+}